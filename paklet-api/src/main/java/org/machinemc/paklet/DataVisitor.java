@@ -37,6 +37,21 @@ public interface DataVisitor {
     @Contract("_ -> this")
     DataVisitor writeBytes(byte[] bytes);
 
+    /**
+     * Skips bytes of N length.
+     *
+     * @param length length
+     * @return this
+     */
+    @Contract("_ -> this")
+    default DataVisitor skipBytes(int length) {
+        if (length < 0) throw new IllegalArgumentException("Length can not be negative: " + length);
+        int readerIndex = readerIndex() + length;
+        if (readerIndex > writerIndex())
+            throw new IndexOutOfBoundsException("Can not skip " + length + " bytes, only " + (writerIndex() - readerIndex()) + " are readable");
+        return readerIndex(readerIndex);
+    }
+
     /**
      * Reads next object using given serializer.
      *
@@ -268,6 +283,20 @@ public interface DataVisitor {
     @Contract("_ -> this")
     DataVisitor writerIndex(int writerIndex);
 
+    /**
+     * Makes sure that at least given number of bytes can be written to this
+     * data visitor without reallocating its underlying storage.
+     * <p>
+     * Implementations that can not reserve space in advance ignore this call.
+     *
+     * @param length number of bytes to reserve
+     * @return this
+     */
+    @Contract("_ -> this")
+    default DataVisitor ensureWritable(int length) {
+        return this;
+    }
+
     /**
      * Returns all bytes written to this buffer from start.
      * <p>
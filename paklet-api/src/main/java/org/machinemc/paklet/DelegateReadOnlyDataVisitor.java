@@ -171,4 +171,10 @@ public class DelegateReadOnlyDataVisitor implements DataVisitor {
         return this;
     }
 
+    @Override
+    public DataVisitor skipBytes(int length) {
+        delegate.skipBytes(length);
+        return this;
+    }
+
 }
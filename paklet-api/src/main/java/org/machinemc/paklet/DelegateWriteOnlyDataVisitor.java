@@ -169,4 +169,15 @@ class DelegateWriteOnlyDataVisitor implements DataVisitor {
         return this;
     }
 
+    @Override
+    public DataVisitor ensureWritable(int length) {
+        delegate.ensureWritable(length);
+        return this;
+    }
+
+    @Override
+    public DataVisitor skipBytes(int length) {
+        throw new UnsupportedOperationException();
+    }
+
 }
@@ -1,6 +1,8 @@
 package org.machinemc.paklet;
 
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
+import org.machinemc.paklet.serialization.SerializerProvider;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -80,6 +82,22 @@ public interface PacketFactory {
      */
     <Catalogue> void addPackets(Class<Catalogue> catalogueClass, Function<String, InputStream> resourcesAccessor);
 
+    /**
+     * Registers projection of a packet class.
+     * <p>
+     * Projection is a class that declares only a subset of the serializable fields
+     * of the packet, with the same names and types. Readers of projections decode
+     * only the projected fields and skip everything else.
+     *
+     * @param projectionClass class of the projection
+     * @param packetClass class of the projected packet
+     * @param <Projection> projection
+     *
+     * @throws IllegalArgumentException if the projection declares field that is missing in the packet
+     * @see #createProjection(Class, String, DataVisitor)
+     */
+    <Projection> void addProjection(Class<Projection> projectionClass, Class<?> packetClass);
+
     /**
      * Removes packet with given type.
      *
@@ -149,6 +167,19 @@ public interface PacketFactory {
         return getPacketID(packetClass, group) != -1;
     }
 
+    /**
+     * Checks whether the given packet class is registered in group of given handle.
+     *
+     * @param packetClass packet class
+     * @param group group handle
+     * @return whether the packet class is registered in the group
+     * @param <PacketType> packet
+     * @see #getGroupHandle(String)
+     */
+    default <PacketType> boolean isRegistered(Class<PacketType> packetClass, PacketGroupHandle group) {
+        return isRegistered(packetClass, group.getName());
+    }
+
     /**
      * Checks whether packet with given id and group is registered.
      *
@@ -160,6 +191,58 @@ public interface PacketFactory {
         return getPacketClass(packetID, group).isPresent();
     }
 
+    /**
+     * Returns handle of the packet group with given name.
+     * <p>
+     * The group is created if it does not exist yet, so the handle stays
+     * valid when the packets are registered later.
+     *
+     * @param group name of the group
+     * @return handle of the group
+     */
+    PacketGroupHandle getGroupHandle(String group);
+
+    /**
+     * Sets whether packets written to given group are trusted.
+     * <p>
+     * Packets of trusted groups are not checked against the constraints of their fields,
+     * such as {@link org.machinemc.paklet.metadata.Range} or {@link org.machinemc.paklet.metadata.Length},
+     * when they are written, reading of packets is not affected. This is meant for groups of
+     * outbound packets that are created from already validated data. Groups are usually
+     * split by the direction of the packets, so this can be set per direction.
+     * <p>
+     * Writers for trusted groups are created when the packets are registered, so this has to
+     * be set before any packets are registered to the group.
+     *
+     * @param group name of the group
+     * @param trusted whether the group is trusted
+     * @throws IllegalStateException if there are packets registered to the group
+     * @see org.machinemc.paklet.serialization.SerializerContext#trusted()
+     */
+    void setTrusted(String group, boolean trusted);
+
+    /**
+     * Returns whether packets written to given group are trusted.
+     *
+     * @param group name of the group
+     * @return whether the group is trusted
+     * @see #setTrusted(String, boolean)
+     */
+    boolean isTrusted(String group);
+
+    /**
+     * Returns immutable snapshot of this packet factory.
+     * <p>
+     * The snapshot contains packets registered at the time of the call and uses
+     * frozen snapshot of the serializer provider, later changes of this factory are
+     * not reflected. The snapshot itself can not be modified, to update it a new snapshot
+     * should be created and swapped with the previous one.
+     *
+     * @return immutable snapshot of this factory
+     * @see SerializerProvider#freeze()
+     */
+    PacketFactory freeze();
+
     /**
      * Returns collection of all currently registered packets.
      *
@@ -190,6 +273,54 @@ public interface PacketFactory {
      */
     <PacketType> PacketType create(int packetID, String group, DataVisitor visitor);
 
+    /**
+     * Creates new packet instance from given group handle and data (with packet ID).
+     *
+     * @param group group handle
+     * @param visitor visitor with data
+     * @return new packet
+     * @param <PacketType> packet
+     * @see #getGroupHandle(String)
+     */
+    default <PacketType> PacketType create(PacketGroupHandle group, DataVisitor visitor) {
+        return create(group.getName(), visitor);
+    }
+
+    /**
+     * Creates new packet instance from given ID, group handle, and data (without packet ID).
+     *
+     * @param packetID packet ID
+     * @param group group handle
+     * @param visitor visitor with data
+     * @return new packet
+     * @param <PacketType> packet
+     * @see #getGroupHandle(String)
+     */
+    default <PacketType> PacketType create(int packetID, PacketGroupHandle group, DataVisitor visitor) {
+        return create(packetID, group.getName(), visitor);
+    }
+
+    /**
+     * Creates new projection instance from given group and data (with packet ID).
+     * <p>
+     * If the packet ID does not belong to the projected packet in given group,
+     * no projection is created and the packet fields are not deserialized.
+     * <p>
+     * The whole packet is read from the visitor in both cases, fields that are not
+     * projected are skipped, so packets can be read from the visitor one after another.
+     *
+     * @param projectionClass class of the registered projection
+     * @param group group
+     * @param visitor visitor with data
+     * @return new projection, or null if the data belong to a different packet
+     * @param <Projection> projection
+     *
+     * @throws IllegalArgumentException if the projection class is not registered
+     * @throws NullPointerException if there is no packet with the ID in given group
+     * @see #addProjection(Class, Class)
+     */
+    <Projection> @Nullable Projection createProjection(Class<Projection> projectionClass, String group, DataVisitor visitor);
+
     /**
      * Writes packet to the provided data visitor.
      *
@@ -200,4 +331,34 @@ public interface PacketFactory {
      */
     <PacketType> void write(PacketType packet, String group, DataVisitor visitor);
 
+    /**
+     * Writes packet to the provided data visitor.
+     *
+     * @param packet packet to write
+     * @param group group handle
+     * @param visitor visitor
+     * @param <PacketType> packet
+     * @see #getGroupHandle(String)
+     */
+    default <PacketType> void write(PacketType packet, PacketGroupHandle group, DataVisitor visitor) {
+        write(packet, group.getName(), visitor);
+    }
+
+    /**
+     * Returns number of bytes the packet takes once written to given group, without
+     * its ID and the encoding of the factory, e.g. framing.
+     * <p>
+     * The size is only a hint for the initial capacity of the buffer the packet is written to,
+     * {@code 0} is returned if it is unknown.
+     *
+     * @param packet packet
+     * @param group group handle
+     * @return encoded size of the packet in bytes
+     * @param <PacketType> packet
+     * @see PacketWriter#sizeOf(org.machinemc.paklet.serialization.SerializerContext, Object)
+     */
+    default <PacketType> int sizeOf(PacketType packet, PacketGroupHandle group) {
+        return 0;
+    }
+
 }
@@ -0,0 +1,19 @@
+package org.machinemc.paklet;
+
+/**
+ * Handle of a packet group resolved by {@link PacketFactory#getGroupHandle(String)}.
+ * <p>
+ * Handles should be resolved once, e.g. when the state of a connection changes, and
+ * then used to read and write packets, so the group is not looked up by its name
+ * for each packet.
+ */
+public interface PacketGroupHandle {
+
+    /**
+     * Returns name of the packet group.
+     *
+     * @return name of the group
+     */
+    String getName();
+
+}
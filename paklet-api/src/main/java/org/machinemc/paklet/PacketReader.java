@@ -19,4 +19,17 @@ public interface PacketReader<PacketType> {
      */
     PacketType read(SerializerContext context, DataVisitor dataVisitor);
 
+    /**
+     * Skips next packet in a data visitor without creating it.
+     * <p>
+     * Generated readers skip the fields using {@link org.machinemc.paklet.serialization.Serializer#skip(SerializerContext, DataVisitor)},
+     * by default the packet is read and thrown away.
+     *
+     * @param context context
+     * @param dataVisitor data visitor
+     */
+    default void skip(SerializerContext context, DataVisitor dataVisitor) {
+        read(context, dataVisitor);
+    }
+
 }
@@ -19,4 +19,22 @@ public interface PacketWriter<Packet> {
      */
     void write(SerializerContext context, DataVisitor dataVisitor, Packet packet);
 
+    /**
+     * Returns number of bytes the packet takes once written.
+     * <p>
+     * The size is exact for fixed-width and variable-length numbers
+     * and an estimate for the rest, it is used only as a hint for the initial
+     * capacity of the buffer the packet is written to. Sizes that do not fit
+     * in {@code int} are {@link Integer#MAX_VALUE}, writers that can not compute
+     * the size return {@code 0}.
+     *
+     * @param context context
+     * @param packet packet
+     * @return encoded size of the packet in bytes
+     * @see org.machinemc.paklet.serialization.Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOf(SerializerContext context, Packet packet) {
+        return 0;
+    }
+
 }
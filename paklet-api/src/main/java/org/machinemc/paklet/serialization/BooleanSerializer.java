@@ -0,0 +1,94 @@
+package org.machinemc.paklet.serialization;
+
+import org.machinemc.paklet.DataVisitor;
+
+import java.util.Objects;
+
+/**
+ * Serializer of unboxed {@code boolean} values, used by generated codecs for {@code boolean} fields.
+ */
+public interface BooleanSerializer extends Serializer<Boolean> {
+
+    /**
+     * Wraps given serializer as {@code boolean} serializer, unless it already is one.
+     *
+     * @param serializer serializer to wrap
+     * @return boolean serializer
+     */
+    static BooleanSerializer adapt(Serializer<Boolean> serializer) {
+        if (serializer instanceof BooleanSerializer booleanSerializer) return booleanSerializer;
+        return new BooleanSerializer() {
+            @Override
+            public void serializeBoolean(SerializerContext context, DataVisitor visitor, boolean value) {
+                serializer.serialize(context, visitor, value);
+            }
+
+            @Override
+            public boolean deserializeBoolean(SerializerContext context, DataVisitor visitor) {
+                Boolean value = serializer.deserialize(context, visitor);
+                return Objects.requireNonNull(value, () -> "Serializer " + serializer + " deserialized null value of primitive type " + context.annotatedType());
+            }
+
+            @Override
+            public int sizeOfBoolean(SerializerContext context, boolean value) {
+                return serializer.sizeOf(context, value);
+            }
+
+            @Override
+            public void skip(SerializerContext context, DataVisitor visitor) {
+                serializer.skip(context, visitor);
+            }
+        };
+    }
+
+    /**
+     * Serializes the given {@code boolean} value to the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @param value value to serialize
+     */
+    void serializeBoolean(SerializerContext context, DataVisitor visitor, boolean value);
+
+    /**
+     * Deserializes {@code boolean} value from the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @return deserialized value
+     */
+    boolean deserializeBoolean(SerializerContext context, DataVisitor visitor);
+
+    /**
+     * Returns number of bytes the given {@code boolean} value takes once serialized.
+     *
+     * @param context serialization context
+     * @param value value to serialize
+     * @return encoded size of the value in bytes
+     * @see Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOfBoolean(SerializerContext context, boolean value) {
+        return 0;
+    }
+
+    @Override
+    default void serialize(SerializerContext context, DataVisitor visitor, Boolean value) {
+        serializeBoolean(context, visitor, value);
+    }
+
+    @Override
+    default Boolean deserialize(SerializerContext context, DataVisitor visitor) {
+        return deserializeBoolean(context, visitor);
+    }
+
+    @Override
+    default int sizeOf(SerializerContext context, Boolean value) {
+        return sizeOfBoolean(context, value);
+    }
+
+    @Override
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserializeBoolean(context, visitor);
+    }
+
+}
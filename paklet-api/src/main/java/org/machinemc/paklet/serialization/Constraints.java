@@ -0,0 +1,198 @@
+package org.machinemc.paklet.serialization;
+
+import org.jetbrains.annotations.Nullable;
+import org.machinemc.paklet.metadata.*;
+
+import java.lang.reflect.AnnotatedType;
+
+/**
+ * Constraints of a serialized type compiled from its metadata annotations
+ * {@link Range}, {@link FloatingRange}, {@link Length}, {@link FixedLength},
+ * {@link LengthUsing} and {@link DoNotPrefix}.
+ * <p>
+ * Constraints are resolved once for each serializer context, so the annotations
+ * are not looked up for each serialized value, and checks of constraints
+ * that are not present do nothing.
+ *
+ * @see SerializerContext#constraints()
+ */
+public final class Constraints {
+
+    /**
+     * Constraints of types without any metadata annotations.
+     */
+    public static final Constraints NONE = new Constraints(null, null, null, null, null, false);
+
+    private final boolean range;
+    private final double rangeMin, rangeMax;
+    private final boolean rangeInclusive;
+
+    private final boolean floatingRange;
+    private final double floatingRangeMin, floatingRangeMax;
+    private final boolean floatingRangeInclusive;
+
+    private final boolean length;
+    private final int lengthMin, lengthMax;
+
+    private final int fixedLength;
+    private final boolean fixedLengthChecked;
+    private final @Nullable Class<? extends Serializer<?>> lengthUsing;
+    private final boolean prefixed;
+
+    private Constraints(@Nullable Range range,
+                        @Nullable FloatingRange floatingRange,
+                        @Nullable Length length,
+                        @Nullable FixedLength fixedLength,
+                        @Nullable LengthUsing lengthUsing,
+                        boolean doNotPrefix) {
+        this.range = range != null;
+        rangeMin = range != null ? range.min() : 0;
+        rangeMax = range != null ? range.max() : 0;
+        rangeInclusive = range != null && range.inclusive();
+
+        this.floatingRange = floatingRange != null;
+        floatingRangeMin = floatingRange != null ? floatingRange.min() : 0;
+        floatingRangeMax = floatingRange != null ? floatingRange.max() : 0;
+        floatingRangeInclusive = floatingRange != null && floatingRange.inclusive();
+
+        this.length = length != null;
+        lengthMin = length != null ? length.min() : 0;
+        lengthMax = length != null ? length.max() : 0;
+
+        this.fixedLength = fixedLength != null ? fixedLength.value() : -1;
+        fixedLengthChecked = true;
+        this.lengthUsing = lengthUsing != null ? lengthUsing.value() : null;
+        prefixed = !doNotPrefix;
+    }
+
+    /**
+     * Creates constraints without checks that keep the encoding of given constraints.
+     *
+     * @param constraints constraints to copy the encoding of
+     */
+    private Constraints(Constraints constraints) {
+        range = floatingRange = length = false;
+        rangeMin = rangeMax = floatingRangeMin = floatingRangeMax = 0;
+        rangeInclusive = floatingRangeInclusive = false;
+        lengthMin = lengthMax = 0;
+        fixedLength = constraints.fixedLength;
+        fixedLengthChecked = false;
+        lengthUsing = constraints.lengthUsing;
+        prefixed = constraints.prefixed;
+    }
+
+    /**
+     * Compiles constraints of given type.
+     *
+     * @param type type to compile the constraints for
+     * @return constraints of the type
+     */
+    public static Constraints of(@Nullable AnnotatedType type) {
+        if (type == null || type.getAnnotations().length == 0) return NONE;
+        Range range = type.getAnnotation(Range.class);
+        FloatingRange floatingRange = type.getAnnotation(FloatingRange.class);
+        Length length = type.getAnnotation(Length.class);
+        FixedLength fixedLength = type.getAnnotation(FixedLength.class);
+        LengthUsing lengthUsing = type.getAnnotation(LengthUsing.class);
+        boolean doNotPrefix = type.isAnnotationPresent(DoNotPrefix.class);
+        if (range == null && floatingRange == null && length == null && fixedLength == null && lengthUsing == null && !doNotPrefix)
+            return NONE;
+        return new Constraints(range, floatingRange, length, fixedLength, lengthUsing, doNotPrefix);
+    }
+
+    /**
+     * Returns constraints that keep how the type is encoded, that is specified by
+     * {@link FixedLength}, {@link LengthUsing} and {@link DoNotPrefix}, but do not
+     * check any values.
+     * <p>
+     * Used for trusted serialization, where the values are expected to be valid.
+     *
+     * @return constraints without checks
+     * @see SerializerContext#trusted()
+     */
+    public Constraints withoutChecks() {
+        if (!hasChecks()) return this;
+        if (fixedLength == -1 && lengthUsing == null && prefixed) return NONE;
+        return new Constraints(this);
+    }
+
+    /**
+     * Returns whether any values are checked by these constraints.
+     *
+     * @return whether the constraints check values
+     */
+    public boolean hasChecks() {
+        return range || floatingRange || length || (fixedLengthChecked && fixedLength != -1);
+    }
+
+    /**
+     * Checks whether the value is in the {@link Range}, if present.
+     *
+     * @param value value to check
+     * @throws IllegalArgumentException if the value is out of the range
+     */
+    public void checkRange(long value) {
+        if (range) isInRange(value, rangeInclusive, rangeMin, rangeMax);
+    }
+
+    /**
+     * Checks whether the value is in the {@link FloatingRange}, if present.
+     *
+     * @param value value to check
+     * @throws IllegalArgumentException if the value is out of the range
+     */
+    public void checkFloatingRange(double value) {
+        if (floatingRange) isInRange(value, floatingRangeInclusive, floatingRangeMin, floatingRangeMax);
+    }
+
+    /**
+     * Checks whether the length matches {@link FixedLength} and {@link Length}, if present.
+     *
+     * @param length length to check
+     * @throws IllegalArgumentException if the length is not allowed
+     */
+    public void checkLength(int length) {
+        if (fixedLengthChecked && fixedLength != -1 && length != fixedLength)
+            throw new IllegalArgumentException("Expected length " + fixedLength + ", got " + length);
+        if (this.length && (lengthMax < length || lengthMin > length))
+            throw new IllegalArgumentException("Expected length between " + lengthMin + " and " + lengthMax + ", got " + length);
+    }
+
+    /**
+     * Returns whether the length of the type is prefixed, which is
+     * the case unless {@link DoNotPrefix} is present.
+     *
+     * @return whether the length is prefixed
+     */
+    public boolean isPrefixed() {
+        return prefixed;
+    }
+
+    /**
+     * Returns the length specified by {@link FixedLength}.
+     *
+     * @return fixed length, or {@code -1} if not present
+     */
+    public int getFixedLength() {
+        return fixedLength;
+    }
+
+    /**
+     * Returns serializer of the length prefix specified by {@link LengthUsing}.
+     *
+     * @return class of the length serializer, or null if not present
+     */
+    public @Nullable Class<? extends Serializer<?>> getLengthUsing() {
+        return lengthUsing;
+    }
+
+    private static void isInRange(double value, boolean inclusive, double min, double max) {
+        if ((inclusive && min <= value && value <= max) || (!inclusive && min < value && value < max))
+            return;
+        throw new IllegalArgumentException("Value out of bounds, got " + value + ", expected "
+                + "value between " + min + " and " + max + ", "
+                + (inclusive ? "inclusive" : "exclusive")
+        );
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.machinemc.paklet.serialization;
+
+import org.machinemc.paklet.DataVisitor;
+
+import java.util.Objects;
+
+/**
+ * Serializer of unboxed {@code double} values, used by generated codecs for {@code double} fields.
+ */
+public interface DoubleSerializer extends Serializer<Double> {
+
+    /**
+     * Wraps given serializer as {@code double} serializer, unless it already is one.
+     *
+     * @param serializer serializer to wrap
+     * @return double serializer
+     */
+    static DoubleSerializer adapt(Serializer<Double> serializer) {
+        if (serializer instanceof DoubleSerializer doubleSerializer) return doubleSerializer;
+        return new DoubleSerializer() {
+            @Override
+            public void serializeDouble(SerializerContext context, DataVisitor visitor, double value) {
+                serializer.serialize(context, visitor, value);
+            }
+
+            @Override
+            public double deserializeDouble(SerializerContext context, DataVisitor visitor) {
+                Double value = serializer.deserialize(context, visitor);
+                return Objects.requireNonNull(value, () -> "Serializer " + serializer + " deserialized null value of primitive type " + context.annotatedType());
+            }
+
+            @Override
+            public int sizeOfDouble(SerializerContext context, double value) {
+                return serializer.sizeOf(context, value);
+            }
+
+            @Override
+            public void skip(SerializerContext context, DataVisitor visitor) {
+                serializer.skip(context, visitor);
+            }
+        };
+    }
+
+    /**
+     * Serializes the given {@code double} value to the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @param value value to serialize
+     */
+    void serializeDouble(SerializerContext context, DataVisitor visitor, double value);
+
+    /**
+     * Deserializes {@code double} value from the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @return deserialized value
+     */
+    double deserializeDouble(SerializerContext context, DataVisitor visitor);
+
+    /**
+     * Returns number of bytes the given {@code double} value takes once serialized.
+     *
+     * @param context serialization context
+     * @param value value to serialize
+     * @return encoded size of the value in bytes
+     * @see Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOfDouble(SerializerContext context, double value) {
+        return 0;
+    }
+
+    @Override
+    default void serialize(SerializerContext context, DataVisitor visitor, Double value) {
+        serializeDouble(context, visitor, value);
+    }
+
+    @Override
+    default Double deserialize(SerializerContext context, DataVisitor visitor) {
+        return deserializeDouble(context, visitor);
+    }
+
+    @Override
+    default int sizeOf(SerializerContext context, Double value) {
+        return sizeOfDouble(context, value);
+    }
+
+    @Override
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserializeDouble(context, visitor);
+    }
+
+}
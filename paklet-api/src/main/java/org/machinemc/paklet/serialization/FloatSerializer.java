@@ -0,0 +1,94 @@
+package org.machinemc.paklet.serialization;
+
+import org.machinemc.paklet.DataVisitor;
+
+import java.util.Objects;
+
+/**
+ * Serializer of unboxed {@code float} values, used by generated codecs for {@code float} fields.
+ */
+public interface FloatSerializer extends Serializer<Float> {
+
+    /**
+     * Wraps given serializer as {@code float} serializer, unless it already is one.
+     *
+     * @param serializer serializer to wrap
+     * @return float serializer
+     */
+    static FloatSerializer adapt(Serializer<Float> serializer) {
+        if (serializer instanceof FloatSerializer floatSerializer) return floatSerializer;
+        return new FloatSerializer() {
+            @Override
+            public void serializeFloat(SerializerContext context, DataVisitor visitor, float value) {
+                serializer.serialize(context, visitor, value);
+            }
+
+            @Override
+            public float deserializeFloat(SerializerContext context, DataVisitor visitor) {
+                Float value = serializer.deserialize(context, visitor);
+                return Objects.requireNonNull(value, () -> "Serializer " + serializer + " deserialized null value of primitive type " + context.annotatedType());
+            }
+
+            @Override
+            public int sizeOfFloat(SerializerContext context, float value) {
+                return serializer.sizeOf(context, value);
+            }
+
+            @Override
+            public void skip(SerializerContext context, DataVisitor visitor) {
+                serializer.skip(context, visitor);
+            }
+        };
+    }
+
+    /**
+     * Serializes the given {@code float} value to the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @param value value to serialize
+     */
+    void serializeFloat(SerializerContext context, DataVisitor visitor, float value);
+
+    /**
+     * Deserializes {@code float} value from the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @return deserialized value
+     */
+    float deserializeFloat(SerializerContext context, DataVisitor visitor);
+
+    /**
+     * Returns number of bytes the given {@code float} value takes once serialized.
+     *
+     * @param context serialization context
+     * @param value value to serialize
+     * @return encoded size of the value in bytes
+     * @see Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOfFloat(SerializerContext context, float value) {
+        return 0;
+    }
+
+    @Override
+    default void serialize(SerializerContext context, DataVisitor visitor, Float value) {
+        serializeFloat(context, visitor, value);
+    }
+
+    @Override
+    default Float deserialize(SerializerContext context, DataVisitor visitor) {
+        return deserializeFloat(context, visitor);
+    }
+
+    @Override
+    default int sizeOf(SerializerContext context, Float value) {
+        return sizeOfFloat(context, value);
+    }
+
+    @Override
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserializeFloat(context, visitor);
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.machinemc.paklet.serialization;
+
+import org.machinemc.paklet.DataVisitor;
+
+import java.util.Objects;
+
+/**
+ * Serializer of unboxed {@code int} values, used by generated codecs for {@code int} fields.
+ */
+public interface IntSerializer extends Serializer<Integer> {
+
+    /**
+     * Wraps given serializer as {@code int} serializer, unless it already is one.
+     *
+     * @param serializer serializer to wrap
+     * @return int serializer
+     */
+    static IntSerializer adapt(Serializer<Integer> serializer) {
+        if (serializer instanceof IntSerializer intSerializer) return intSerializer;
+        return new IntSerializer() {
+            @Override
+            public void serializeInt(SerializerContext context, DataVisitor visitor, int value) {
+                serializer.serialize(context, visitor, value);
+            }
+
+            @Override
+            public int deserializeInt(SerializerContext context, DataVisitor visitor) {
+                Integer value = serializer.deserialize(context, visitor);
+                return Objects.requireNonNull(value, () -> "Serializer " + serializer + " deserialized null value of primitive type " + context.annotatedType());
+            }
+
+            @Override
+            public int sizeOfInt(SerializerContext context, int value) {
+                return serializer.sizeOf(context, value);
+            }
+
+            @Override
+            public void skip(SerializerContext context, DataVisitor visitor) {
+                serializer.skip(context, visitor);
+            }
+        };
+    }
+
+    /**
+     * Serializes the given {@code int} value to the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @param value value to serialize
+     */
+    void serializeInt(SerializerContext context, DataVisitor visitor, int value);
+
+    /**
+     * Deserializes {@code int} value from the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @return deserialized value
+     */
+    int deserializeInt(SerializerContext context, DataVisitor visitor);
+
+    /**
+     * Returns number of bytes the given {@code int} value takes once serialized.
+     *
+     * @param context serialization context
+     * @param value value to serialize
+     * @return encoded size of the value in bytes
+     * @see Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOfInt(SerializerContext context, int value) {
+        return 0;
+    }
+
+    @Override
+    default void serialize(SerializerContext context, DataVisitor visitor, Integer value) {
+        serializeInt(context, visitor, value);
+    }
+
+    @Override
+    default Integer deserialize(SerializerContext context, DataVisitor visitor) {
+        return deserializeInt(context, visitor);
+    }
+
+    @Override
+    default int sizeOf(SerializerContext context, Integer value) {
+        return sizeOfInt(context, value);
+    }
+
+    @Override
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserializeInt(context, visitor);
+    }
+
+}
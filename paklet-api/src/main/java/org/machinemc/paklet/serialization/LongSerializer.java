@@ -0,0 +1,94 @@
+package org.machinemc.paklet.serialization;
+
+import org.machinemc.paklet.DataVisitor;
+
+import java.util.Objects;
+
+/**
+ * Serializer of unboxed {@code long} values, used by generated codecs for {@code long} fields.
+ */
+public interface LongSerializer extends Serializer<Long> {
+
+    /**
+     * Wraps given serializer as {@code long} serializer, unless it already is one.
+     *
+     * @param serializer serializer to wrap
+     * @return long serializer
+     */
+    static LongSerializer adapt(Serializer<Long> serializer) {
+        if (serializer instanceof LongSerializer longSerializer) return longSerializer;
+        return new LongSerializer() {
+            @Override
+            public void serializeLong(SerializerContext context, DataVisitor visitor, long value) {
+                serializer.serialize(context, visitor, value);
+            }
+
+            @Override
+            public long deserializeLong(SerializerContext context, DataVisitor visitor) {
+                Long value = serializer.deserialize(context, visitor);
+                return Objects.requireNonNull(value, () -> "Serializer " + serializer + " deserialized null value of primitive type " + context.annotatedType());
+            }
+
+            @Override
+            public int sizeOfLong(SerializerContext context, long value) {
+                return serializer.sizeOf(context, value);
+            }
+
+            @Override
+            public void skip(SerializerContext context, DataVisitor visitor) {
+                serializer.skip(context, visitor);
+            }
+        };
+    }
+
+    /**
+     * Serializes the given {@code long} value to the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @param value value to serialize
+     */
+    void serializeLong(SerializerContext context, DataVisitor visitor, long value);
+
+    /**
+     * Deserializes {@code long} value from the data visitor.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     * @return deserialized value
+     */
+    long deserializeLong(SerializerContext context, DataVisitor visitor);
+
+    /**
+     * Returns number of bytes the given {@code long} value takes once serialized.
+     *
+     * @param context serialization context
+     * @param value value to serialize
+     * @return encoded size of the value in bytes
+     * @see Serializer#sizeOf(SerializerContext, Object)
+     */
+    default int sizeOfLong(SerializerContext context, long value) {
+        return 0;
+    }
+
+    @Override
+    default void serialize(SerializerContext context, DataVisitor visitor, Long value) {
+        serializeLong(context, visitor, value);
+    }
+
+    @Override
+    default Long deserialize(SerializerContext context, DataVisitor visitor) {
+        return deserializeLong(context, visitor);
+    }
+
+    @Override
+    default int sizeOf(SerializerContext context, Long value) {
+        return sizeOfLong(context, value);
+    }
+
+    @Override
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserializeLong(context, visitor);
+    }
+
+}
@@ -38,4 +38,15 @@ final class OptionalSerializer<T> implements Serializer<T> {
         return visitor.read(context, wrapped);
     }
 
+    @Override
+    public void skip(SerializerContext context, DataVisitor visitor) {
+        if (visitor.readBoolean()) wrapped.skip(context, visitor);
+    }
+
+    @Override
+    public int sizeOf(SerializerContext context, @Nullable T t) {
+        if (t == null) return 1;
+        return (int) Math.min(Integer.MAX_VALUE, 1L + wrapped.sizeOf(context, t));
+    }
+
 }
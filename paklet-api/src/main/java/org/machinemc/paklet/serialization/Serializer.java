@@ -31,5 +31,36 @@ public interface Serializer<T> {
      * @return deserialized value
      */
     T deserialize(SerializerContext context, DataVisitor visitor);
-    
+
+    /**
+     * Skips the next value in the data visitor without creating it.
+     * <p>
+     * By default, the value is deserialized and thrown away, serializers that can
+     * move past the value without materializing it should override this method.
+     * Skipped values are not validated, apart from their lengths.
+     *
+     * @param context serialization context
+     * @param visitor visitor
+     */
+    default void skip(SerializerContext context, DataVisitor visitor) {
+        deserialize(context, visitor);
+    }
+
+    /**
+     * Returns number of bytes the given value takes once serialized.
+     * <p>
+     * The size is used to preallocate buffers before the value is serialized,
+     * it is expected to be exact for fixed-width and variable-length numbers and
+     * an estimate for the rest. Sizes that do not fit in {@code int} are {@link Integer#MAX_VALUE}.
+     * Serializers that can not compute the size cheaply return {@code 0}, in that case
+     * no space is reserved in advance.
+     *
+     * @param context serialization context
+     * @param t value to serialize
+     * @return encoded size of the value in bytes
+     */
+    default int sizeOf(SerializerContext context, T t) {
+        return 0;
+    }
+
 }
@@ -9,14 +9,84 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Context of current serialization.
- *
- * @param annotatedType type that is being currently serialized
- * @param serializerProvider provider of other serializers
+ * <p>
+ * The serializer of the context and contexts of its parameters are resolved only once
+ * and then reused, so the serializers of nested types, e.g. {@code List<List<String>>},
+ * form a tree that is built when the context is used for the first time. Contexts should
+ * be kept and reused for the same type, as generated readers and writers do.
+ * <p>
+ * Values serialized with {@link #trusted() trusted} contexts are not checked against
+ * the constraints of their types, see {@link Constraints#withoutChecks()}.
  */
-public record SerializerContext(@Nullable AnnotatedType annotatedType, SerializerProvider serializerProvider) {
+public final class SerializerContext {
+
+    private final @Nullable AnnotatedType annotatedType;
+    private final SerializerProvider serializerProvider;
+    private final boolean trusted;
+
+    private volatile @Nullable Serializer<?> serializer;
+    private volatile SerializerContext @Nullable [] parameters;
+    private volatile @Nullable SerializerContext component;
+    private volatile @Nullable Constraints constraints;
+
+    /**
+     * Creates new serializer context.
+     *
+     * @param annotatedType type that is being currently serialized
+     * @param serializerProvider provider of other serializers
+     */
+    public SerializerContext(@Nullable AnnotatedType annotatedType, SerializerProvider serializerProvider) {
+        this(annotatedType, serializerProvider, false);
+    }
+
+    private SerializerContext(@Nullable AnnotatedType annotatedType, SerializerProvider serializerProvider, boolean trusted) {
+        this.annotatedType = annotatedType;
+        this.serializerProvider = serializerProvider;
+        this.trusted = trusted;
+    }
+
+    /**
+     * Returns type that is being currently serialized.
+     *
+     * @return type that is being serialized
+     */
+    public @Nullable AnnotatedType annotatedType() {
+        return annotatedType;
+    }
+
+    /**
+     * Returns provider of other serializers.
+     *
+     * @return serializer provider
+     */
+    public SerializerProvider serializerProvider() {
+        return serializerProvider;
+    }
+
+    /**
+     * Returns whether values serialized with this context are trusted
+     * and not checked against the constraints of their types.
+     *
+     * @return whether this context is trusted
+     */
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    /**
+     * Returns trusted copy of this serializer context, contexts derived from it
+     * are trusted as well.
+     *
+     * @return trusted context
+     * @see #isTrusted()
+     */
+    public SerializerContext trusted() {
+        return trusted ? this : new SerializerContext(annotatedType, serializerProvider, true);
+    }
 
     /**
      * Creates new copy of the serializer context for given type.
@@ -25,7 +95,7 @@ public record SerializerContext(@Nullable AnnotatedType annotatedType, Serialize
      * @return new context
      */
     public SerializerContext withType(@Nullable AnnotatedType annotatedType) {
-        return new SerializerContext(annotatedType, serializerProvider);
+        return new SerializerContext(annotatedType, serializerProvider, trusted);
     }
 
     /**
@@ -41,6 +111,21 @@ public record SerializerContext(@Nullable AnnotatedType annotatedType, Serialize
         return withType(type.getAnnotatedActualTypeArguments()[0]);
     }
 
+    /**
+     * Returns constraints of the type being serialized.
+     *
+     * @return constraints of the type
+     */
+    public Constraints constraints() {
+        Constraints constraints = this.constraints;
+        if (constraints == null) {
+            constraints = Constraints.of(annotatedType);
+            if (trusted) constraints = constraints.withoutChecks();
+            this.constraints = constraints;
+        }
+        return constraints;
+    }
+
     /**
      * Returns serializer that is used for serializing type of this context.
      *
@@ -49,6 +134,12 @@ public record SerializerContext(@Nullable AnnotatedType annotatedType, Serialize
      */
     @SuppressWarnings("unchecked")
     public <T> Serializer<T> serializeWith() {
+        Serializer<?> serializer = this.serializer;
+        if (serializer == null) this.serializer = serializer = resolveSerializer();
+        return (Serializer<T>) serializer;
+    }
+
+    private Serializer<?> resolveSerializer() {
         if (annotatedType == null) throw new UnsupportedOperationException("Currently no type is being serialized");
 
         Serializer<?> serializer;
@@ -74,7 +165,7 @@ public record SerializerContext(@Nullable AnnotatedType annotatedType, Serialize
         if (annotatedType.isAnnotationPresent(Optional.class))
             serializer = new OptionalSerializer<>(serializer);
 
-        return (Serializer<T>) serializer;
+        return serializer;
     }
 
     /**
@@ -88,12 +179,53 @@ public record SerializerContext(@Nullable AnnotatedType annotatedType, Serialize
      * @throws IndexOutOfBoundsException if the index is out of bounds
      */
     public SerializerContext getContextForParameter(int index) {
+        SerializerContext[] parameters = this.parameters;
+        if (parameters == null) {
+            if (annotatedType == null) throw new UnsupportedOperationException("Currently no type is being serialized");
+            if (!(annotatedType instanceof AnnotatedParameterizedType parameterized))
+                throw new UnsupportedOperationException("This Type has to parameters");
+            AnnotatedType[] params = parameterized.getAnnotatedActualTypeArguments();
+            parameters = new SerializerContext[params.length];
+            for (int i = 0; i < params.length; i++)
+                parameters[i] = new SerializerContext(params[i], serializerProvider, trusted);
+            this.parameters = parameters;
+        }
+        if (parameters.length <= index || index < 0) throw new IndexOutOfBoundsException();
+        return parameters[index];
+    }
+
+    /**
+     * Returns context of the component type of array type being serialized.
+     *
+     * @return context for the component type
+     * @throws UnsupportedOperationException if this type is not an array
+     */
+    public SerializerContext getContextForComponent() {
+        SerializerContext component = this.component;
+        if (component != null) return component;
         if (annotatedType == null) throw new UnsupportedOperationException("Currently no type is being serialized");
-        if (!(annotatedType instanceof AnnotatedParameterizedType parameterized))
-            throw new UnsupportedOperationException("This Type has to parameters");
-        AnnotatedType[] params = parameterized.getAnnotatedActualTypeArguments();
-        if (params.length <= index || index < 0) throw new IndexOutOfBoundsException();
-        return new SerializerContext(params[index], serializerProvider);
+        if (!(annotatedType instanceof AnnotatedArrayType array))
+            throw new UnsupportedOperationException("This Type is not an array");
+        return this.component = new SerializerContext(array.getAnnotatedGenericComponentType(), serializerProvider, trusted);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof SerializerContext context)) return false;
+        return Objects.equals(annotatedType, context.annotatedType)
+                && Objects.equals(serializerProvider, context.serializerProvider)
+                && trusted == context.trusted;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(annotatedType, serializerProvider, trusted);
+    }
+
+    @Override
+    public String toString() {
+        return "SerializerContext[annotatedType=" + annotatedType + ", serializerProvider=" + serializerProvider + ", trusted=" + trusted + "]";
     }
 
     @SuppressWarnings("unchecked")
@@ -157,6 +157,18 @@ public interface SerializerProvider {
      */
     @Unmodifiable Collection<SerializationRule> getRegisteredSerializationRules();
 
+    /**
+     * Returns immutable snapshot of this serializer provider.
+     * <p>
+     * The snapshot contains serializers and serialization rules registered at the time
+     * of the call, later changes of this provider are not reflected. The snapshot itself
+     * can not be modified, to update it a new snapshot should be created and swapped
+     * with the previous one.
+     *
+     * @return immutable snapshot of this provider
+     */
+    SerializerProvider freeze();
+
     /**
      * Returns default serializer for given type.
      *
@@ -2,12 +2,9 @@ package org.machinemc.paklet.serialization;
 
 import org.jetbrains.annotations.Nullable;
 import org.machinemc.paklet.DataVisitor;
-import org.machinemc.paklet.metadata.*;
 import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
 
 import java.io.*;
-import java.lang.reflect.AnnotatedArrayType;
-import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
@@ -15,6 +12,7 @@ import java.math.BigInteger;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * Collection of default serializers.
@@ -26,8 +24,28 @@ public final class Serializers {
      */
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Boolean.class, boolean.class})
-    public static class Boolean extends SimpleSerializer<java.lang.Boolean> {
-        public Boolean() { super(DataVisitor::writeBoolean, DataVisitor::readBoolean); }
+    public static class Boolean implements BooleanSerializer {
+
+        @Override
+        public void serializeBoolean(SerializerContext context, DataVisitor visitor, boolean value) {
+            visitor.writeBoolean(value);
+        }
+
+        @Override
+        public boolean deserializeBoolean(SerializerContext context, DataVisitor visitor) {
+            return visitor.readBoolean();
+        }
+
+        @Override
+        public int sizeOfBoolean(SerializerContext context, boolean value) {
+            return 1;
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(1);
+        }
+
     }
 
     /**
@@ -36,7 +54,7 @@ public final class Serializers {
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Byte.class, byte.class})
     public static class Byte extends SimpleNumberSerializer<java.lang.Byte> {
-        public Byte() { super(DataVisitor::writeByte, DataVisitor::readByte, false); }
+        public Byte() { super(DataVisitor::writeByte, DataVisitor::readByte, java.lang.Byte.BYTES, false); }
     }
 
     /**
@@ -45,7 +63,7 @@ public final class Serializers {
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Short.class, short.class})
     public static class Short extends SimpleNumberSerializer<java.lang.Short> {
-        public Short() { super(DataVisitor::writeShort, DataVisitor::readShort, false); }
+        public Short() { super(DataVisitor::writeShort, DataVisitor::readShort, java.lang.Short.BYTES, false); }
     }
 
     /**
@@ -53,8 +71,31 @@ public final class Serializers {
      */
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Integer.class, int.class})
-    public static class Integer extends SimpleNumberSerializer<java.lang.Integer> {
-        public Integer() { super(DataVisitor::writeInt, DataVisitor::readInt, false); }
+    public static class Integer implements IntSerializer {
+
+        @Override
+        public void serializeInt(SerializerContext context, DataVisitor visitor, int value) {
+            context.constraints().checkRange(value);
+            visitor.writeInt(value);
+        }
+
+        @Override
+        public int deserializeInt(SerializerContext context, DataVisitor visitor) {
+            int value = visitor.readInt();
+            context.constraints().checkRange(value);
+            return value;
+        }
+
+        @Override
+        public int sizeOfInt(SerializerContext context, int value) {
+            return java.lang.Integer.BYTES;
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(java.lang.Integer.BYTES);
+        }
+
     }
 
     /**
@@ -62,8 +103,31 @@ public final class Serializers {
      */
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Long.class, long.class})
-    public static class Long extends SimpleNumberSerializer<java.lang.Long> {
-        public Long() { super(DataVisitor::writeLong, DataVisitor::readLong, false); }
+    public static class Long implements LongSerializer {
+
+        @Override
+        public void serializeLong(SerializerContext context, DataVisitor visitor, long value) {
+            context.constraints().checkRange(value);
+            visitor.writeLong(value);
+        }
+
+        @Override
+        public long deserializeLong(SerializerContext context, DataVisitor visitor) {
+            long value = visitor.readLong();
+            context.constraints().checkRange(value);
+            return value;
+        }
+
+        @Override
+        public int sizeOfLong(SerializerContext context, long value) {
+            return java.lang.Long.BYTES;
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(java.lang.Long.BYTES);
+        }
+
     }
 
     /**
@@ -71,8 +135,31 @@ public final class Serializers {
      */
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Float.class, float.class})
-    public static class Float extends SimpleNumberSerializer<java.lang.Float> {
-        public Float() { super(DataVisitor::writeFloat, DataVisitor::readFloat, false); }
+    public static class Float implements FloatSerializer {
+
+        @Override
+        public void serializeFloat(SerializerContext context, DataVisitor visitor, float value) {
+            context.constraints().checkRange((long) value);
+            visitor.writeFloat(value);
+        }
+
+        @Override
+        public float deserializeFloat(SerializerContext context, DataVisitor visitor) {
+            float value = visitor.readFloat();
+            context.constraints().checkRange((long) value);
+            return value;
+        }
+
+        @Override
+        public int sizeOfFloat(SerializerContext context, float value) {
+            return java.lang.Float.BYTES;
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(java.lang.Float.BYTES);
+        }
+
     }
 
     /**
@@ -80,8 +167,31 @@ public final class Serializers {
      */
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Double.class, double.class})
-    public static class Double extends SimpleNumberSerializer<java.lang.Double> {
-        public Double() { super(DataVisitor::writeDouble, DataVisitor::readDouble, false); }
+    public static class Double implements DoubleSerializer {
+
+        @Override
+        public void serializeDouble(SerializerContext context, DataVisitor visitor, double value) {
+            context.constraints().checkRange((long) value);
+            visitor.writeDouble(value);
+        }
+
+        @Override
+        public double deserializeDouble(SerializerContext context, DataVisitor visitor) {
+            double value = visitor.readDouble();
+            context.constraints().checkRange((long) value);
+            return value;
+        }
+
+        @Override
+        public int sizeOfDouble(SerializerContext context, double value) {
+            return java.lang.Double.BYTES;
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(java.lang.Double.BYTES);
+        }
+
     }
 
     /**
@@ -90,7 +200,7 @@ public final class Serializers {
     @DefaultSerializer(DefaultSerializers.class)
     @Supports({java.lang.Character.class, char.class})
     public static class Character extends SimpleSerializer<java.lang.Character> {
-        public Character() { super(DataVisitor::writeChar, DataVisitor::readChar); }
+        public Character() { super(DataVisitor::writeChar, DataVisitor::readChar, java.lang.Character.BYTES); }
     }
 
     /**
@@ -106,11 +216,9 @@ public final class Serializers {
 
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, java.lang.Number value) {
-            AnnotatedType annotatedType = context.annotatedType();
-            if (annotatedType != null) {
-                checkRange(annotatedType, value.longValue());
-                checkFloatingRange(annotatedType, value.doubleValue());
-            }
+            Constraints constraints = context.constraints();
+            constraints.checkRange(value.longValue());
+            constraints.checkFloatingRange(value.doubleValue());
             Serializer<java.lang.String> serializer = context.serializerProvider().getFor(java.lang.String.class);
             visitor.write(context, serializer, value.toString());
         }
@@ -120,19 +228,23 @@ public final class Serializers {
             Serializer<java.lang.String> serializer = context.serializerProvider().getFor(java.lang.String.class);
             java.lang.String value = visitor.read(context, serializer);
             java.lang.Number num;
-            AnnotatedType annotatedType = context.annotatedType();
-            if (annotatedType != null && context.annotatedType().getType() == BigInteger.class) {
+            if (context.annotatedType() != null && context.annotatedType().getType() == BigInteger.class) {
                 num = new BigInteger(value);
             } else {
                 num = new BigDecimal(value);
             }
-            if (annotatedType != null) {
-                checkRange(annotatedType, num.longValue());
-                checkFloatingRange(annotatedType, num.doubleValue());
-            }
+            Constraints constraints = context.constraints();
+            constraints.checkRange(num.longValue());
+            constraints.checkFloatingRange(num.doubleValue());
             return num;
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            Serializer<java.lang.String> serializer = context.serializerProvider().getFor(java.lang.String.class);
+            serializer.skip(context, visitor);
+        }
+
     }
 
     /**
@@ -147,8 +259,7 @@ public final class Serializers {
 
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, java.lang.String string) {
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), string.length());
+            context.constraints().checkLength(string.length());
             byte[] bytes = string.getBytes();
             Serializer<java.lang.Integer> serializer = context.serializerProvider().getFor(java.lang.Integer.class);
             visitor.write(context, serializer, bytes.length);
@@ -159,11 +270,25 @@ public final class Serializers {
         public java.lang.String deserialize(SerializerContext context, DataVisitor visitor) {
             Serializer<java.lang.Integer> serializer = context.serializerProvider().getFor(java.lang.Integer.class);
             int length = visitor.read(context, serializer);
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), length);
+            context.constraints().checkLength(length);
             return new java.lang.String(visitor.readBytes(length));
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            Serializer<java.lang.Integer> serializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            int length = visitor.read(context, serializer);
+            context.constraints().checkLength(length);
+            visitor.skipBytes(length);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, java.lang.String string) {
+            int length = utf8Length(string);
+            Serializer<java.lang.Integer> serializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            return saturate((long) serializer.sizeOf(context, length) + length);
+        }
+
     }
 
     /**
@@ -181,12 +306,11 @@ public final class Serializers {
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, java.util.Collection<?> objects) {
             int size = objects.size();
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), size);
+            context.constraints().checkLength(size);
 
             SerializerContext paramContext = context.getContextForParameter(0);
 
-            writeLength(context.annotatedType(), context, visitor, size);
+            writeLength(context, visitor, size);
 
             Serializer<Object> paramSerializer = paramContext.serializeWith();
             for (Object object : objects)
@@ -197,10 +321,9 @@ public final class Serializers {
         public java.util.Collection<?> deserialize(SerializerContext context, DataVisitor visitor) {
             SerializerContext paramContext = context.getContextForParameter(0);
 
-            int size = readLength(context.annotatedType(), context, visitor);
+            int size = readLength(context, visitor);
 
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), size);
+            context.constraints().checkLength(size);
 
             java.util.Collection<Object> objects;
             if (context.annotatedType() == null) objects = new ArrayList<>();
@@ -213,6 +336,25 @@ public final class Serializers {
             return objects;
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            SerializerContext paramContext = context.getContextForParameter(0);
+
+            int size = readLength(context, visitor);
+
+            context.constraints().checkLength(size);
+
+            skipAll(paramContext, visitor, size);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, java.util.Collection<?> objects) {
+            SerializerContext paramContext = context.getContextForParameter(0);
+            Serializer<Object> paramSerializer = paramContext.serializeWith();
+            int size = sizeOfLength(context, objects.size());
+            return saturate((long) size + sizeOfAll(paramContext, paramSerializer, objects, objects.size()));
+        }
+
         private java.util.Collection<Object> createCollectionFromType(@Nullable Type target) {
             if (target instanceof ParameterizedType parameterizedType)
                 target = parameterizedType.getRawType();
@@ -242,13 +384,12 @@ public final class Serializers {
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, java.util.Map<?, ?> map) {
             int size = map.size();
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), size);
+            context.constraints().checkLength(size);
 
             SerializerContext keyContext = context.getContextForParameter(0);
             SerializerContext valueContext = context.getContextForParameter(1);
 
-            writeLength(context.annotatedType(), context, visitor, size);
+            writeLength(context, visitor, size);
 
             Serializer<Object> keySerializer = keyContext.serializeWith();
             Serializer<Object> valueSerializer = valueContext.serializeWith();
@@ -264,10 +405,9 @@ public final class Serializers {
             SerializerContext keyContext = context.getContextForParameter(0);
             SerializerContext valueContext = context.getContextForParameter(1);
 
-            int size = readLength(context.annotatedType(), context, visitor);
+            int size = readLength(context, visitor);
 
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), size);
+            context.constraints().checkLength(size);
 
             java.util.Map<Object, Object> map;
             if (context.annotatedType() == null) map = new LinkedHashMap<>();
@@ -285,6 +425,36 @@ public final class Serializers {
             return map;
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            SerializerContext keyContext = context.getContextForParameter(0);
+            SerializerContext valueContext = context.getContextForParameter(1);
+
+            int size = readLength(context, visitor);
+
+            context.constraints().checkLength(size);
+
+            Serializer<Object> keySerializer = keyContext.serializeWith();
+            Serializer<Object> valueSerializer = valueContext.serializeWith();
+
+            for (int i = 0; i < size; i++) {
+                keySerializer.skip(keyContext, visitor);
+                valueSerializer.skip(valueContext, visitor);
+            }
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, java.util.Map<?, ?> map) {
+            SerializerContext keyContext = context.getContextForParameter(0);
+            SerializerContext valueContext = context.getContextForParameter(1);
+            Serializer<Object> keySerializer = keyContext.serializeWith();
+            Serializer<Object> valueSerializer = valueContext.serializeWith();
+            long size = sizeOfLength(context, map.size());
+            size += sizeOfAll(keyContext, keySerializer, map.keySet(), map.size());
+            size += sizeOfAll(valueContext, valueSerializer, map.values(), map.size());
+            return saturate(size);
+        }
+
         private java.util.Map<Object, Object> createMapFromType(@Nullable Type target) {
             if (target instanceof ParameterizedType parameterizedType)
                 target = parameterizedType.getRawType();
@@ -312,7 +482,8 @@ public final class Serializers {
                         visitor.writeLong(uuid.getMostSignificantBits());
                         visitor.writeLong(uuid.getLeastSignificantBits());
                     },
-                    visitor -> new java.util.UUID(visitor.readLong(), visitor.readLong())
+                    visitor -> new java.util.UUID(visitor.readLong(), visitor.readLong()),
+                    2 * java.lang.Long.BYTES
             );
         }
 
@@ -328,7 +499,8 @@ public final class Serializers {
         public Instant() {
             super(
                     (visitor, instant) -> visitor.writeLong(instant.toEpochMilli()),
-                    visitor -> java.time.Instant.ofEpochMilli(visitor.readLong())
+                    visitor -> java.time.Instant.ofEpochMilli(visitor.readLong()),
+                    java.lang.Long.BYTES
             );
         }
 
@@ -349,11 +521,10 @@ public final class Serializers {
 
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, java.util.BitSet bitSet) {
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), bitSet.length());
+            context.constraints().checkLength(bitSet.length());
 
-            if (context.annotatedType() != null && context.annotatedType().isAnnotationPresent(FixedLength.class)) {
-                int length = context.annotatedType().getAnnotation(FixedLength.class).value();
+            int length = context.constraints().getFixedLength();
+            if (length != -1) {
                 if (bitSet.length() > length)
                     throw new IllegalArgumentException("BitSet is larger than expected size");
                 visitor.writeBytes(Arrays.copyOf(bitSet.toByteArray(), -Math.floorDiv(-length, 8)));
@@ -368,10 +539,10 @@ public final class Serializers {
 
         @Override
         public java.util.BitSet deserialize(SerializerContext context, DataVisitor visitor) {
-            if (context.annotatedType() != null && context.annotatedType().isAnnotationPresent(FixedLength.class)) {
-                int length = context.annotatedType().getAnnotation(FixedLength.class).value();
+            int length = context.constraints().getFixedLength();
+            if (length != -1) {
                 java.util.BitSet bitSet = java.util.BitSet.valueOf(visitor.readBytes(-Math.floorDiv(-length, 8)));
-                checkLength(context.annotatedType(), bitSet.length());
+                context.constraints().checkLength(bitSet.length());
                 return bitSet;
             }
 
@@ -379,11 +550,32 @@ public final class Serializers {
             long[] data = new long[visitor.read(context, intSerializer)];
             for (int i = 0; i < data.length; i++) data[i] = visitor.readLong();
             java.util.BitSet bitSet = java.util.BitSet.valueOf(data);
-            if (context.annotatedType() != null)
-                checkLength(context.annotatedType(), bitSet.length());
+            context.constraints().checkLength(bitSet.length());
             return bitSet;
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            int length = context.constraints().getFixedLength();
+            if (length != -1) {
+                visitor.skipBytes(-Math.floorDiv(-length, 8));
+                return;
+            }
+
+            Serializer<java.lang.Integer> intSerializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            skipFixed(visitor, visitor.read(context, intSerializer), java.lang.Long.BYTES);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, java.util.BitSet bitSet) {
+            int length = context.constraints().getFixedLength();
+            if (length != -1)
+                return -Math.floorDiv(-length, 8);
+            int words = -Math.floorDiv(-bitSet.length(), java.lang.Long.SIZE);
+            Serializer<java.lang.Integer> intSerializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            return intSerializer.sizeOf(context, words) + words * java.lang.Long.BYTES;
+        }
+
     }
 
     /**
@@ -416,6 +608,18 @@ public final class Serializers {
             }
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            Serializer<java.lang.Integer> intSerializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            intSerializer.skip(context, visitor);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, java.lang.Enum<?> value) {
+            Serializer<java.lang.Integer> intSerializer = context.serializerProvider().getFor(java.lang.Integer.class);
+            return intSerializer.sizeOf(context, value.ordinal());
+        }
+
     }
 
     /**
@@ -437,10 +641,9 @@ public final class Serializers {
             if (context.annotatedType() == null) throw new UnsupportedOperationException();
 
             int length = java.lang.reflect.Array.getLength(object);
-            writeLength(context.annotatedType(), context, visitor, length);
+            writeLength(context, visitor, length);
 
-            AnnotatedType componentType = ((AnnotatedArrayType) context.annotatedType()).getAnnotatedGenericComponentType();
-            SerializerContext componentContext = context.withType(componentType);
+            SerializerContext componentContext = context.getContextForComponent();
 
             Serializer<Object> componentSerializer = componentContext.serializeWith();
             for (int i = 0; i < length; i++)
@@ -451,13 +654,12 @@ public final class Serializers {
         public Object deserialize(SerializerContext context, DataVisitor visitor) {
             if (context.annotatedType() == null) throw new UnsupportedOperationException();
 
-            int length = readLength(context.annotatedType(), context, visitor);
+            int length = readLength(context, visitor);
 
             Class<?> clazz = SerializerContext.asClass(context.annotatedType().getType());
             Object array = java.lang.reflect.Array.newInstance(clazz.getComponentType(), length);
 
-            AnnotatedType componentType = ((AnnotatedArrayType) context.annotatedType()).getAnnotatedGenericComponentType();
-            SerializerContext componentContext = context.withType(componentType);
+            SerializerContext componentContext = context.getContextForComponent();
 
             Serializer<Object> componentSerializer = componentContext.serializeWith();
             for (int i = 0; i < length; i++)
@@ -466,6 +668,31 @@ public final class Serializers {
             return array;
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            if (context.annotatedType() == null) throw new UnsupportedOperationException();
+
+            int length = readLength(context, visitor);
+
+            skipAll(context.getContextForComponent(), visitor, length);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, Object object) {
+            if (context.annotatedType() == null) return 0;
+
+            int length = java.lang.reflect.Array.getLength(object);
+            int size = sizeOfLength(context, length);
+
+            SerializerContext componentContext = context.getContextForComponent();
+
+            Serializer<Object> componentSerializer = componentContext.serializeWith();
+            Iterable<?> components = object instanceof Object[] array
+                    ? Arrays.asList(array)
+                    : () -> IntStream.range(0, length).mapToObj(i -> java.lang.reflect.Array.get(object, i)).iterator();
+            return saturate((long) size + sizeOfAll(componentContext, componentSerializer, components, length));
+        }
+
     }
 
     /**
@@ -507,10 +734,12 @@ public final class Serializers {
 
         final BiConsumer<DataVisitor, T> serialize;
         final Function<DataVisitor, T> deserialize;
+        final int size;
 
-        public SimpleSerializer(BiConsumer<DataVisitor, T> serialize, Function<DataVisitor, T> deserialize) {
+        public SimpleSerializer(BiConsumer<DataVisitor, T> serialize, Function<DataVisitor, T> deserialize, int size) {
             this.serialize = serialize;
             this.deserialize = deserialize;
+            this.size = size;
         }
 
         @Override
@@ -523,6 +752,16 @@ public final class Serializers {
             return deserialize.apply(visitor);
         }
 
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            visitor.skipBytes(size);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, T t) {
+            return size;
+        }
+
     }
 
     private static class SimpleNumberSerializer<T extends java.lang.Number> extends SimpleSerializer<T> {
@@ -531,29 +770,26 @@ public final class Serializers {
 
         public SimpleNumberSerializer(BiConsumer<DataVisitor, T> serialize,
                                       Function<DataVisitor, T> deserialize,
+                                      int size,
                                       boolean floatingPoint) {
-            super(serialize, deserialize);
+            super(serialize, deserialize, size);
             this.floatingPoint = floatingPoint;
         }
 
         @Override
         public T deserialize(SerializerContext context, DataVisitor visitor) {
             T num = super.deserialize(context, visitor);
-            AnnotatedType annotatedType = context.annotatedType();
-            if (annotatedType != null) {
-                checkRange(annotatedType, num.longValue());
-                if (floatingPoint) checkFloatingRange(annotatedType, num.doubleValue());
-            }
+            Constraints constraints = context.constraints();
+            constraints.checkRange(num.longValue());
+            if (floatingPoint) constraints.checkFloatingRange(num.doubleValue());
             return num;
         }
 
         @Override
         public void serialize(SerializerContext context, DataVisitor visitor, T t) {
-            AnnotatedType annotatedType = context.annotatedType();
-            if (annotatedType != null) {
-                checkRange(annotatedType, t.longValue());
-                if (floatingPoint) checkFloatingRange(annotatedType, t.doubleValue());
-            }
+            Constraints constraints = context.constraints();
+            constraints.checkRange(t.longValue());
+            if (floatingPoint) constraints.checkFloatingRange(t.doubleValue());
             super.serialize(context, visitor, t);
         }
 
@@ -563,71 +799,101 @@ public final class Serializers {
         throw new UnsupportedOperationException();
     }
 
-    private static void checkRange(AnnotatedType type, long value) {
-        Range range = type.getAnnotation(Range.class);
-        if (range == null) return;
-        isInRange(value, range.inclusive(), range.min(), range.max());
+    private static void writeLength(SerializerContext context, DataVisitor visitor, int length) {
+        if (!context.constraints().isPrefixed()) return;
+        visitor.write(context, lengthSerializer(context), length);
     }
 
-    private static void checkFloatingRange(AnnotatedType type, double value) {
-        FloatingRange range = type.getAnnotation(FloatingRange.class);
-        if (range == null) return;
-        isInRange(value, range.inclusive(), range.min(), range.max());
+    private static int sizeOfLength(SerializerContext context, int length) {
+        if (!context.constraints().isPrefixed()) return 0;
+        return lengthSerializer(context).sizeOf(context, length);
     }
 
-    private static void isInRange(double value, boolean inclusive, double min, double max) {
-        if ((inclusive && min <= value && value <= max) || (!inclusive && min < value && value < max))
+    /**
+     * Skips given number of values, values serialized using serializers
+     * with fixed width are skipped all at once.
+     */
+    private static void skipAll(SerializerContext context, DataVisitor visitor, int count) {
+        Serializer<Object> serializer = context.serializeWith();
+        int width = fixedWidth(serializer);
+        if (width > 0) {
+            skipFixed(visitor, count, width);
             return;
-        throw new IllegalArgumentException("Value out of bounds, got " + value + ", expected "
-                + "value between " + min + " and " + max + ", "
-                + (inclusive ? "inclusive" : "exclusive")
-        );
+        }
+        for (int i = 0; i < count; i++)
+            serializer.skip(context, visitor);
     }
 
-    private static void checkLength(AnnotatedType type, int length) {
-        FixedLength fLength = type.getAnnotation(FixedLength.class);
-        if (fLength != null && length != fLength.value())
-            throw new IllegalArgumentException("Expected length " + fLength.value() + ", got " + length);
-        Length rLength = type.getAnnotation(Length.class);
-        if (rLength != null && (rLength.max() < length || rLength.min() > length))
-            throw new IllegalArgumentException("Expected length between " + rLength.min() + " and " + rLength.max() + ", got " + length);
+    /**
+     * Skips given number of values with given width, the number is checked
+     * against the readable bytes first, so lengths read from the data can not overflow.
+     */
+    private static void skipFixed(DataVisitor visitor, int count, int width) {
+        if (count < 0) throw new IllegalArgumentException("Length can not be negative: " + count);
+        int readable = visitor.writerIndex() - visitor.readerIndex();
+        if (count > readable / width)
+            throw new IndexOutOfBoundsException("Can not skip " + count + " values of " + width + " bytes, only " + readable + " bytes are readable");
+        visitor.skipBytes(count * width);
     }
 
-    @SuppressWarnings("unchecked")
-    private static void writeLength(@Nullable AnnotatedType type, SerializerContext context, DataVisitor visitor, int length) {
-        if (type == null) {
-            Serializer<java.lang.Integer> intSerializer = context.serializerProvider().getFor(java.lang.Integer.class);
-            visitor.write(context, intSerializer, length);
-            return;
+    /**
+     * Computes size of given number of values, values serialized using serializers
+     * with fixed width are not visited.
+     */
+    private static int sizeOfAll(SerializerContext context, Serializer<Object> serializer, Iterable<?> values, int count) {
+        int width = fixedWidth(serializer);
+        if (width >= 0) return saturate((long) count * width);
+        long size = 0;
+        for (Object value : values) {
+            size += serializer.sizeOf(context, value);
+            if (size >= java.lang.Integer.MAX_VALUE) break;
         }
+        return saturate(size);
+    }
 
-        if (type.isAnnotationPresent(DoNotPrefix.class)) return;
-
-        LengthUsing using = type.getAnnotation(LengthUsing.class);
-        Serializer<?> serializer = using == null
-                ? context.serializerProvider().getFor(java.lang.Integer.class)
-                : context.serializerProvider().getOf(using.value());
+    /**
+     * Sizes that do not fit in {@code int} are reported as {@link java.lang.Integer#MAX_VALUE}.
+     */
+    private static int saturate(long size) {
+        return (int) Math.min(java.lang.Integer.MAX_VALUE, size);
+    }
 
-        visitor.write(context, (Serializer<java.lang.Integer>) serializer, length);
+    private static int fixedWidth(Serializer<?> serializer) {
+        if (serializer instanceof SimpleSerializer<?> simple) return simple.size;
+        Class<?> type = serializer.getClass();
+        if (type == Boolean.class) return 1;
+        if (type == Integer.class || type == Float.class) return java.lang.Integer.BYTES;
+        if (type == Long.class || type == Double.class) return java.lang.Long.BYTES;
+        return -1;
     }
 
-    private static int readLength(@Nullable AnnotatedType type, SerializerContext context, DataVisitor visitor) {
-        if (type == null) {
-            return visitor.read(context, context.serializerProvider().getFor(java.lang.Integer.class));
+    private static int utf8Length(java.lang.String string) {
+        int length = string.length();
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                size++;
+            } else if (java.lang.Character.isHighSurrogate(c) && i + 1 < length && java.lang.Character.isLowSurrogate(string.charAt(i + 1))) {
+                size += 2; // 4 bytes for the pair of chars
+                i++;
+            } else {
+                size += 2;
+            }
         }
+        return size;
+    }
 
-        if (type.isAnnotationPresent(DoNotPrefix.class)) {
-            FixedLength fixedLength = type.getAnnotation(FixedLength.class);
-            if (fixedLength == null)
+    private static int readLength(SerializerContext context, DataVisitor visitor) {
+        Constraints constraints = context.constraints();
+        if (!constraints.isPrefixed()) {
+            if (constraints.getFixedLength() == -1)
                 throw new RuntimeException("Missing FixedLength annotation for un-prefixed collection");
-            return fixedLength.value();
+            return constraints.getFixedLength();
         }
 
-        LengthUsing using = type.getAnnotation(LengthUsing.class);
-        Serializer<?> serializer = using == null
-                ? context.serializerProvider().getFor(java.lang.Integer.class)
-                : context.serializerProvider().getOf(using.value());
-
+        Serializer<java.lang.Integer> serializer = lengthSerializer(context);
         Object length = visitor.read(context, serializer);
         if (!(length instanceof java.lang.Number num))
             throw new UnsupportedOperationException("Serializer " + serializer.getClass().getName() + " can not be used to prefix collections");
@@ -635,4 +901,13 @@ public final class Serializers {
         return num.intValue();
     }
 
+    @SuppressWarnings("unchecked")
+    private static Serializer<java.lang.Integer> lengthSerializer(SerializerContext context) {
+        Class<? extends Serializer<?>> using = context.constraints().getLengthUsing();
+        Serializer<?> serializer = using == null
+                ? context.serializerProvider().getFor(java.lang.Integer.class)
+                : context.serializerProvider().getOf(using);
+        return (Serializer<java.lang.Integer>) serializer;
+    }
+
 }
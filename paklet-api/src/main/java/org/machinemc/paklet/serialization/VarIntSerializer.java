@@ -15,16 +15,16 @@ import org.machinemc.paklet.DataVisitor;
  * Within these limits, unnecessarily long encodings (e.g. 81 00 to encode 1) are allowed.
  */
 @Supports({Integer.class, int.class})
-public class VarIntSerializer implements Serializer<Integer> {
+public class VarIntSerializer implements IntSerializer {
 
     private static final int SEGMENT_BITS = 0x7F;
     private static final int CONTINUE_BIT = 0x80;
 
     @Override
-    public void serialize(SerializerContext context, DataVisitor visitor, Integer value) {
+    public void serializeInt(SerializerContext context, DataVisitor visitor, int value) {
         while (true) {
             if ((value & ~SEGMENT_BITS) == 0) {
-                visitor.writeByte(value.byteValue());
+                visitor.writeByte((byte) value);
                 return;
             }
             visitor.writeByte((byte) ((value & SEGMENT_BITS) | CONTINUE_BIT));
@@ -33,7 +33,7 @@ public class VarIntSerializer implements Serializer<Integer> {
     }
 
     @Override
-    public Integer deserialize(SerializerContext context, DataVisitor visitor) {
+    public int deserializeInt(SerializerContext context, DataVisitor visitor) {
         int value = 0;
         int position = 0;
         byte currentByte;
@@ -49,4 +49,19 @@ public class VarIntSerializer implements Serializer<Integer> {
         return value;
     }
 
+    @Override
+    public void skip(SerializerContext context, DataVisitor visitor) {
+        int position = 0;
+        while ((visitor.readByte() & CONTINUE_BIT) != 0) {
+            position += 7;
+            if (position >= 32) throw new RuntimeException("VarInt is too big");
+        }
+    }
+
+    @Override
+    public int sizeOfInt(SerializerContext context, int value) {
+        // every byte carries 7 bits of the value, zero still takes a single byte
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
 }
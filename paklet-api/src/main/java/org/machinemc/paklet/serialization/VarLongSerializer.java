@@ -15,16 +15,16 @@ import org.machinemc.paklet.DataVisitor;
  * Within these limits, unnecessarily long encodings (e.g. 81 00 to encode 1) are allowed.
  */
 @Supports({Long.class, long.class})
-public class VarLongSerializer implements Serializer<Long> {
+public class VarLongSerializer implements LongSerializer {
 
     private static final int SEGMENT_BITS = 0x7F;
     private static final int CONTINUE_BIT = 0x80;
 
     @Override
-    public void serialize(SerializerContext context, DataVisitor visitor, Long value) {
+    public void serializeLong(SerializerContext context, DataVisitor visitor, long value) {
         while (true) {
             if ((value & ~((long) SEGMENT_BITS)) == 0) {
-                visitor.writeByte(value.byteValue());
+                visitor.writeByte((byte) value);
                 return;
             }
             visitor.writeByte((byte) ((value & SEGMENT_BITS) | CONTINUE_BIT));
@@ -33,7 +33,7 @@ public class VarLongSerializer implements Serializer<Long> {
     }
 
     @Override
-    public Long deserialize(SerializerContext context, DataVisitor visitor) {
+    public long deserializeLong(SerializerContext context, DataVisitor visitor) {
         long value = 0;
         int position = 0;
         byte currentByte;
@@ -49,4 +49,19 @@ public class VarLongSerializer implements Serializer<Long> {
         return value;
     }
 
+    @Override
+    public void skip(SerializerContext context, DataVisitor visitor) {
+        int position = 0;
+        while ((visitor.readByte() & CONTINUE_BIT) != 0) {
+            position += 7;
+            if (position >= 64) throw new RuntimeException("VarLong is too big");
+        }
+    }
+
+    @Override
+    public int sizeOfLong(SerializerContext context, long value) {
+        // every byte carries 7 bits of the value, zero still takes a single byte
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
 }
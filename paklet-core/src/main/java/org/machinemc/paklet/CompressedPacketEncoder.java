@@ -0,0 +1,214 @@
+package org.machinemc.paklet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressing packet encoder.
+ * <p>
+ * Packets are encoded by the wrapped encoder directly after space reserved for the header
+ * of the frame, packets shorter than the threshold are then only prefixed with the header.
+ * Longer packets are compressed from the target buffer to a reused buffer, and copied back
+ * once compressed. Compressed packets are decompressed straight to the buffer they are then read from.
+ * <p>
+ * Each thread keeps a single deflater and inflater shared by all compressing encoders, so they
+ * are created neither for each packet nor for each connection, and are released with the thread.
+ *
+ * @see PacketEncoder#compressed(PacketEncoder, int, int)
+ */
+class CompressedPacketEncoder implements PacketEncoder {
+
+    /**
+     * Maximum length of the uncompressed data.
+     */
+    static final int MAX_DATA_LENGTH = 1 << 23;
+
+    private static final ThreadLocal<Zlib> ZLIB = ThreadLocal.withInitial(Zlib::new);
+
+    private static final int FRAME_LENGTH_SIZE = 3;
+    // length of the frame followed by zero length of uncompressed data
+    private static final int HEADER_SIZE = FRAME_LENGTH_SIZE + 1;
+
+    private final VarIntSerializer serializer = new VarIntSerializer();
+    private final PacketEncoder encoder;
+    private final int threshold;
+    private final int level;
+
+    CompressedPacketEncoder(PacketEncoder encoder, int threshold, int level) {
+        this.encoder = encoder;
+        this.threshold = threshold;
+        this.level = level;
+    }
+
+    @Override
+    public void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded) {
+        int start = reserveHeader(target);
+        encoder.encode(target, serializerProvider, group, encoded);
+        finish(target, new SerializerContext(null, serializerProvider), start);
+    }
+
+    @Override
+    public <T> void encode(DataVisitor target, SerializerProvider serializerProvider, String group,
+                           int packetID, PacketWriter<T> writer, SerializerContext context, T packet) {
+        int start = reserveHeader(target);
+        encoder.encode(target, serializerProvider, group, packetID, writer, context, packet);
+        finish(target, context, start);
+    }
+
+    @Override
+    public Encoded decode(DataVisitor source, SerializerProvider serializerProvider, String group) {
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        int frameLength = serializer.deserializeInt(context, source);
+        if (frameLength < 1 || frameLength > MAX_FRAME_LENGTH)
+            throw new IllegalArgumentException("Invalid frame length " + frameLength + ", maximum is " + MAX_FRAME_LENGTH);
+        int readable = source.writerIndex() - source.readerIndex();
+        if (frameLength > readable)
+            throw new IndexOutOfBoundsException("Frame of length " + frameLength + " is incomplete, only " + readable + " bytes are readable");
+
+        int end = source.readerIndex() + frameLength;
+        int dataLength = serializer.deserializeInt(context, source);
+        if (source.readerIndex() > end) throw new IllegalArgumentException("Data length exceeds the frame of length " + frameLength);
+
+        ByteBuf data;
+        if (source instanceof NettyDataVisitor netty) {
+            data = netty.getByteBuf().slice(source.readerIndex(), end - source.readerIndex());
+        } else {
+            data = Unpooled.wrappedBuffer(source.readBytes(end - source.readerIndex()));
+        }
+        source.readerIndex(end);
+
+        if (dataLength != 0) {
+            if (dataLength < threshold)
+                throw new IllegalArgumentException("Data of length " + dataLength + " are compressed, threshold is " + threshold);
+            if (dataLength > MAX_DATA_LENGTH)
+                throw new IllegalArgumentException("Data length " + dataLength + " exceeds maximum length " + MAX_DATA_LENGTH);
+            data = ZLIB.get().inflate(data.nioBuffer(), dataLength);
+        }
+        return encoder.decode(new NettyDataVisitor(data), serializerProvider, group);
+    }
+
+    private static int reserveHeader(DataVisitor target) {
+        target.ensureWritable(HEADER_SIZE);
+        int start = target.writerIndex();
+        target.writerIndex(start + HEADER_SIZE);
+        return start;
+    }
+
+    /**
+     * Writes the header of the frame that starts at given index,
+     * and compresses its data if they are longer than the threshold.
+     */
+    private void finish(DataVisitor target, SerializerContext context, int start) {
+        int dataStart = start + HEADER_SIZE;
+        int dataLength = target.writerIndex() - dataStart;
+        if (dataLength < threshold) {
+            checkFrameLength(target, start, 1 + dataLength);
+            FramedPacketEncoder.writeLength(target, start, 1 + dataLength, FRAME_LENGTH_SIZE);
+            FramedPacketEncoder.writeLength(target, start + FRAME_LENGTH_SIZE, 0, 1);
+            return;
+        }
+        if (dataLength > MAX_DATA_LENGTH) {
+            target.writerIndex(start);
+            throw new IllegalArgumentException("Data length " + dataLength + " exceeds maximum length " + MAX_DATA_LENGTH);
+        }
+
+        ByteBuffer input;
+        if (target instanceof NettyDataVisitor netty) {
+            input = netty.getByteBuf().nioBuffer(dataStart, dataLength);
+        } else {
+            int readerIndex = target.readerIndex();
+            target.readerIndex(dataStart);
+            input = ByteBuffer.wrap(target.readBytes(dataLength));
+            target.readerIndex(readerIndex);
+        }
+        ByteBuffer compressed = ZLIB.get().deflate(input, level);
+
+        int frameLength = serializer.sizeOfInt(context, dataLength) + compressed.remaining();
+        checkFrameLength(target, start, frameLength);
+        // the data were compressed, so they can be overwritten
+        target.writerIndex(start + FRAME_LENGTH_SIZE);
+        target.ensureWritable(frameLength);
+        serializer.serializeInt(context, target, dataLength);
+        if (target instanceof NettyDataVisitor netty) {
+            netty.getByteBuf().writeBytes(compressed);
+        } else {
+            byte[] bytes = new byte[compressed.remaining()];
+            compressed.get(bytes);
+            target.writeBytes(bytes);
+        }
+        FramedPacketEncoder.writeLength(target, start, frameLength, FRAME_LENGTH_SIZE);
+    }
+
+    private static void checkFrameLength(DataVisitor target, int start, int frameLength) {
+        if (frameLength <= MAX_FRAME_LENGTH) return;
+        target.writerIndex(start);
+        throw new IllegalArgumentException("Frame length " + frameLength + " exceeds maximum length " + MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Deflater, inflater and buffer for the compressed data reused by a single thread.
+     * <p>
+     * The deflater and inflater are reset after each use, so they do not keep the input,
+     * and the buffer is kept only while it is small, so a single large packet does not
+     * retain memory of the thread.
+     */
+    private static final class Zlib {
+
+        private static final int OUTPUT_SIZE = 8192;
+        private static final int MAX_RETAINED_OUTPUT_SIZE = 1 << 16;
+
+        private final Deflater deflater = new Deflater();
+        private final Inflater inflater = new Inflater();
+        private ByteBuffer output = ByteBuffer.allocate(OUTPUT_SIZE);
+
+        /**
+         * Compresses the input, the returned buffer is valid until the next call.
+         */
+        ByteBuffer deflate(ByteBuffer input, int level) {
+            deflater.setLevel(level);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteBuffer output = this.output.clear();
+            try {
+                while (!deflater.finished()) {
+                    if (!output.hasRemaining()) {
+                        output = ByteBuffer.allocate(output.capacity() * 2).put(output.flip());
+                        if (output.capacity() <= MAX_RETAINED_OUTPUT_SIZE) this.output = output;
+                    }
+                    deflater.deflate(output);
+                }
+            } finally {
+                deflater.reset();
+            }
+            return output.flip();
+        }
+
+        ByteBuf inflate(ByteBuffer input, int dataLength) {
+            inflater.setInput(input);
+            ByteBuf data = Unpooled.buffer(dataLength, dataLength);
+            ByteBuffer output = data.nioBuffer(0, dataLength);
+            try {
+                while (output.hasRemaining()) {
+                    if (inflater.inflate(output) == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+                        throw new IllegalArgumentException("Compressed data are shorter than " + dataLength + " bytes");
+                }
+            } catch (DataFormatException exception) {
+                throw new IllegalArgumentException("Invalid compressed data", exception);
+            } finally {
+                inflater.reset();
+            }
+            return data.writerIndex(dataLength);
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package org.machinemc.paklet;
+
+import io.netty.buffer.Unpooled;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+
+/**
+ * Framed var int packet encoder.
+ * <p>
+ * The length of the frame is not known until the packet is written, so space for it is
+ * reserved using the estimated size of the packet, and the length is written once the packet
+ * is. If the length takes fewer bytes than reserved, it is padded with continuation bits
+ * so the frame does not have to be moved, if it takes more, the frame is shifted once.
+ *
+ * @see PacketEncoder#framed()
+ */
+class FramedPacketEncoder implements PacketEncoder {
+
+    private final VarIntSerializer serializer = new VarIntSerializer();
+    private final int maxFrameLength;
+
+    FramedPacketEncoder(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    public void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded) {
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        DataVisitor packetData = encoded.packetData();
+        int length = serializer.sizeOfInt(context, encoded.packetID()) + packetData.writerIndex() - packetData.readerIndex();
+        checkLength(length);
+        target.ensureWritable(serializer.sizeOfInt(context, length) + length);
+        serializer.serializeInt(context, target, length);
+        serializer.serializeInt(context, target, encoded.packetID());
+        target.write(packetData);
+    }
+
+    @Override
+    public <T> void encode(DataVisitor target, SerializerProvider serializerProvider, String group,
+                           int packetID, PacketWriter<T> writer, SerializerContext context, T packet) {
+        if (packetID < 0) throw new IllegalArgumentException("Invalid packet ID " + packetID);
+        int packetSize = writer.sizeOf(context, packet);
+        int estimate = serializer.sizeOfInt(context, packetID) + SizeHints.reserved(packetSize);
+        // writers that can not compute the size reserve space for the longest allowed frame
+        int reserved = serializer.sizeOfInt(context, packetSize > 0 ? Math.min(estimate, maxFrameLength) : maxFrameLength);
+        target.ensureWritable(reserved + estimate);
+
+        int start = target.writerIndex();
+        target.writerIndex(start + reserved);
+        serializer.serializeInt(context, target, packetID);
+        writer.write(context, target, packet);
+
+        int length = target.writerIndex() - start - reserved;
+        if (length > maxFrameLength) {
+            target.writerIndex(start);
+            checkLength(length);
+        }
+        int size = serializer.sizeOfInt(context, length);
+        if (size > reserved) {
+            shift(target, start + reserved, length, size - reserved);
+            reserved = size;
+        }
+        writeLength(target, start, length, reserved);
+    }
+
+    @Override
+    public Encoded decode(DataVisitor source, SerializerProvider serializerProvider, String group) {
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        int length = serializer.deserializeInt(context, source);
+        if (length < 1) throw new IllegalArgumentException("Invalid frame length " + length);
+        checkLength(length);
+        int readable = source.writerIndex() - source.readerIndex();
+        if (length > readable)
+            throw new IndexOutOfBoundsException("Frame of length " + length + " is incomplete, only " + readable + " bytes are readable");
+
+        int end = source.readerIndex() + length;
+        int packetID = serializer.deserializeInt(context, source);
+        if (source.readerIndex() > end) throw new IllegalArgumentException("Packet ID exceeds the frame of length " + length);
+
+        DataVisitor packetData;
+        if (source instanceof NettyDataVisitor netty) {
+            // bounded view of the frame, the packet data are not copied
+            packetData = new NettyDataVisitor(netty.getByteBuf().slice(source.readerIndex(), end - source.readerIndex()));
+        } else {
+            packetData = new NettyDataVisitor(Unpooled.wrappedBuffer(source.readBytes(end - source.readerIndex())));
+        }
+        source.readerIndex(end);
+        return new Encoded(packetID, packetData);
+    }
+
+    private void checkLength(int length) {
+        if (length > maxFrameLength)
+            throw new IllegalArgumentException("Frame length " + length + " exceeds maximum length " + maxFrameLength);
+    }
+
+    /**
+     * Writes the length at given index using exactly given number of bytes,
+     * padded with continuation bits if the length takes fewer bytes.
+     */
+    static void writeLength(DataVisitor target, int index, int length, int size) {
+        int writerIndex = target.writerIndex();
+        target.writerIndex(index);
+        for (int i = 0; i < size - 1; i++) {
+            target.writeByte((byte) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        target.writeByte((byte) length);
+        target.writerIndex(writerIndex);
+    }
+
+    /**
+     * Moves the data at given index by given number of bytes towards the end of the target.
+     */
+    private static void shift(DataVisitor target, int index, int length, int distance) {
+        target.ensureWritable(distance);
+        int readerIndex = target.readerIndex();
+        target.readerIndex(index);
+        byte[] data = target.readBytes(length);
+        target.readerIndex(readerIndex);
+        target.writerIndex(index + distance);
+        target.writeBytes(data);
+    }
+
+}
@@ -7,6 +7,7 @@ import org.machinemc.paklet.serialization.SerializerProvider;
 import org.machinemc.paklet.serialization.VarIntSerializer;
 
 import java.util.Objects;
+import java.util.zip.Deflater;
 
 /**
  * Encodes packet data into a visitor.
@@ -15,6 +16,11 @@ import java.util.Objects;
  */
 public interface PacketEncoder {
 
+    /**
+     * Maximum length of a frame whose length fits in three bytes.
+     */
+    int MAX_FRAME_LENGTH = (1 << 21) - 1;
+
     /**
      * The default implementation of packet encoder that encodes the
      * packet prefixed with its ID as var int, followed by the packet data.
@@ -26,6 +32,70 @@ public interface PacketEncoder {
         return new VarIntPacketEncoder();
     }
 
+    /**
+     * Packet encoder that encodes each packet as a frame prefixed with its length as
+     * var int, followed by the packet ID as var int and the packet data.
+     * <p>
+     * Frames can be at most {@value #MAX_FRAME_LENGTH} bytes long, so their length takes at most three bytes.
+     *
+     * @return framed var int packet encoder
+     * @see #framed(int)
+     */
+    static PacketEncoder framed() {
+        return new FramedPacketEncoder(MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Packet encoder that encodes each packet as a frame prefixed with its length as
+     * var int, followed by the packet ID as var int and the packet data.
+     * <p>
+     * Frames longer than the maximum length can be neither encoded nor decoded.
+     *
+     * @param maxFrameLength maximum length of the frame, without its length prefix
+     * @return framed var int packet encoder
+     */
+    static PacketEncoder framed(int maxFrameLength) {
+        if (maxFrameLength < 1) throw new IllegalArgumentException("Invalid maximum frame length " + maxFrameLength);
+        return new FramedPacketEncoder(maxFrameLength);
+    }
+
+    /**
+     * Packet encoder that frames packets encoded by given encoder and compresses
+     * those that are at least as long as the threshold using zlib.
+     * <p>
+     * Each frame is prefixed with its length as var int, followed by the length of the
+     * uncompressed data as var int, or zero if the data are not compressed, and the data.
+     * This matches the compressed packet format of the Minecraft Java Protocol, if the
+     * given encoder is {@link #varInt()}.
+     *
+     * @param encoder encoder of the packets inside the frames
+     * @param threshold minimal length of the data that are compressed
+     * @return compressing packet encoder
+     * @see #compressed(PacketEncoder, int, int)
+     */
+    static PacketEncoder compressed(PacketEncoder encoder, int threshold) {
+        return compressed(encoder, threshold, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Packet encoder that frames packets encoded by given encoder and compresses
+     * those that are at least as long as the threshold using zlib.
+     *
+     * @param encoder encoder of the packets inside the frames
+     * @param threshold minimal length of the data that are compressed
+     * @param level compression level, from {@code 0} to {@code 9}, or {@code -1} for the default level
+     * @return compressing packet encoder
+     * @see #compressed(PacketEncoder, int)
+     * @see Deflater#setLevel(int)
+     */
+    static PacketEncoder compressed(PacketEncoder encoder, int threshold, int level) {
+        Objects.requireNonNull(encoder, "Encoder can not be null");
+        if (threshold < 0) throw new IllegalArgumentException("Invalid compression threshold " + threshold);
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        return new CompressedPacketEncoder(encoder, threshold, level);
+    }
+
     /**
      * Encodes the packet to the target data visitor.
      *
@@ -36,8 +106,38 @@ public interface PacketEncoder {
      */
     void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded);
 
+    /**
+     * Encodes the packet written by given writer to the target data visitor.
+     * <p>
+     * The default implementation writes the packet to an intermediate buffer and encodes
+     * it using {@link #encode(DataVisitor, SerializerProvider, String, Encoded)}. Encoders
+     * should override it to write the packet directly to the target, if the writer fails,
+     * the target may then contain partially written packet.
+     *
+     * @param target target
+     * @param serializerProvider serializer provider
+     * @param group provided packet group
+     * @param packetID packet id
+     * @param writer writer of the packet
+     * @param context context used by the writer
+     * @param packet packet to write
+     * @param <T> packet
+     */
+    default <T> void encode(DataVisitor target, SerializerProvider serializerProvider, String group,
+                            int packetID, PacketWriter<T> writer, SerializerContext context, T packet) {
+        // presized to the encoded size of the packet, so large packets do not grow the buffer while written
+        int size = SizeHints.reserved(writer.sizeOf(context, packet));
+        DataVisitor packetData = new NettyDataVisitor(size > 0 ? Unpooled.buffer(size) : Unpooled.buffer());
+        writer.write(context, packetData, packet);
+        encode(target, serializerProvider, group, new Encoded(packetID, packetData));
+    }
+
     /**
      * Decodes packet from the source data visitor.
+     * <p>
+     * The packet data of the decoded packet may be the source itself, or a view sharing
+     * its reader index, positioned at the start of the data, so the packet is read without
+     * copying it. The source is then positioned after the packet once its data are read.
      *
      * @param source source
      * @param serializerProvider serializer provider
@@ -75,17 +175,28 @@ class VarIntPacketEncoder implements PacketEncoder {
     @Override
     public void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded) {
         SerializerContext context = new SerializerContext(null, serializerProvider);
-        serializer.serialize(context, target, encoded.packetID());
-        target.write(encoded.packetData());
+        DataVisitor packetData = encoded.packetData();
+        target.ensureWritable(serializer.sizeOfInt(context, encoded.packetID()) + packetData.writerIndex() - packetData.readerIndex());
+        serializer.serializeInt(context, target, encoded.packetID());
+        target.write(packetData);
+    }
+
+    @Override
+    public <T> void encode(DataVisitor target, SerializerProvider serializerProvider, String group,
+                           int packetID, PacketWriter<T> writer, SerializerContext context, T packet) {
+        if (packetID < 0) throw new IllegalArgumentException("Invalid packet ID " + packetID);
+        // the packet is written right after its ID, without copying it from an intermediate buffer
+        target.ensureWritable(serializer.sizeOfInt(context, packetID) + SizeHints.reserved(writer.sizeOf(context, packet)));
+        serializer.serializeInt(context, target, packetID);
+        writer.write(context, target, packet);
     }
 
     @Override
     public Encoded decode(DataVisitor source, SerializerProvider serializerProvider, String group) {
         SerializerContext context = new SerializerContext(null, serializerProvider);
         int packetID = serializer.deserialize(context, source);
-        DataVisitor packetData = new NettyDataVisitor(Unpooled.buffer());
-        packetData.write(source);
-        return new Encoded(packetID, packetData);
+        // the packet data follow the ID, so they are read from the source in place
+        return new Encoded(packetID, source);
     }
 
 }
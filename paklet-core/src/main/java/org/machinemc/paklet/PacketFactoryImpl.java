@@ -1,9 +1,7 @@
 package org.machinemc.paklet;
 
-import io.netty.buffer.Unpooled;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
-import org.machinemc.paklet.netty.NettyDataVisitor;
 import org.machinemc.paklet.processors.*;
 import org.machinemc.paklet.serialization.SerializerContext;
 import org.machinemc.paklet.serialization.SerializerProvider;
@@ -26,31 +24,60 @@ public class PacketFactoryImpl implements PacketFactory {
     private final PacketEncoder encoder;
     private final SerializerProvider serializerProvider;
 
-    private final Map<Class<?>, List<PacketGroup>> packet2Group = new ConcurrentHashMap<>();
-    private final Map<String, PacketGroup> groups = new ConcurrentHashMap<>();
+    private final Map<Class<?>, List<PacketGroup>> packet2Group;
+    private final Map<String, PacketGroup> groups;
+    private final Map<Class<?>, PacketProjection> projections;
+
+    private final boolean frozen;
 
     public PacketFactoryImpl(PacketEncoder encoder, SerializerProvider serializerProvider) {
         this.encoder = encoder;
         this.serializerProvider = serializerProvider;
+        packet2Group = new ConcurrentHashMap<>();
+        groups = new ConcurrentHashMap<>();
+        projections = new ConcurrentHashMap<>();
+        frozen = false;
+    }
+
+    /**
+     * Creates immutable snapshot of given packet factory.
+     *
+     * @param factory factory to copy
+     */
+    private PacketFactoryImpl(PacketFactoryImpl factory) {
+        encoder = factory.encoder;
+        serializerProvider = factory.serializerProvider.freeze();
+        Map<String, PacketGroup> groups = new HashMap<>();
+        factory.groups.forEach((name, group) -> groups.put(name, new PacketGroup(this, group)));
+        this.groups = Map.copyOf(groups);
+        packet2Group = Map.copyOf(factory.packet2Group);
+        projections = Map.copyOf(factory.projections);
+        frozen = true;
     }
 
     @Override
     public <PacketType> void addPacket(Class<PacketType> packetClass) {
-        ReaderCreator readerCreator;
-        WriterCreator writerCreator;
-
-        if (CustomPacket.class.isAssignableFrom(packetClass)) {
-            readerCreator = new CustomReaderCreator();
-            writerCreator = new CustomWriterCreator();
-        } else if (ProcessorsUtil.isGeneratedPacketClass(packetClass)) {
-            readerCreator = new GeneratedReaderCreator();
-            writerCreator = new GeneratedWriterCreator();
-        } else {
-            readerCreator = new ProxyReaderCreator();
-            writerCreator = new ProxyWriterCreator();
+        checkModifiable();
+        Packet annotation = packetClass.getAnnotation(Packet.class);
+        if (annotation == null) throw new IllegalArgumentException("Class " + packetClass.getName() + " is not a valid packet class");
+        ReaderCreator readerCreator = ProcessorsUtil.getDefaultReaderCreator(packetClass, serializerProvider);
+        PacketReader<PacketType> reader = readerCreator.create(packetClass);
+
+        // trusted writers are created only if the packet is registered to a trusted group
+        PacketWriter<PacketType> writer = null, trustedWriter = null;
+        for (String group : annotation.group()) {
+            PacketWriter<PacketType> groupWriter;
+            if (isTrusted(group)) {
+                if (trustedWriter == null)
+                    trustedWriter = ProcessorsUtil.getDefaultWriterCreator(packetClass, serializerProvider, true).create(packetClass);
+                groupWriter = trustedWriter;
+            } else {
+                if (writer == null)
+                    writer = ProcessorsUtil.getDefaultWriterCreator(packetClass, serializerProvider).create(packetClass);
+                groupWriter = writer;
+            }
+            addPacket(packetClass, reader, groupWriter, computePacketID(packetClass, group), group);
         }
-
-        addPacket(packetClass, readerCreator.create(packetClass), writerCreator.create(packetClass));
     }
 
     @Override
@@ -63,11 +90,12 @@ public class PacketFactoryImpl implements PacketFactory {
 
     @Override
     public <PacketType> void addPacket(Class<PacketType> packetClass, PacketReader<PacketType> reader, PacketWriter<PacketType> writer, int packetID, String group) {
+        checkModifiable();
         if (packetClass == null || reader == null || writer == null) throw new NullPointerException();
         if (packetID == Packet.INVALID_PACKET) return; // invalid packets should be ignored
         if (packetID < 0) throw new IllegalArgumentException("Invalid packet ID for packet " + packetClass.getName());
 
-        PacketGroup packetGroup = this.groups.computeIfAbsent(group, PacketGroup::new);
+        PacketGroup packetGroup = groups.computeIfAbsent(group, name -> new PacketGroup(this, name));
         packetGroup.addPacket(packetID, packetClass, reader, writer); // throws illegal exception if packet ID already exists
 
         List<PacketGroup> groupsList = new CopyOnWriteArrayList<>(packet2Group.computeIfAbsent(packetClass, __ -> new ArrayList<>()));
@@ -91,8 +119,17 @@ public class PacketFactoryImpl implements PacketFactory {
         }
     }
 
+    @Override
+    public <Projection> void addProjection(Class<Projection> projectionClass, Class<?> packetClass) {
+        checkModifiable();
+        if (projectionClass == null || packetClass == null) throw new NullPointerException();
+        PacketReader<Projection> reader = new ProjectionReaderCreator(serializerProvider).create(projectionClass, packetClass);
+        projections.put(projectionClass, new PacketProjection(packetClass, reader));
+    }
+
     @Override
     public boolean removePacket(int packetID, String group) {
+        checkModifiable();
         PacketGroup packetGroup = groups.get(group);
         if (packetGroup == null) return false;
         return packetGroup.removePacket(packetID);
@@ -116,6 +153,39 @@ public class PacketFactoryImpl implements PacketFactory {
         return Optional.ofNullable(packet2Group.get(packetClass)).map(l -> l.stream().map(PacketGroup::getName).toArray(String[]::new));
     }
 
+    @Override
+    public <PacketType> boolean isRegistered(Class<PacketType> packetClass, PacketGroupHandle group) {
+        if (group instanceof PacketGroup packetGroup && packetGroup.factory == this)
+            return packetGroup.getEntry(packetClass) != null;
+        return isRegistered(packetClass, group.getName());
+    }
+
+    @Override
+    public PacketGroupHandle getGroupHandle(String group) {
+        if (!frozen) return groups.computeIfAbsent(group, name -> new PacketGroup(this, name));
+        PacketGroup packetGroup = groups.get(group);
+        if (packetGroup == null) throw new NullPointerException("Group " + group + " is not registered");
+        return packetGroup;
+    }
+
+    @Override
+    public void setTrusted(String group, boolean trusted) {
+        checkModifiable();
+        PacketGroup packetGroup = groups.computeIfAbsent(group, name -> new PacketGroup(this, name));
+        packetGroup.setTrusted(trusted);
+    }
+
+    @Override
+    public boolean isTrusted(String group) {
+        PacketGroup packetGroup = groups.get(group);
+        return packetGroup != null && packetGroup.trusted;
+    }
+
+    @Override
+    public PacketFactory freeze() {
+        return frozen ? this : new PacketFactoryImpl(this);
+    }
+
     @Override
     public @Unmodifiable Collection<Class<?>> getRegisteredPackets() {
         return Collections.unmodifiableSet(packet2Group.keySet());
@@ -128,41 +198,103 @@ public class PacketFactoryImpl implements PacketFactory {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <PacketType> PacketType create(int packetID, String group, DataVisitor visitor) {
+        PacketGroup packetGroup = groups.get(group);
+        if (packetGroup == null) throw new NullPointerException("There is no " + group + " packet group");
+        return create(packetID, packetGroup, visitor);
+    }
+
+    @Override
+    public <PacketType> PacketType create(PacketGroupHandle group, DataVisitor visitor) {
+        PacketGroup packetGroup = resolve(group);
+        PacketEncoder.Encoded decoded = encoder.decode(visitor, serializerProvider, packetGroup.getName());
+        return create(decoded.packetID(), packetGroup, decoded.packetData());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <PacketType> PacketType create(int packetID, PacketGroupHandle group, DataVisitor visitor) {
         if (packetID < 0) throw new IllegalArgumentException("Invalid packet ID: " + packetID);
+        PacketGroup packetGroup = resolve(group);
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        return (PacketType) packetGroup.getDecoder().read(packetID, context, visitor);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Projection> @Nullable Projection createProjection(Class<Projection> projectionClass, String group, DataVisitor visitor) {
+        PacketProjection projection = projections.get(projectionClass);
+        if (projection == null) throw new IllegalArgumentException("Class " + projectionClass.getName() + " is not a registered projection");
 
         PacketGroup packetGroup = groups.get(group);
         if (packetGroup == null) throw new NullPointerException("There is no " + group + " packet group");
 
-        Class<?> packetClass = packetGroup.getPacket(packetID);
-        if (packetClass == null) throw new NullPointerException("There is no packet with id " + packetID + " in group " + group);
-
-        PacketReader<?> reader = packetGroup.getReader(packetClass);
-        if (reader == null) throw new NullPointerException();
+        PacketEncoder.Encoded decoded = encoder.decode(visitor, serializerProvider, group);
+        PacketEntry entry = packetGroup.getEntry(decoded.packetID());
+        if (entry == null)
+            throw new NullPointerException("There is no packet with id " + decoded.packetID() + " in group " + group);
 
         SerializerContext context = new SerializerContext(null, serializerProvider);
-        return (PacketType) reader.read(context, visitor);
+        if (entry.packetClass() != projection.packetClass()) {
+            // packets decoded in place are followed by the next packet, so the data are always read as whole
+            entry.reader().skip(context, decoded.packetData());
+            return null;
+        }
+        return (Projection) projection.reader().read(context, decoded.packetData());
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <PacketType> void write(PacketType packet, String group, DataVisitor visitor) {
-        Class<?> packetClass = packet.getClass();
         PacketGroup packetGroup = groups.get(group);
         if (packetGroup == null) throw new NullPointerException("Group " + group + " is not registered");
+        write(packet, packetGroup, visitor);
+    }
 
-        int packetID = packetGroup.getID(packetClass);
-        if (packetID < 0) throw new IllegalArgumentException("Invalid packet ID: " + packetID);
+    @Override
+    @SuppressWarnings("unchecked")
+    public <PacketType> void write(PacketType packet, PacketGroupHandle group, DataVisitor visitor) {
+        PacketGroup packetGroup = resolve(group);
+        PacketEntry entry = getEntry(packetGroup, packet);
 
-        PacketWriter<PacketType> writer = (PacketWriter<PacketType>) packetGroup.getWriter(packetClass);
-        if (writer == null) throw new NullPointerException();
+        int packetID = entry.packetID();
+        PacketWriter<PacketType> writer = (PacketWriter<PacketType>) entry.writer();
 
         SerializerContext context = new SerializerContext(null, serializerProvider);
-        DataVisitor packetData = new NettyDataVisitor(Unpooled.buffer());
-        writer.write(context, packetData, packet);
+        if (packetGroup.trusted) context = context.trusted();
+        encoder.encode(visitor, serializerProvider, packetGroup.getName(), packetID, writer, context, packet);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <PacketType> int sizeOf(PacketType packet, PacketGroupHandle group) {
+        PacketGroup packetGroup = resolve(group);
+        PacketWriter<PacketType> writer = (PacketWriter<PacketType>) getEntry(packetGroup, packet).writer();
+
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        if (packetGroup.trusted) context = context.trusted();
+        return writer.sizeOf(context, packet);
+    }
+
+    private void checkModifiable() {
+        if (frozen) throw new UnsupportedOperationException("Frozen packet factory can not be modified");
+    }
+
+    /**
+     * Returns packet group of given handle, handles created by this factory
+     * reference the group directly and are not looked up by their name.
+     */
+    private PacketGroup resolve(PacketGroupHandle handle) {
+        if (handle instanceof PacketGroup packetGroup && packetGroup.factory == this) return packetGroup;
+        PacketGroup packetGroup = groups.get(handle.getName());
+        if (packetGroup == null) throw new NullPointerException("Group " + handle.getName() + " is not registered");
+        return packetGroup;
+    }
 
-        encoder.encode(visitor, serializerProvider, packetGroup.getName(), new PacketEncoder.Encoded(packetID, packetData));
+    private static PacketEntry getEntry(PacketGroup packetGroup, Object packet) {
+        Class<?> packetClass = packet.getClass();
+        PacketEntry entry = packetGroup.getEntry(packetClass);
+        if (entry == null) throw new IllegalArgumentException("Packet " + packetClass.getName() + " is not registered in group " + packetGroup.getName());
+        return entry;
     }
 
     private int computePacketID(Class<?> packetClass, String group) {
@@ -226,64 +358,148 @@ public class PacketFactoryImpl implements PacketFactory {
         return id;
     }
 
-    static class PacketGroup {
+    record PacketProjection(Class<?> packetClass, PacketReader<?> reader) {
+    }
 
-        final String name;
+    static class PacketGroup implements PacketGroupHandle {
 
-        final Map<Integer, Class<?>> id2Packet = new ConcurrentHashMap<>();
-        final Map<Class<?>, Integer> packet2ID = new ConcurrentHashMap<>();
+        /**
+         * Packets with IDs lower than this are stored in the dense table indexed by
+         * their ID, packets with higher IDs are stored in the sparse map.
+         */
+        static final int DENSE_LIMIT = 1024;
+
+        final PacketFactoryImpl factory;
+        final String name;
+        // whether written packets are checked against the constraints of their fields
+        volatile boolean trusted;
+
+        // tables are never modified once published, changes replace them with updated copies
+        private volatile PacketEntry[] dense = new PacketEntry[0];
+        private volatile Map<Integer, PacketEntry> sparse = Map.of();
+        private final Map<Class<?>, PacketEntry> entries = new ConcurrentHashMap<>();
+        // per class slot for the write path, invalidated for the class when its entry changes
+        private final ClassValue<@Nullable PacketEntry> classEntries = new ClassValue<>() {
+            @Override
+            protected @Nullable PacketEntry computeValue(Class<?> type) {
+                return entries.get(type);
+            }
+        };
 
-        final Map<Class<?>, PacketReader<?>> readers = new ConcurrentHashMap<>();
-        final Map<Class<?>, PacketWriter<?>> writers = new ConcurrentHashMap<>();
+        // created lazily, so registering many packets at once does not generate a decoder for each of them
+        private volatile @Nullable PacketGroupDecoder decoder;
 
-        PacketGroup(String name) {
+        PacketGroup(PacketFactoryImpl factory, String name) {
+            this.factory = factory;
             this.name = Objects.requireNonNull(name, "Packet group name can not be null");
         }
 
+        PacketGroup(PacketFactoryImpl factory, PacketGroup group) {
+            this.factory = factory;
+            name = group.name;
+            synchronized (group) {
+                trusted = group.trusted;
+                dense = group.dense;
+                sparse = group.sparse;
+                entries.putAll(group.entries);
+                decoder = group.decoder;
+            }
+        }
+
+        @Override
         public String getName() {
             return name;
         }
 
-        void addPacket(int packetID, Class<?> packetClass, PacketReader<?> reader, PacketWriter<?> writer) {
-            if (packet2ID.containsKey(packetClass)) return;
-            if (id2Packet.containsKey(packetID)) {
-                Class<?> existing = getPacket(packetID);
-                if (existing == null) throw new NullPointerException();
-                throw new IllegalArgumentException("ID " + packetID + " is already used by " + existing.getName());
+        synchronized void setTrusted(boolean trusted) {
+            if (!entries.isEmpty())
+                throw new IllegalStateException("Packets are already registered to group " + name);
+            this.trusted = trusted;
+        }
+
+        synchronized void addPacket(int packetID, Class<?> packetClass, PacketReader<?> reader, PacketWriter<?> writer) {
+            if (entries.containsKey(packetClass)) return;
+            PacketEntry existing = getEntry(packetID);
+            if (existing != null)
+                throw new IllegalArgumentException("ID " + packetID + " is already used by " + existing.packetClass().getName());
+            PacketEntry entry = new PacketEntry(packetID, packetClass, reader, writer);
+            if (packetID < DENSE_LIMIT) {
+                PacketEntry[] dense = Arrays.copyOf(this.dense, Math.max(this.dense.length, packetID + 1));
+                dense[packetID] = entry;
+                this.dense = dense;
+            } else {
+                Map<Integer, PacketEntry> sparse = new HashMap<>(this.sparse);
+                sparse.put(packetID, entry);
+                this.sparse = Map.copyOf(sparse);
             }
-            id2Packet.put(packetID, packetClass);
-            packet2ID.put(packetClass, packetID);
-            readers.put(packetClass, reader);
-            writers.put(packetClass, writer);
+            entries.put(packetClass, entry);
+            classEntries.remove(packetClass);
+            decoder = null;
         }
 
-        boolean removePacket(int packetID) {
-            Class<?> packetClass = id2Packet.remove(packetID);
-            if (packetClass == null) return false;
-            packet2ID.remove(packetClass);
-            readers.remove(packetClass);
-            writers.remove(packetClass);
+        synchronized boolean removePacket(int packetID) {
+            PacketEntry entry = getEntry(packetID);
+            if (entry == null) return false;
+            if (packetID < DENSE_LIMIT) {
+                PacketEntry[] dense = this.dense.clone();
+                dense[packetID] = null;
+                this.dense = dense;
+            } else {
+                Map<Integer, PacketEntry> sparse = new HashMap<>(this.sparse);
+                sparse.remove(packetID);
+                this.sparse = Map.copyOf(sparse);
+            }
+            entries.remove(entry.packetClass());
+            classEntries.remove(entry.packetClass());
+            decoder = null;
             return true;
         }
 
+        PacketGroupDecoder getDecoder() {
+            PacketGroupDecoder decoder = this.decoder;
+            if (decoder != null) return decoder;
+            synchronized (this) {
+                if (this.decoder != null) return this.decoder;
+                Map<Integer, PacketReader<?>> idReaders = new HashMap<>();
+                entries.values().forEach(entry -> idReaders.put(entry.packetID(), entry.reader()));
+                return this.decoder = PacketGroupDecoderCreator.create(name, idReaders);
+            }
+        }
+
+        @Nullable PacketEntry getEntry(int packetID) {
+            PacketEntry[] dense = this.dense;
+            if (packetID >= 0 && packetID < dense.length) return dense[packetID];
+            if (packetID < DENSE_LIMIT) return null;
+            return sparse.get(packetID);
+        }
+
+        @Nullable PacketEntry getEntry(Class<?> packetClass) {
+            return classEntries.get(packetClass);
+        }
+
         @Nullable Class<?> getPacket(int packetID) {
-            return id2Packet.get(packetID);
+            PacketEntry entry = getEntry(packetID);
+            return entry != null ? entry.packetClass() : null;
         }
 
         int getID(Class<?> packetClass) {
-            Integer id = packet2ID.get(packetClass);
-            if (id == null) return -1;
-            return id;
+            PacketEntry entry = getEntry(packetClass);
+            return entry != null ? entry.packetID() : -1;
         }
 
         @Nullable PacketReader<?> getReader(Class<?> packetClass) {
-            return readers.get(packetClass);
+            PacketEntry entry = getEntry(packetClass);
+            return entry != null ? entry.reader() : null;
         }
 
         @Nullable PacketWriter<?> getWriter(Class<?> packetClass) {
-            return writers.get(packetClass);
+            PacketEntry entry = getEntry(packetClass);
+            return entry != null ? entry.writer() : null;
         }
 
     }
 
+    record PacketEntry(int packetID, Class<?> packetClass, PacketReader<?> reader, PacketWriter<?> writer) {
+    }
+
 }
@@ -0,0 +1,101 @@
+package org.machinemc.paklet;
+
+import org.jetbrains.annotations.Nullable;
+import org.machinemc.paklet.processors.PolymorphicSerializerCreator;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.rule.SerializationRule;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialization rule for sealed classes and interfaces.
+ * <p>
+ * Values are prefixed with VarInt tag of their type and then serialized
+ * the same way as packets, see {@link PolymorphicSerializerCreator}.
+ * <p>
+ * This rule is not registered by default, and it should be registered before
+ * rules that could match the sealed types as well, e.g. the rule for serializable classes.
+ */
+public class PolymorphicSerializationRule implements SerializationRule {
+
+    // serializers are created only once for each provider and sealed type
+    private final Map<SerializerProvider, Map<Class<?>, Serializer<?>>> serializers = Collections.synchronizedMap(new WeakHashMap<>());
+    // serializers of sealed types that are being created by the current thread
+    private final ThreadLocal<Map<Class<?>, ForwardingSerializer>> creating = ThreadLocal.withInitial(HashMap::new);
+
+    @Override
+    public @Nullable Serializer<?> findSerializer(SerializerProvider provider, Class<?> clazz) {
+        if (!clazz.isSealed() || clazz.isEnum()) return null;
+        Map<Class<?>, Serializer<?>> created = serializers.computeIfAbsent(provider, p -> new ConcurrentHashMap<>());
+        Serializer<?> serializer = created.get(clazz);
+        if (serializer != null) return serializer;
+
+        // sealed type that refers to itself, the serializer is filled in once it is created
+        Map<Class<?>, ForwardingSerializer> creating = this.creating.get();
+        ForwardingSerializer forwarding = creating.get(clazz);
+        if (forwarding != null) return forwarding;
+
+        forwarding = new ForwardingSerializer(clazz);
+        creating.put(clazz, forwarding);
+        try {
+            // not computed in place, creation of the serializer can resolve other sealed types
+            serializer = PolymorphicSerializerCreator.create(clazz, provider);
+        } finally {
+            creating.remove(clazz);
+        }
+        Serializer<?> previous = created.putIfAbsent(clazz, serializer);
+        if (previous != null) serializer = previous;
+        forwarding.serializer = serializer;
+        return serializer;
+    }
+
+    /**
+     * Serializer used by the subclasses of a sealed type that refer
+     * to the sealed type while its serializer is created.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final class ForwardingSerializer implements Serializer<Object> {
+
+        private final Class<?> sealed;
+        private volatile @Nullable Serializer serializer;
+
+        private ForwardingSerializer(Class<?> sealed) {
+            this.sealed = sealed;
+        }
+
+        @Override
+        public void serialize(SerializerContext context, DataVisitor visitor, Object value) {
+            serializer().serialize(context, visitor, value);
+        }
+
+        @Override
+        public Object deserialize(SerializerContext context, DataVisitor visitor) {
+            return serializer().deserialize(context, visitor);
+        }
+
+        @Override
+        public void skip(SerializerContext context, DataVisitor visitor) {
+            serializer().skip(context, visitor);
+        }
+
+        @Override
+        public int sizeOf(SerializerContext context, Object value) {
+            return serializer().sizeOf(context, value);
+        }
+
+        private Serializer serializer() {
+            Serializer serializer = this.serializer;
+            if (serializer == null)
+                throw new IllegalStateException("Serializer of sealed type " + sealed.getName() + " has not been created");
+            return serializer;
+        }
+
+    }
+
+}
@@ -16,38 +16,59 @@ import java.util.function.Function;
 
 /**
  * Default implementation of serializer provider.
+ * <p>
+ * Registered serializers and rules are kept in an immutable registry, changes
+ * build a new registry and replace the current one, so lookups need no locking.
+ * <p>
+ * Serializers resolved by {@link #getFor(Class)} are cached for each type until
+ * the registry changes, serialization rules are expected to always resolve
+ * the same serializer for the same type.
  */
 public class SerializerProviderImpl implements SerializerProvider {
 
-    // serializer types -> serializers
-    private final Map<Class<?>, Serializer<?>> types2Serializers = new ConcurrentHashMap<>();
-    // supported types -> serializers
-    private final Map<Class<?>, Serializer<?>> supported2Serializers = new ConcurrentHashMap<>();
-
-    private final Set<SerializationRule> rules = new LinkedHashSet<>();
+    private volatile Registry registry;
+    private final boolean frozen;
 
     // map of serializers that are not registered but had been previously
     // resolved by #getOf
     private final Map<Class<?>, Serializer<?>> cachedSerializers = new ConcurrentHashMap<>();
 
+    public SerializerProviderImpl() {
+        this(Map.of(), Map.of(), new SerializationRule[0], false);
+    }
+
+    private SerializerProviderImpl(Map<Class<?>, Serializer<?>> types2Serializers,
+                                   Map<Class<?>, Serializer<?>> supported2Serializers,
+                                   SerializationRule[] rules,
+                                   boolean frozen) {
+        registry = createRegistry(types2Serializers, supported2Serializers, rules);
+        this.frozen = frozen;
+    }
+
     @Override
-    public <T> void addSerializer(Serializer<T> serializer) {
-        if (types2Serializers.containsKey(serializer.getClass())) return;
+    public synchronized <T> void addSerializer(Serializer<T> serializer) {
+        checkModifiable();
+        Registry registry = this.registry;
+        if (registry.types2Serializers().containsKey(serializer.getClass())) return;
         Supports supports = serializer.getClass().getAnnotation(Supports.class);
         Class<?>[] supported = supports != null ? supports.value() : new Class[0];
         for (Class<?> supportedType : supported) {
-            if (!supported2Serializers.containsKey(supportedType)) continue;
+            if (!registry.supported2Serializers().containsKey(supportedType)) continue;
             throw new IllegalArgumentException("There is already existing serializer for type " + supportedType.getName());
         }
 
+        Map<Class<?>, Serializer<?>> types2Serializers = new HashMap<>(registry.types2Serializers());
+        Map<Class<?>, Serializer<?>> supported2Serializers = new HashMap<>(registry.supported2Serializers());
         types2Serializers.put(serializer.getClass(), serializer);
         Arrays.stream(supported).forEach(supportedType -> supported2Serializers.put(supportedType, serializer));
+        this.registry = createRegistry(Map.copyOf(types2Serializers), Map.copyOf(supported2Serializers), registry.rules());
 
         cachedSerializers.remove(serializer.getClass());
     }
 
     @Override
     public <T extends Serializer<?>> void addSerializer(Class<T> serializerClass) {
+        checkModifiable();
         try {
             Constructor<T> constructor = serializerClass.getDeclaredConstructor();
             constructor.setAccessible(true);
@@ -65,6 +86,7 @@ public class SerializerProviderImpl implements SerializerProvider {
     @Override
     @SuppressWarnings("unchecked")
     public <Catalogue> void addSerializers(Class<Catalogue> catalogueClass, Function<String, InputStream> resourcesAccessor) {
+        checkModifiable();
         if (DynamicCatalogue.Serializers.class.isAssignableFrom(catalogueClass)) {
             try {
                 Constructor<Catalogue> constructor = catalogueClass.getDeclaredConstructor();
@@ -90,22 +112,31 @@ public class SerializerProviderImpl implements SerializerProvider {
     }
 
     @Override
-    public <T extends Serializer<?>> boolean removeSerializer(Class<T> serializerClass) {
-        if (!types2Serializers.containsKey(serializerClass)) return false;
+    public synchronized <T extends Serializer<?>> boolean removeSerializer(Class<T> serializerClass) {
+        checkModifiable();
+        Registry registry = this.registry;
+        if (!registry.types2Serializers().containsKey(serializerClass)) return false;
         Supports supports = serializerClass.getAnnotation(Supports.class);
         Class<?>[] supported = supports != null ? supports.value() : new Class[0];
+        Map<Class<?>, Serializer<?>> types2Serializers = new HashMap<>(registry.types2Serializers());
+        Map<Class<?>, Serializer<?>> supported2Serializers = new HashMap<>(registry.supported2Serializers());
         types2Serializers.remove(serializerClass);
         Arrays.stream(supported).forEach(supported2Serializers::remove);
+        this.registry = createRegistry(Map.copyOf(types2Serializers), Map.copyOf(supported2Serializers), registry.rules());
         return true;
     }
 
     @Override
-    public void addSerializationRule(SerializationRule rule) {
-        rules.add(rule);
+    public synchronized void addSerializationRule(SerializationRule rule) {
+        checkModifiable();
+        Set<SerializationRule> rules = new LinkedHashSet<>(List.of(registry.rules()));
+        if (!rules.add(rule)) return;
+        setRules(rules);
     }
 
     @Override
     public <T extends SerializationRule> void addSerializationRule(Class<T> ruleClass) {
+        checkModifiable();
         try {
             Constructor<T> constructor = ruleClass.getDeclaredConstructor();
             constructor.setAccessible(true);
@@ -123,6 +154,7 @@ public class SerializerProviderImpl implements SerializerProvider {
     @Override
     @SuppressWarnings("unchecked")
     public <Catalogue> void addSerializationRules(Class<Catalogue> catalogueClass, Function<String, InputStream> resourcesAccessor) {
+        checkModifiable();
         if (DynamicCatalogue.SerializationRules.class.isAssignableFrom(catalogueClass)) {
             try {
                 Constructor<Catalogue> constructor = catalogueClass.getDeclaredConstructor();
@@ -148,38 +180,44 @@ public class SerializerProviderImpl implements SerializerProvider {
     }
 
     @Override
-    public <T extends SerializationRule> boolean removeSerializationRule(T rule) {
-        return rules.remove(rule);
+    public synchronized <T extends SerializationRule> boolean removeSerializationRule(T rule) {
+        checkModifiable();
+        Set<SerializationRule> rules = new LinkedHashSet<>(List.of(registry.rules()));
+        if (!rules.remove(rule)) return false;
+        setRules(rules);
+        return true;
     }
 
     @Override
-    public <T extends SerializationRule> boolean removeSerializationRule(Class<T> ruleClass) {
-        List<SerializationRule> toRemove = rules.stream().filter(r -> ruleClass.isAssignableFrom(r.getClass())).toList();
-        if (toRemove.isEmpty()) return false;
-        toRemove.forEach(rules::remove);
+    public synchronized <T extends SerializationRule> boolean removeSerializationRule(Class<T> ruleClass) {
+        checkModifiable();
+        Set<SerializationRule> rules = new LinkedHashSet<>(List.of(registry.rules()));
+        if (!rules.removeIf(r -> ruleClass.isAssignableFrom(r.getClass()))) return false;
+        setRules(rules);
         return true;
     }
 
     @Override
     public @Unmodifiable Collection<Serializer<?>> getRegisteredSerializers() {
-        return Collections.unmodifiableCollection(types2Serializers.values());
+        return registry.types2Serializers().values();
     }
 
     @Override
     public @Unmodifiable Collection<SerializationRule> getRegisteredSerializationRules() {
-        return Collections.unmodifiableSet(rules);
+        return List.of(registry.rules());
+    }
+
+    @Override
+    public SerializerProvider freeze() {
+        if (frozen) return this;
+        Registry registry = this.registry;
+        return new SerializerProviderImpl(registry.types2Serializers(), registry.supported2Serializers(), registry.rules(), true);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> Serializer<T> getFor(Class<T> type) throws NoSuchSerializerException {
-        if (supported2Serializers.containsKey(type))
-            return (Serializer<T>) supported2Serializers.get(type);
-        for (SerializationRule rule : rules) {
-            Serializer<?> serializer = rule.findSerializer(this, type);
-            if (serializer != null) return (Serializer<T>) serializer;
-        }
-        throw new NullPointerException("No serializer found for type " + type.getName());
+        return (Serializer<T>) registry.resolved().get(type);
     }
 
     @Override
@@ -187,7 +225,7 @@ public class SerializerProviderImpl implements SerializerProvider {
     public <T extends Serializer<?>> T getOf(Class<T> clazz) throws NoSuchSerializerException {
         T serializer;
 
-        serializer = (T) types2Serializers.get(clazz);
+        serializer = (T) registry.types2Serializers().get(clazz);
         if (serializer != null) return serializer;
 
         serializer = (T) cachedSerializers.get(clazz);
@@ -205,4 +243,65 @@ public class SerializerProviderImpl implements SerializerProvider {
         return serializer;
     }
 
+    private void checkModifiable() {
+        if (frozen) throw new UnsupportedOperationException("Frozen serializer provider can not be modified");
+    }
+
+    /**
+     * Resolves serializer for given type, first from the serializers supporting
+     * the type, then using the serialization rules and at last from the serializers
+     * supporting its superclasses and interfaces, nearest first.
+     */
+    private Serializer<?> resolve(Map<Class<?>, Serializer<?>> supported2Serializers, SerializationRule[] rules, Class<?> type) {
+        Serializer<?> supported = supported2Serializers.get(type);
+        if (supported != null) return supported;
+        for (SerializationRule rule : rules) {
+            Serializer<?> serializer = rule.findSerializer(this, type);
+            if (serializer != null) return serializer;
+        }
+        Deque<Class<?>> supertypes = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        supertypes.add(type);
+        while (!supertypes.isEmpty()) {
+            Class<?> next = supertypes.poll();
+            if (!visited.add(next)) continue;
+            supported = supported2Serializers.get(next);
+            if (supported != null) return supported;
+            if (next.getSuperclass() != null) supertypes.add(next.getSuperclass());
+            supertypes.addAll(List.of(next.getInterfaces()));
+        }
+        throw new NullPointerException("No serializer found for type " + type.getName());
+    }
+
+    private Registry createRegistry(Map<Class<?>, Serializer<?>> types2Serializers,
+                                    Map<Class<?>, Serializer<?>> supported2Serializers,
+                                    SerializationRule[] rules) {
+        ClassValue<Serializer<?>> resolved = new ClassValue<>() {
+            @Override
+            protected Serializer<?> computeValue(Class<?> type) {
+                return resolve(supported2Serializers, rules, type);
+            }
+        };
+        return new Registry(types2Serializers, supported2Serializers, rules, resolved);
+    }
+
+    private void setRules(Set<SerializationRule> rules) {
+        Registry registry = this.registry;
+        this.registry = createRegistry(registry.types2Serializers(), registry.supported2Serializers(), rules.toArray(SerializationRule[]::new));
+    }
+
+    /**
+     * Immutable state of the serializer provider.
+     *
+     * @param types2Serializers serializer types mapped to the serializers
+     * @param supported2Serializers supported types mapped to the serializers
+     * @param rules serialization rules in order of their registration
+     * @param resolved serializers resolved for each type
+     */
+    private record Registry(Map<Class<?>, Serializer<?>> types2Serializers,
+                            Map<Class<?>, Serializer<?>> supported2Serializers,
+                            SerializationRule[] rules,
+                            ClassValue<Serializer<?>> resolved) {
+    }
+
 }
@@ -0,0 +1,31 @@
+package org.machinemc.paklet;
+
+import org.machinemc.paklet.serialization.SerializerContext;
+
+/**
+ * Utilities for sizes computed by {@link PacketWriter#sizeOf(SerializerContext, Object)},
+ * that are used only as hints for the initial capacity of buffers.
+ */
+final class SizeHints {
+
+    /**
+     * Maximum number of bytes reserved for a packet before it is written,
+     * larger packets grow the buffer while they are written.
+     */
+    static final int MAX_RESERVED = 1 << 20;
+
+    private SizeHints() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns number of bytes to reserve for a packet of given size.
+     *
+     * @param size size computed by the writer of the packet
+     * @return number of bytes to reserve, from {@code 0} to {@link #MAX_RESERVED}
+     */
+    static int reserved(int size) {
+        return Math.clamp(size, 0, MAX_RESERVED);
+    }
+
+}
@@ -41,6 +41,21 @@ public class NettyDataVisitor implements DataVisitor {
         return this;
     }
 
+    @Override
+    public DataVisitor write(DataVisitor other, int length) {
+        // copied between the buffers directly, without creating intermediate array
+        if (!(other instanceof NettyDataVisitor netty)) return DataVisitor.super.write(other, length);
+        delegate.writeBytes(netty.delegate, length);
+        return this;
+    }
+
+    @Override
+    public DataVisitor write(DataVisitor other) {
+        if (!(other instanceof NettyDataVisitor netty)) return DataVisitor.super.write(other);
+        delegate.writeBytes(netty.delegate);
+        return this;
+    }
+
     @Override
     public boolean readBoolean() {
         return delegate.readBoolean();
@@ -60,7 +75,7 @@ public class NettyDataVisitor implements DataVisitor {
     @Override
     public DataVisitor writeByte(byte value) {
         delegate.writeByte(value);
-        return null;
+        return this;
     }
 
     @Override
@@ -161,4 +176,16 @@ public class NettyDataVisitor implements DataVisitor {
         return this;
     }
 
+    @Override
+    public DataVisitor ensureWritable(int length) {
+        delegate.ensureWritable(length);
+        return this;
+    }
+
+    @Override
+    public DataVisitor skipBytes(int length) {
+        delegate.skipBytes(length);
+        return this;
+    }
+
 }
@@ -2,7 +2,9 @@ package org.machinemc.paklet.processors;
 
 import org.machinemc.paklet.DataVisitor;
 import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.serialization.Serializer;
 import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
 import org.machinemc.paklet.utils.ConverterVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
@@ -10,6 +12,7 @@ import org.objectweb.asm.Type;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.util.List;
 
 import static org.objectweb.asm.Opcodes.*;
 import static org.objectweb.asm.Opcodes.ARETURN;
@@ -20,18 +23,40 @@ import static org.objectweb.asm.Opcodes.ARETURN;
  * <p>
  * The serialization of those packets is fully automatic and uses no reflection.
  * <p>
+ * Serializer and serialization context of each field are resolved once, when the
+ * reader is created, and kept in final fields of the generated reader.
+ * <p>
  * This is the default provided reader for packets that were modified by the Paklet plugin.
  */
 public class GeneratedReaderCreator implements ReaderCreator {
 
+    private final SerializerProvider serializerProvider;
+
+    /**
+     * Creates new generated reader creator with serializer provider that contains
+     * default serializers and serialization rules provided by Paklet.
+     */
+    public GeneratedReaderCreator() {
+        this(ProcessorsUtil.createDefaultSerializerProvider());
+    }
+
+    /**
+     * Creates new generated reader creator.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     */
+    public GeneratedReaderCreator(SerializerProvider serializerProvider) {
+        this.serializerProvider = serializerProvider;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> PacketReader<T> create(Class<T> packet) {
-        if (!ProcessorsUtil.isGeneratedPacketClass(packet))
+        if (!ProcessorsUtil.isGeneratedPacketClass(packet) && !ProcessorsUtil.hasCompiledCodecs(packet))
             throw new UnsupportedOperationException("Generated reader can not be created for " + packet.getName());
         try {
             Class<?> created = createDefaultReaderClass(packet);
-            return (PacketReader<T>) created.getConstructor().newInstance();
+            return (PacketReader<T>) created.getConstructor(SerializerProvider.class).newInstance(serializerProvider);
         } catch (Exception exception) {
             throw new RuntimeException(exception);
         }
@@ -39,9 +64,10 @@ public class GeneratedReaderCreator implements ReaderCreator {
 
     @SuppressWarnings("unchecked")
     private <T> Class<? extends PacketReader<T>> createDefaultReaderClass(Class<T> packet) throws IllegalAccessException {
-        try {
-            return (Class<? extends PacketReader<T>>) Class.forName(packet.getName() + "_READER");
-        } catch (Exception ignored) { }
+        Class<?> compiled = ProcessorsUtil.findCompiledCodec(packet, "_READER");
+        if (compiled != null) return (Class<? extends PacketReader<T>>) compiled;
+
+        List<Field> fields = ProcessorsUtil.collectSerializableFields(packet);
 
         ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
 
@@ -57,10 +83,37 @@ public class GeneratedReaderCreator implements ReaderCreator {
                 new String[] {Type.getType(PacketReader.class).getInternalName()}
         );
 
+        for (Field field : fields) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$CONTEXT_" + field.getName(),
+                    Type.getDescriptor(SerializerContext.class),
+                    null,
+                    null
+            ).visitEnd();
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$SERIALIZER_" + field.getName(),
+                    Type.getDescriptor(ProcessorsUtil.getSerializerType(field.getType())),
+                    null,
+                    null
+            ).visitEnd();
+        }
+        boolean fixedLayout = ProcessorsUtil.getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$FIXED_LAYOUT",
+                    Type.BOOLEAN_TYPE.getDescriptor(),
+                    null,
+                    null
+            ).visitEnd();
+        }
+
         MethodVisitor methodVisitor = writer.visitMethod(
                 ACC_PUBLIC,
                 "<init>",
-                Type.getMethodDescriptor(Type.VOID_TYPE),
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerProvider.class)),
                 null,
                 new String[0]
         );
@@ -72,6 +125,10 @@ public class GeneratedReaderCreator implements ReaderCreator {
                 Type.getMethodDescriptor(Type.VOID_TYPE),
                 false
         );
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSerializerInitialization(methodVisitor, readerType, packetType, field);
+        if (fixedLayout)
+            ProcessorsUtil.visitFixedLayoutInitialization(methodVisitor, readerType, packetType);
         methodVisitor.visitInsn(RETURN);
         methodVisitor.visitMaxs(0, 0);
         methodVisitor.visitEnd();
@@ -87,6 +144,16 @@ public class GeneratedReaderCreator implements ReaderCreator {
                 null,
                 new String[0]
         );
+        if (fixedLayout) {
+            ProcessorsUtil.visitFixedLayoutRead(methodVisitor, readerType, packetType, fields, 3, null, (visitor, field) ->
+                    visitor.visitMethodInsn(
+                            INVOKEVIRTUAL,
+                            packetType.getInternalName(),
+                            "$SET_" + field.getName(),
+                            Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(field.getType())),
+                            false
+                    ));
+        }
         methodVisitor.visitTypeInsn(NEW, packetType.getInternalName());
         methodVisitor.visitInsn(DUP);
         methodVisitor.visitMethodInsn(
@@ -97,26 +164,40 @@ public class GeneratedReaderCreator implements ReaderCreator {
                 false
         );
         methodVisitor.visitVarInsn(ASTORE, 3);
-        for (Field field : ProcessorsUtil.collectSerializableFields(packet)) {
+        for (Field field : fields) {
+            Class<?> serializerType = ProcessorsUtil.getSerializerType(field.getType());
             methodVisitor.visitVarInsn(ALOAD, 3);
-            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
             methodVisitor.visitVarInsn(ALOAD, 2);
-            methodVisitor.visitLdcInsn(packetType);
-            methodVisitor.visitLdcInsn(field.getName());
-            methodVisitor.visitMethodInsn(
-                    INVOKESTATIC,
-                    Type.getInternalName(ProcessorsUtil.class),
-                    "getValueForField",
-                    Type.getMethodDescriptor(
-                            Type.getType(Object.class),
-                            Type.getType(SerializerContext.class),
-                            Type.getType(DataVisitor.class),
-                            Type.getType(Class.class),
-                            Type.getType(String.class)
-                    ),
-                    false
-            );
-            ConverterVisitor.convertTopObject(methodVisitor, Type.getType(field.getType()));
+            if (serializerType != Serializer.class) {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "deserialize" + ProcessorsUtil.getPrimitiveSuffix(field.getType()),
+                        Type.getMethodDescriptor(
+                                Type.getType(field.getType()),
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+            } else {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(Serializer.class),
+                        "deserialize",
+                        Type.getMethodDescriptor(
+                                Type.getType(Object.class),
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+                ConverterVisitor.convertTopObject(methodVisitor, Type.getType(field.getType()));
+            }
             methodVisitor.visitMethodInsn(
                     INVOKEVIRTUAL,
                     packetType.getInternalName(),
@@ -130,6 +211,21 @@ public class GeneratedReaderCreator implements ReaderCreator {
         methodVisitor.visitMaxs(0, 0);
         methodVisitor.visitEnd();
 
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "skip",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        ProcessorsUtil.visitSkip(methodVisitor, readerType, fields);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
         writer.visitEnd();
 
         return (Class<? extends PacketReader<T>>) MethodHandles
@@ -2,7 +2,9 @@ package org.machinemc.paklet.processors;
 
 import org.machinemc.paklet.DataVisitor;
 import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.serialization.Serializer;
 import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
 import org.machinemc.paklet.utils.ConverterVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
@@ -10,6 +12,7 @@ import org.objectweb.asm.Type;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.util.List;
 
 import static org.objectweb.asm.Opcodes.*;
 
@@ -19,33 +22,76 @@ import static org.objectweb.asm.Opcodes.*;
  * <p>
  * The serialization of those packets is fully automatic and uses no reflection.
  * <p>
+ * Serializer and serialization context of each field are resolved once, when the
+ * writer is created, and kept in final fields of the generated writer.
+ * <p>
+ * Trusted writers are generated as separate classes. Writers compiled ahead of time
+ * are used only if they were compiled for the requested mode, i.e. trusted writers
+ * use only compiled {@code _TRUSTED_WRITER} classes.
+ * <p>
  * This is the default provided writer for packets that were modified by the Paklet plugin.
  */
 public class GeneratedWriterCreator implements WriterCreator {
 
+    private final SerializerProvider serializerProvider;
+    private final boolean trusted;
+
+    /**
+     * Creates new generated writer creator with serializer provider that contains
+     * default serializers and serialization rules provided by Paklet.
+     */
+    public GeneratedWriterCreator() {
+        this(ProcessorsUtil.createDefaultSerializerProvider());
+    }
+
+    /**
+     * Creates new generated writer creator.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     */
+    public GeneratedWriterCreator(SerializerProvider serializerProvider) {
+        this(serializerProvider, false);
+    }
+
+    /**
+     * Creates new generated writer creator.
+     * <p>
+     * Trusted writers do not check values of the packets against the constraints
+     * of their types, see {@link SerializerContext#trusted()}.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @param trusted whether the created writers should be trusted
+     */
+    public GeneratedWriterCreator(SerializerProvider serializerProvider, boolean trusted) {
+        this.serializerProvider = serializerProvider;
+        this.trusted = trusted;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T> PacketWriter<T> create(Class<T> packet) {
-        if (!ProcessorsUtil.isGeneratedPacketClass(packet))
+        String suffix = trusted ? "_TRUSTED_WRITER" : "_WRITER";
+        if (!ProcessorsUtil.isGeneratedPacketClass(packet) && ProcessorsUtil.findCompiledCodec(packet, suffix) == null)
             throw new UnsupportedOperationException("Generated writer can not be created for " + packet.getName());
         try {
-            Class<?> created = createDefaultWriterClass(packet);
-            return (PacketWriter<T>) created.getConstructor().newInstance();
+            Class<?> created = createDefaultWriterClass(packet, suffix);
+            return (PacketWriter<T>) created.getConstructor(SerializerProvider.class).newInstance(serializerProvider);
         } catch (Exception exception) {
             throw new RuntimeException(exception);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private <T> Class<? extends PacketWriter<T>> createDefaultWriterClass(Class<T> packet) throws IllegalAccessException {
-        try {
-            return (Class<? extends PacketWriter<T>>) Class.forName(packet.getName() + "_WRITER");
-        } catch (Exception ignored) { }
+    private <T> Class<? extends PacketWriter<T>> createDefaultWriterClass(Class<T> packet, String suffix) throws IllegalAccessException {
+        Class<?> compiled = ProcessorsUtil.findCompiledCodec(packet, suffix);
+        if (compiled != null) return (Class<? extends PacketWriter<T>>) compiled;
+
+        List<Field> fields = ProcessorsUtil.collectSerializableFields(packet);
 
         ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
 
         Type packetType = Type.getType(packet);
-        Type readerType = Type.getType("L" + packet.getPackageName().replace('.', '/') + "/" + packet.getSimpleName() + "_WRITER;");
+        Type readerType = Type.getType("L" + packet.getPackageName().replace('.', '/') + "/" + packet.getSimpleName() + suffix + ";");
 
         writer.visit(
                 V21,
@@ -56,10 +102,37 @@ public class GeneratedWriterCreator implements WriterCreator {
                 new String[] {Type.getType(PacketWriter.class).getInternalName()}
         );
 
+        for (Field field : fields) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$CONTEXT_" + field.getName(),
+                    Type.getDescriptor(SerializerContext.class),
+                    null,
+                    null
+            ).visitEnd();
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$SERIALIZER_" + field.getName(),
+                    Type.getDescriptor(ProcessorsUtil.getSerializerType(field.getType())),
+                    null,
+                    null
+            ).visitEnd();
+        }
+        boolean fixedLayout = ProcessorsUtil.getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$FIXED_LAYOUT",
+                    Type.BOOLEAN_TYPE.getDescriptor(),
+                    null,
+                    null
+            ).visitEnd();
+        }
+
         MethodVisitor methodVisitor = writer.visitMethod(
                 ACC_PUBLIC,
                 "<init>",
-                Type.getMethodDescriptor(Type.VOID_TYPE),
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerProvider.class)),
                 null,
                 new String[0]
         );
@@ -71,6 +144,10 @@ public class GeneratedWriterCreator implements WriterCreator {
                 Type.getMethodDescriptor(Type.VOID_TYPE),
                 false
         );
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSerializerInitialization(methodVisitor, readerType, packetType, field, trusted);
+        if (fixedLayout)
+            ProcessorsUtil.visitFixedLayoutInitialization(methodVisitor, readerType, packetType, trusted);
         methodVisitor.visitInsn(RETURN);
         methodVisitor.visitMaxs(0, 0);
         methodVisitor.visitEnd();
@@ -87,13 +164,29 @@ public class GeneratedWriterCreator implements WriterCreator {
                 null,
                 new String[0]
         );
-        for (Field field : ProcessorsUtil.collectSerializableFields(packet)) {
-            methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 3);
+        methodVisitor.visitTypeInsn(CHECKCAST, packetType.getInternalName());
+        methodVisitor.visitVarInsn(ASTORE, 4);
+        if (fixedLayout) {
+            ProcessorsUtil.visitFixedLayoutWrite(methodVisitor, readerType, fields, 5, (visitor, field) -> {
+                visitor.visitVarInsn(ALOAD, 4);
+                visitor.visitMethodInsn(
+                        INVOKEVIRTUAL,
+                        packetType.getInternalName(),
+                        "$GET_" + field.getName(),
+                        Type.getMethodDescriptor(Type.getType(field.getType())),
+                        false
+                );
+            });
+        }
+        for (Field field : fields) {
+            Class<?> serializerType = ProcessorsUtil.getSerializerType(field.getType());
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
             methodVisitor.visitVarInsn(ALOAD, 2);
-            methodVisitor.visitLdcInsn(packetType);
-            methodVisitor.visitLdcInsn(field.getName());
-            methodVisitor.visitVarInsn(ALOAD, 3);
-            methodVisitor.visitTypeInsn(CHECKCAST, packetType.getInternalName());
+            methodVisitor.visitVarInsn(ALOAD, 4);
             methodVisitor.visitMethodInsn(
                     INVOKEVIRTUAL,
                     packetType.getInternalName(),
@@ -101,27 +194,70 @@ public class GeneratedWriterCreator implements WriterCreator {
                     Type.getMethodDescriptor(Type.getType(field.getType())),
                     false
             );
+            if (serializerType != Serializer.class) {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "serialize" + ProcessorsUtil.getPrimitiveSuffix(field.getType()),
+                        Type.getMethodDescriptor(
+                                Type.VOID_TYPE,
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class),
+                                Type.getType(field.getType())
+                        ),
+                        true
+                );
+                continue;
+            }
             if (field.getType().isPrimitive())
                 ConverterVisitor.convertTopPrimitiveToObject(methodVisitor, Type.getType(field.getType()));
             methodVisitor.visitMethodInsn(
-                    INVOKESTATIC,
-                    Type.getInternalName(ProcessorsUtil.class),
-                    "setValueForField",
+                    INVOKEINTERFACE,
+                    Type.getInternalName(Serializer.class),
+                    "serialize",
                     Type.getMethodDescriptor(
                             Type.VOID_TYPE,
                             Type.getType(SerializerContext.class),
                             Type.getType(DataVisitor.class),
-                            Type.getType(Class.class),
-                            Type.getType(String.class),
                             Type.getType(Object.class)
                     ),
-                    false
+                    true
             );
         }
         methodVisitor.visitInsn(RETURN);
         methodVisitor.visitMaxs(0, 0);
         methodVisitor.visitEnd();
 
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "sizeOf",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(Object.class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitTypeInsn(CHECKCAST, packetType.getInternalName());
+        methodVisitor.visitVarInsn(ASTORE, 3);
+        methodVisitor.visitInsn(LCONST_0);
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSizeOf(methodVisitor, readerType, field, visitor -> {
+                visitor.visitVarInsn(ALOAD, 3);
+                visitor.visitMethodInsn(
+                        INVOKEVIRTUAL,
+                        packetType.getInternalName(),
+                        "$GET_" + field.getName(),
+                        Type.getMethodDescriptor(Type.getType(field.getType())),
+                        false
+                );
+            });
+        ProcessorsUtil.visitSizeOfReturn(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
         writer.visitEnd();
 
         return (Class<? extends PacketWriter<T>>) MethodHandles
@@ -0,0 +1,259 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.utils.ConverterVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Reader creator that generates hidden class during runtime, defined as
+ * a nestmate of the packet class, that accesses the packet fields directly.
+ * <p>
+ * The serialization of those packets is fully automatic and uses no reflection,
+ * the packet classes do not need to be modified by the Paklet plugin.
+ * <p>
+ * Records and packets with final fields are read into local variables first
+ * and then created using constructor that accepts all serializable fields.
+ * <p>
+ * Packets made only of fixed-width primitive fields are read from netty buffers
+ * directly, see {@link ProcessorsUtil#getFixedLayoutSize(java.util.List)}.
+ * <p>
+ * This is the default provided reader for packets that do not implement custom serialization logic
+ * and were not modified by the Paklet plugin.
+ *
+ * @see ProcessorsUtil#supportsHiddenCodecs(Class)
+ */
+public class HiddenReaderCreator implements ReaderCreator {
+
+    private final SerializerProvider serializerProvider;
+
+    /**
+     * Creates new hidden reader creator with serializer provider that contains
+     * default serializers and serialization rules provided by Paklet.
+     */
+    public HiddenReaderCreator() {
+        this(ProcessorsUtil.createDefaultSerializerProvider());
+    }
+
+    /**
+     * Creates new hidden reader creator.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     */
+    public HiddenReaderCreator(SerializerProvider serializerProvider) {
+        this.serializerProvider = serializerProvider;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> PacketReader<T> create(Class<T> packet) {
+        if (!ProcessorsUtil.supportsHiddenCodecs(packet))
+            throw new UnsupportedOperationException("Hidden reader can not be created for " + packet.getName());
+        try {
+            Class<?> created = createHiddenReaderClass(packet);
+            return (PacketReader<T>) created.getConstructor(SerializerProvider.class).newInstance(serializerProvider);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private Class<?> createHiddenReaderClass(Class<?> packet) throws IllegalAccessException {
+        List<Field> fields = ProcessorsUtil.collectSerializableFields(packet);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type packetType = Type.getType(packet);
+        Type readerType = Type.getObjectType(packetType.getInternalName() + "_READER");
+
+        writer.visit(
+                V21,
+                ACC_PUBLIC | ACC_FINAL,
+                readerType.getInternalName(),
+                "L" + Type.getType(PacketReader.class).getInternalName() + "<" + packetType.getDescriptor() + ">;",
+                Type.getType(Object.class).getInternalName(),
+                new String[] {Type.getType(PacketReader.class).getInternalName()}
+        );
+
+        for (Field field : fields) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$CONTEXT_" + field.getName(),
+                    Type.getDescriptor(SerializerContext.class),
+                    null,
+                    null
+            ).visitEnd();
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$SERIALIZER_" + field.getName(),
+                    Type.getDescriptor(ProcessorsUtil.getSerializerType(field.getType())),
+                    null,
+                    null
+            ).visitEnd();
+        }
+        boolean fixedLayout = ProcessorsUtil.getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$FIXED_LAYOUT",
+                    Type.BOOLEAN_TYPE.getDescriptor(),
+                    null,
+                    null
+            ).visitEnd();
+        }
+
+        MethodVisitor methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerProvider.class)),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(Object.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE),
+                false
+        );
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSerializerInitialization(methodVisitor, readerType, packetType, field);
+        if (fixedLayout)
+            ProcessorsUtil.visitFixedLayoutInitialization(methodVisitor, readerType, packetType);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "read",
+                Type.getMethodDescriptor(
+                        Type.getType(Object.class),
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        boolean immutable = ProcessorsUtil.isImmutablePacketClass(packet);
+        if (fixedLayout) {
+            Constructor<?> constructor = immutable ? ProcessorsUtil.findFieldsConstructor(packet) : null;
+            ProcessorsUtil.visitFixedLayoutRead(methodVisitor, readerType, packetType, fields, 3, constructor, (visitor, field) ->
+                    visitor.visitFieldInsn(PUTFIELD, packetType.getInternalName(), field.getName(), Type.getDescriptor(field.getType())));
+        }
+        if (!immutable) {
+            methodVisitor.visitTypeInsn(NEW, packetType.getInternalName());
+            methodVisitor.visitInsn(DUP);
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    packetType.getInternalName(),
+                    "<init>",
+                    Type.getMethodDescriptor(Type.VOID_TYPE),
+                    false
+            );
+            methodVisitor.visitVarInsn(ASTORE, 3);
+        }
+        // immutable packets keep the field values in local variables until the constructor is called
+        int[] locals = new int[fields.size()];
+        int nextLocal = 3;
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            Type fieldType = Type.getType(field.getType());
+            Class<?> serializerType = ProcessorsUtil.getSerializerType(field.getType());
+            if (!immutable) methodVisitor.visitVarInsn(ALOAD, 3);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            if (serializerType != Serializer.class) {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "deserialize" + ProcessorsUtil.getPrimitiveSuffix(field.getType()),
+                        Type.getMethodDescriptor(
+                                fieldType,
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+            } else {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(Serializer.class),
+                        "deserialize",
+                        Type.getMethodDescriptor(
+                                Type.getType(Object.class),
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+                ConverterVisitor.convertTopObject(methodVisitor, fieldType);
+            }
+            if (!immutable) {
+                methodVisitor.visitFieldInsn(PUTFIELD, packetType.getInternalName(), field.getName(), fieldType.getDescriptor());
+                continue;
+            }
+            locals[i] = nextLocal;
+            methodVisitor.visitVarInsn(fieldType.getOpcode(ISTORE), nextLocal);
+            nextLocal += fieldType.getSize();
+        }
+        if (immutable) {
+            Constructor<?> constructor = Objects.requireNonNull(ProcessorsUtil.findFieldsConstructor(packet));
+            methodVisitor.visitTypeInsn(NEW, packetType.getInternalName());
+            methodVisitor.visitInsn(DUP);
+            for (int i = 0; i < fields.size(); i++)
+                methodVisitor.visitVarInsn(Type.getType(fields.get(i).getType()).getOpcode(ILOAD), locals[i]);
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    packetType.getInternalName(),
+                    "<init>",
+                    Type.getConstructorDescriptor(constructor),
+                    false
+            );
+        } else {
+            methodVisitor.visitVarInsn(ALOAD, 3);
+        }
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "skip",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        ProcessorsUtil.visitSkip(methodVisitor, readerType, fields);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        writer.visitEnd();
+
+        return MethodHandles
+                .privateLookupIn(packet, MethodHandles.lookup())
+                .defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                .lookupClass();
+    }
+
+}
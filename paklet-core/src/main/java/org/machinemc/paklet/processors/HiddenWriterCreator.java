@@ -0,0 +1,246 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.utils.ConverterVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Writer creator that generates hidden class during runtime, defined as
+ * a nestmate of the packet class, that accesses the packet fields directly.
+ * <p>
+ * The serialization of those packets is fully automatic and uses no reflection,
+ * the packet classes do not need to be modified by the Paklet plugin.
+ * <p>
+ * Packets made only of fixed-width primitive fields are written to netty buffers
+ * directly, see {@link ProcessorsUtil#getFixedLayoutSize(java.util.List)}.
+ * <p>
+ * This is the default provided writer for packets that do not implement custom serialization logic
+ * and were not modified by the Paklet plugin.
+ *
+ * @see ProcessorsUtil#supportsHiddenCodecs(Class)
+ */
+public class HiddenWriterCreator implements WriterCreator {
+
+    private final SerializerProvider serializerProvider;
+    private final boolean trusted;
+
+    /**
+     * Creates new hidden writer creator with serializer provider that contains
+     * default serializers and serialization rules provided by Paklet.
+     */
+    public HiddenWriterCreator() {
+        this(ProcessorsUtil.createDefaultSerializerProvider());
+    }
+
+    /**
+     * Creates new hidden writer creator.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     */
+    public HiddenWriterCreator(SerializerProvider serializerProvider) {
+        this(serializerProvider, false);
+    }
+
+    /**
+     * Creates new hidden writer creator.
+     * <p>
+     * Trusted writers do not check values of the packets against the constraints
+     * of their types, see {@link SerializerContext#trusted()}.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @param trusted whether the created writers should be trusted
+     */
+    public HiddenWriterCreator(SerializerProvider serializerProvider, boolean trusted) {
+        this.serializerProvider = serializerProvider;
+        this.trusted = trusted;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> PacketWriter<T> create(Class<T> packet) {
+        if (!ProcessorsUtil.supportsHiddenCodecs(packet))
+            throw new UnsupportedOperationException("Hidden writer can not be created for " + packet.getName());
+        try {
+            Class<?> created = createHiddenWriterClass(packet);
+            return (PacketWriter<T>) created.getConstructor(SerializerProvider.class).newInstance(serializerProvider);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private Class<?> createHiddenWriterClass(Class<?> packet) throws IllegalAccessException {
+        List<Field> fields = ProcessorsUtil.collectSerializableFields(packet);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type packetType = Type.getType(packet);
+        Type writerType = Type.getObjectType(packetType.getInternalName() + (trusted ? "_TRUSTED_WRITER" : "_WRITER"));
+
+        writer.visit(
+                V21,
+                ACC_PUBLIC | ACC_FINAL,
+                writerType.getInternalName(),
+                "L" + Type.getType(PacketWriter.class).getInternalName() + "<" + packetType.getDescriptor() + ">;",
+                Type.getType(Object.class).getInternalName(),
+                new String[] {Type.getType(PacketWriter.class).getInternalName()}
+        );
+
+        for (Field field : fields) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$CONTEXT_" + field.getName(),
+                    Type.getDescriptor(SerializerContext.class),
+                    null,
+                    null
+            ).visitEnd();
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$SERIALIZER_" + field.getName(),
+                    Type.getDescriptor(ProcessorsUtil.getSerializerType(field.getType())),
+                    null,
+                    null
+            ).visitEnd();
+        }
+        boolean fixedLayout = ProcessorsUtil.getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$FIXED_LAYOUT",
+                    Type.BOOLEAN_TYPE.getDescriptor(),
+                    null,
+                    null
+            ).visitEnd();
+        }
+
+        MethodVisitor methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerProvider.class)),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(Object.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE),
+                false
+        );
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSerializerInitialization(methodVisitor, writerType, packetType, field, trusted);
+        if (fixedLayout)
+            ProcessorsUtil.visitFixedLayoutInitialization(methodVisitor, writerType, packetType, trusted);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "write",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class),
+                        Type.getType(Object.class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 3);
+        methodVisitor.visitTypeInsn(CHECKCAST, packetType.getInternalName());
+        methodVisitor.visitVarInsn(ASTORE, 4);
+        if (fixedLayout) {
+            ProcessorsUtil.visitFixedLayoutWrite(methodVisitor, writerType, fields, 5, (visitor, field) -> {
+                visitor.visitVarInsn(ALOAD, 4);
+                visitor.visitFieldInsn(GETFIELD, packetType.getInternalName(), field.getName(), Type.getDescriptor(field.getType()));
+            });
+        }
+        for (Field field : fields) {
+            Class<?> serializerType = ProcessorsUtil.getSerializerType(field.getType());
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, writerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, writerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitVarInsn(ALOAD, 4);
+            methodVisitor.visitFieldInsn(GETFIELD, packetType.getInternalName(), field.getName(), Type.getDescriptor(field.getType()));
+            if (serializerType != Serializer.class) {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "serialize" + ProcessorsUtil.getPrimitiveSuffix(field.getType()),
+                        Type.getMethodDescriptor(
+                                Type.VOID_TYPE,
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class),
+                                Type.getType(field.getType())
+                        ),
+                        true
+                );
+                continue;
+            }
+            if (field.getType().isPrimitive())
+                ConverterVisitor.convertTopPrimitiveToObject(methodVisitor, Type.getType(field.getType()));
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(Serializer.class),
+                    "serialize",
+                    Type.getMethodDescriptor(
+                            Type.VOID_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(DataVisitor.class),
+                            Type.getType(Object.class)
+                    ),
+                    true
+            );
+        }
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "sizeOf",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(Object.class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitTypeInsn(CHECKCAST, packetType.getInternalName());
+        methodVisitor.visitVarInsn(ASTORE, 3);
+        methodVisitor.visitInsn(LCONST_0);
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSizeOf(methodVisitor, writerType, field, visitor -> {
+                visitor.visitVarInsn(ALOAD, 3);
+                visitor.visitFieldInsn(GETFIELD, packetType.getInternalName(), field.getName(), Type.getDescriptor(field.getType()));
+            });
+        ProcessorsUtil.visitSizeOfReturn(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        writer.visitEnd();
+
+        return MethodHandles
+                .privateLookupIn(packet, MethodHandles.lookup())
+                .defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                .lookupClass();
+    }
+
+}
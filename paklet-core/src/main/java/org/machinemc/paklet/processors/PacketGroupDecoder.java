@@ -0,0 +1,26 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.serialization.SerializerContext;
+
+/**
+ * Decoder of packets of a single packet group that dispatches
+ * the packet ID directly to the reader of the packet.
+ *
+ * @see PacketGroupDecoderCreator
+ */
+public interface PacketGroupDecoder {
+
+    /**
+     * Reads packet with given ID from the data visitor.
+     *
+     * @param packetID packet ID
+     * @param context serialization context
+     * @param visitor visitor with data (without packet ID)
+     * @return new packet
+     *
+     * @throws NullPointerException if there is no packet with given ID in the group
+     */
+    Object read(int packetID, SerializerContext context, DataVisitor visitor);
+
+}
@@ -0,0 +1,188 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Creates decoders of packet groups.
+ * <p>
+ * The created decoder is a hidden class that holds reader of each packet in its own
+ * field and dispatches to them using a {@code tableswitch} over the packet ID, or
+ * {@code lookupswitch} if the packet IDs of the group are sparse. Each reader is called
+ * from its own call site, so the calls stay monomorphic.
+ * <p>
+ * The decoders are immutable and need to be created again when packets of the group change.
+ */
+public final class PacketGroupDecoderCreator {
+
+    private PacketGroupDecoderCreator() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates new decoder for given packet group.
+     *
+     * @param group name of the packet group
+     * @param readers readers of the packets mapped by their packet IDs
+     * @return decoder for the packet group
+     */
+    public static PacketGroupDecoder create(String group, Map<Integer, PacketReader<?>> readers) {
+        int[] ids = readers.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        PacketReader<?>[] sorted = Arrays.stream(ids).mapToObj(readers::get).toArray(PacketReader<?>[]::new);
+        try {
+            Class<?> created = createDecoderClass(ids);
+            return (PacketGroupDecoder) created
+                    .getConstructor(String.class, PacketReader[].class)
+                    .newInstance(group, sorted);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static Class<?> createDecoderClass(int[] ids) throws IllegalAccessException {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type decoderType = Type.getObjectType(Type.getInternalName(PacketGroupDecoderCreator.class) + "$Decoder");
+
+        writer.visit(
+                V21,
+                ACC_PUBLIC | ACC_FINAL,
+                decoderType.getInternalName(),
+                null,
+                Type.getInternalName(Object.class),
+                new String[] {Type.getInternalName(PacketGroupDecoder.class)}
+        );
+
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, "$GROUP", Type.getDescriptor(String.class), null, null).visitEnd();
+        for (int id : ids)
+            writer.visitField(ACC_PRIVATE | ACC_FINAL, "$READER_" + id, Type.getDescriptor(PacketReader.class), null, null).visitEnd();
+
+        MethodVisitor methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "<init>",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(String.class),
+                        Type.getType(PacketReader[].class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(Object.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE),
+                false
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitFieldInsn(PUTFIELD, decoderType.getInternalName(), "$GROUP", Type.getDescriptor(String.class));
+        for (int i = 0; i < ids.length; i++) {
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitLdcInsn(i);
+            methodVisitor.visitInsn(AALOAD);
+            methodVisitor.visitFieldInsn(PUTFIELD, decoderType.getInternalName(), "$READER_" + ids[i], Type.getDescriptor(PacketReader.class));
+        }
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "read",
+                Type.getMethodDescriptor(
+                        Type.getType(Object.class),
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        Label invalid = new Label();
+        if (ids.length != 0) {
+            Label[] labels = new Label[ids.length];
+            for (int i = 0; i < ids.length; i++) labels[i] = new Label();
+            methodVisitor.visitVarInsn(ILOAD, 1);
+            int min = ids[0], max = ids[ids.length - 1];
+            if (isDense(ids)) {
+                // IDs missing in the range jump to the invalid label
+                Label[] table = new Label[max - min + 1];
+                Arrays.fill(table, invalid);
+                for (int i = 0; i < ids.length; i++) table[ids[i] - min] = labels[i];
+                methodVisitor.visitTableSwitchInsn(min, max, invalid, table);
+            } else {
+                methodVisitor.visitLookupSwitchInsn(invalid, ids, labels);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                methodVisitor.visitLabel(labels[i]);
+                methodVisitor.visitVarInsn(ALOAD, 0);
+                methodVisitor.visitFieldInsn(GETFIELD, decoderType.getInternalName(), "$READER_" + ids[i], Type.getDescriptor(PacketReader.class));
+                methodVisitor.visitVarInsn(ALOAD, 2);
+                methodVisitor.visitVarInsn(ALOAD, 3);
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(PacketReader.class),
+                        "read",
+                        Type.getMethodDescriptor(
+                                Type.getType(Object.class),
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+                methodVisitor.visitInsn(ARETURN);
+            }
+        }
+        methodVisitor.visitLabel(invalid);
+        methodVisitor.visitVarInsn(ILOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, decoderType.getInternalName(), "$GROUP", Type.getDescriptor(String.class));
+        methodVisitor.visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName(PacketGroupDecoderCreator.class),
+                "missingPacket",
+                Type.getMethodDescriptor(Type.getType(NullPointerException.class), Type.INT_TYPE, Type.getType(String.class)),
+                false
+        );
+        methodVisitor.visitInsn(ATHROW);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        writer.visitEnd();
+
+        return MethodHandles.lookup()
+                .defineHiddenClass(writer.toByteArray(), true)
+                .lookupClass();
+    }
+
+    /**
+     * Checks whether the sorted packet IDs are dense enough to be dispatched
+     * using a {@code tableswitch}, same as javac decides for switch statements.
+     */
+    private static boolean isDense(int[] ids) {
+        long range = (long) ids[ids.length - 1] - ids[0] + 1;
+        long tableCost = 4 + range + 3 * 3;
+        long lookupCost = 3 + 2L * ids.length + 3 * ids.length;
+        return tableCost <= lookupCost;
+    }
+
+    static NullPointerException missingPacket(int packetID, String group) {
+        return new NullPointerException("There is no packet with id " + packetID + " in group " + group);
+    }
+
+}
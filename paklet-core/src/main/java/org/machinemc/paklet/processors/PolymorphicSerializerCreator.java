@@ -0,0 +1,467 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.serialization.IntSerializer;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Creates serializers of sealed classes and interfaces.
+ * <p>
+ * Each value is prefixed with VarInt tag of its type, the tag is index of the type
+ * in the permitted subclasses of the sealed type, where permitted subclasses that are sealed
+ * as well are replaced with their own permitted subclasses. The type is then serialized with
+ * its reader and writer as if it was a packet.
+ * <p>
+ * The created serializer is a hidden class that dispatches to the readers and writers of
+ * each type using a {@code tableswitch} over the tag.
+ *
+ * @see org.machinemc.paklet.PolymorphicSerializationRule
+ */
+public final class PolymorphicSerializerCreator {
+
+    private PolymorphicSerializerCreator() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates new serializer for given sealed type.
+     *
+     * @param sealed sealed class or interface
+     * @param serializerProvider serializer provider used to resolve serializers of fields of the permitted subclasses
+     * @return serializer for the sealed type
+     * @param <T> sealed type
+     * @throws IllegalArgumentException if the type is not sealed or has a permitted subclass that is abstract and not sealed
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Serializer<T> create(Class<T> sealed, SerializerProvider serializerProvider) {
+        List<Class<?>> subclasses = collectSubclasses(sealed);
+
+        PacketReader<?>[] readers = new PacketReader<?>[subclasses.size()];
+        PacketWriter<?>[] writers = new PacketWriter<?>[subclasses.size()];
+        for (int i = 0; i < subclasses.size(); i++) {
+            Class<?> subclass = subclasses.get(i);
+            readers[i] = ProcessorsUtil.getDefaultReaderCreator(subclass, serializerProvider).create(subclass);
+            writers[i] = ProcessorsUtil.getDefaultWriterCreator(subclass, serializerProvider).create(subclass);
+        }
+
+        try {
+            Class<?> created = createSerializerClass(subclasses.size());
+            return (Serializer<T>) created
+                    .getConstructor(IntSerializer.class, ClassValue.class, PacketReader[].class, PacketWriter[].class)
+                    .newInstance(new VarIntSerializer(), new TagValue(subclasses), readers, writers);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Returns all subclasses of given sealed type in order of their tags.
+     *
+     * @param sealed sealed class or interface
+     * @return subclasses of the sealed type
+     */
+    public static List<Class<?>> collectSubclasses(Class<?> sealed) {
+        if (!sealed.isSealed())
+            throw new IllegalArgumentException("Class " + sealed.getName() + " is not sealed");
+        List<Class<?>> subclasses = new ArrayList<>();
+        for (Class<?> permitted : sealed.getPermittedSubclasses()) {
+            if (permitted.isSealed()) {
+                subclasses.addAll(collectSubclasses(permitted));
+                continue;
+            }
+            if (permitted.isInterface() || Modifier.isAbstract(permitted.getModifiers()))
+                throw new IllegalArgumentException("Permitted subclass " + permitted.getName() + " of " + sealed.getName() + " can not be abstract");
+            subclasses.add(permitted);
+        }
+        return subclasses;
+    }
+
+    private static Class<?> createSerializerClass(int size) throws IllegalAccessException {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type serializerType = Type.getObjectType(Type.getInternalName(PolymorphicSerializerCreator.class) + "$Serializer");
+
+        writer.visit(
+                V21,
+                ACC_PUBLIC | ACC_FINAL,
+                serializerType.getInternalName(),
+                null,
+                Type.getInternalName(Object.class),
+                new String[] {Type.getInternalName(Serializer.class)}
+        );
+
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, "$TAG", Type.getDescriptor(IntSerializer.class), null, null).visitEnd();
+        writer.visitField(ACC_PRIVATE | ACC_FINAL, "$TAGS", Type.getDescriptor(ClassValue.class), null, null).visitEnd();
+        for (int i = 0; i < size; i++) {
+            writer.visitField(ACC_PRIVATE | ACC_FINAL, "$READER_" + i, Type.getDescriptor(PacketReader.class), null, null).visitEnd();
+            writer.visitField(ACC_PRIVATE | ACC_FINAL, "$WRITER_" + i, Type.getDescriptor(PacketWriter.class), null, null).visitEnd();
+        }
+
+        MethodVisitor methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "<init>",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(IntSerializer.class),
+                        Type.getType(ClassValue.class),
+                        Type.getType(PacketReader[].class),
+                        Type.getType(PacketWriter[].class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(Object.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE),
+                false
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitFieldInsn(PUTFIELD, serializerType.getInternalName(), "$TAG", Type.getDescriptor(IntSerializer.class));
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitFieldInsn(PUTFIELD, serializerType.getInternalName(), "$TAGS", Type.getDescriptor(ClassValue.class));
+        for (int i = 0; i < size; i++) {
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitVarInsn(ALOAD, 3);
+            methodVisitor.visitLdcInsn(i);
+            methodVisitor.visitInsn(AALOAD);
+            methodVisitor.visitFieldInsn(PUTFIELD, serializerType.getInternalName(), "$READER_" + i, Type.getDescriptor(PacketReader.class));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitVarInsn(ALOAD, 4);
+            methodVisitor.visitLdcInsn(i);
+            methodVisitor.visitInsn(AALOAD);
+            methodVisitor.visitFieldInsn(PUTFIELD, serializerType.getInternalName(), "$WRITER_" + i, Type.getDescriptor(PacketWriter.class));
+        }
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "serialize",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class),
+                        Type.getType(Object.class)
+                ),
+                null,
+                new String[0]
+        );
+        visitTag(methodVisitor, serializerType, 3);
+        methodVisitor.visitVarInsn(ISTORE, 4);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$TAG", Type.getDescriptor(IntSerializer.class));
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitVarInsn(ILOAD, 4);
+        methodVisitor.visitMethodInsn(
+                INVOKEINTERFACE,
+                Type.getInternalName(IntSerializer.class),
+                "serializeInt",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class),
+                        Type.INT_TYPE
+                ),
+                true
+        );
+        Label[] labels = createLabels(size);
+        Label invalid = new Label();
+        methodVisitor.visitVarInsn(ILOAD, 4);
+        methodVisitor.visitTableSwitchInsn(0, size - 1, invalid, labels);
+        for (int i = 0; i < size; i++) {
+            methodVisitor.visitLabel(labels[i]);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$WRITER_" + i, Type.getDescriptor(PacketWriter.class));
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitVarInsn(ALOAD, 3);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(PacketWriter.class),
+                    "write",
+                    Type.getMethodDescriptor(
+                            Type.VOID_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(DataVisitor.class),
+                            Type.getType(Object.class)
+                    ),
+                    true
+            );
+            methodVisitor.visitInsn(RETURN);
+        }
+        methodVisitor.visitLabel(invalid);
+        visitInvalidTag(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "sizeOf",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(Object.class)
+                ),
+                null,
+                new String[0]
+        );
+        visitTag(methodVisitor, serializerType, 2);
+        methodVisitor.visitVarInsn(ISTORE, 3);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$TAG", Type.getDescriptor(IntSerializer.class));
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitMethodInsn(
+                INVOKEINTERFACE,
+                Type.getInternalName(IntSerializer.class),
+                "sizeOfInt",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.INT_TYPE
+                ),
+                true
+        );
+        methodVisitor.visitVarInsn(ISTORE, 4);
+        labels = createLabels(size);
+        invalid = new Label();
+        methodVisitor.visitVarInsn(ILOAD, 3);
+        methodVisitor.visitTableSwitchInsn(0, size - 1, invalid, labels);
+        for (int i = 0; i < size; i++) {
+            methodVisitor.visitLabel(labels[i]);
+            methodVisitor.visitVarInsn(ILOAD, 4);
+            methodVisitor.visitInsn(I2L);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$WRITER_" + i, Type.getDescriptor(PacketWriter.class));
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(PacketWriter.class),
+                    "sizeOf",
+                    Type.getMethodDescriptor(
+                            Type.INT_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(Object.class)
+                    ),
+                    true
+            );
+            methodVisitor.visitInsn(I2L);
+            methodVisitor.visitInsn(LADD);
+            ProcessorsUtil.visitSizeOfReturn(methodVisitor);
+        }
+        methodVisitor.visitLabel(invalid);
+        visitInvalidTag(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "deserialize",
+                Type.getMethodDescriptor(
+                        Type.getType(Object.class),
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$TAG", Type.getDescriptor(IntSerializer.class));
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitMethodInsn(
+                INVOKEINTERFACE,
+                Type.getInternalName(IntSerializer.class),
+                "deserializeInt",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                true
+        );
+        labels = createLabels(size);
+        invalid = new Label();
+        methodVisitor.visitTableSwitchInsn(0, size - 1, invalid, labels);
+        for (int i = 0; i < size; i++) {
+            methodVisitor.visitLabel(labels[i]);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$READER_" + i, Type.getDescriptor(PacketReader.class));
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(PacketReader.class),
+                    "read",
+                    Type.getMethodDescriptor(
+                            Type.getType(Object.class),
+                            Type.getType(SerializerContext.class),
+                            Type.getType(DataVisitor.class)
+                    ),
+                    true
+            );
+            methodVisitor.visitInsn(ARETURN);
+        }
+        methodVisitor.visitLabel(invalid);
+        visitInvalidTag(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "skip",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$TAG", Type.getDescriptor(IntSerializer.class));
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitMethodInsn(
+                INVOKEINTERFACE,
+                Type.getInternalName(IntSerializer.class),
+                "deserializeInt",
+                Type.getMethodDescriptor(
+                        Type.INT_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                true
+        );
+        labels = createLabels(size);
+        invalid = new Label();
+        methodVisitor.visitTableSwitchInsn(0, size - 1, invalid, labels);
+        for (int i = 0; i < size; i++) {
+            methodVisitor.visitLabel(labels[i]);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$READER_" + i, Type.getDescriptor(PacketReader.class));
+            methodVisitor.visitVarInsn(ALOAD, 1);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(PacketReader.class),
+                    "skip",
+                    Type.getMethodDescriptor(
+                            Type.VOID_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(DataVisitor.class)
+                    ),
+                    true
+            );
+            methodVisitor.visitInsn(RETURN);
+        }
+        methodVisitor.visitLabel(invalid);
+        visitInvalidTag(methodVisitor);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        writer.visitEnd();
+
+        return MethodHandles.lookup()
+                .defineHiddenClass(writer.toByteArray(), true)
+                .lookupClass();
+    }
+
+    /**
+     * Visits code that pushes tag of the value stored in given local variable,
+     * the tag is computed only once for each class.
+     */
+    private static void visitTag(MethodVisitor methodVisitor, Type serializerType, int value) {
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, serializerType.getInternalName(), "$TAGS", Type.getDescriptor(ClassValue.class));
+        methodVisitor.visitVarInsn(ALOAD, value);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(Object.class),
+                "getClass",
+                Type.getMethodDescriptor(Type.getType(Class.class)),
+                false
+        );
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ClassValue.class),
+                "get",
+                Type.getMethodDescriptor(Type.getType(Object.class), Type.getType(Class.class)),
+                false
+        );
+        methodVisitor.visitTypeInsn(CHECKCAST, Type.getInternalName(Integer.class));
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(Integer.class),
+                "intValue",
+                Type.getMethodDescriptor(Type.INT_TYPE),
+                false
+        );
+    }
+
+    private static Label[] createLabels(int size) {
+        Label[] labels = new Label[size];
+        for (int i = 0; i < size; i++) labels[i] = new Label();
+        return labels;
+    }
+
+    private static void visitInvalidTag(MethodVisitor methodVisitor) {
+        methodVisitor.visitTypeInsn(NEW, Type.getInternalName(IllegalStateException.class));
+        methodVisitor.visitInsn(DUP);
+        methodVisitor.visitLdcInsn("Invalid polymorphic type tag");
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(IllegalStateException.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class)),
+                false
+        );
+        methodVisitor.visitInsn(ATHROW);
+    }
+
+    /**
+     * Resolves tags of the subclasses of sealed type, classes that are
+     * not subclasses of the sealed type resolve to {@code -1}.
+     */
+    private static final class TagValue extends ClassValue<Integer> {
+
+        private final List<Class<?>> subclasses;
+
+        private TagValue(List<Class<?>> subclasses) {
+            this.subclasses = List.copyOf(subclasses);
+        }
+
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            for (int i = 0; i < subclasses.size(); i++)
+                if (subclasses.get(i).isAssignableFrom(type)) return i;
+            return -1;
+        }
+
+    }
+
+}
@@ -1,11 +1,23 @@
 package org.machinemc.paklet.processors;
 
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
+import org.machinemc.paklet.CustomPacket;
 import org.machinemc.paklet.DataVisitor;
-import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.serialization.*;
 import org.machinemc.paklet.modifiers.Ignore;
-import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+import org.machinemc.paklet.utils.ConverterVisitor;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
 
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -13,16 +25,138 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.objectweb.asm.Opcodes.*;
 
 /**
  * Utils used by packet processors.
  */
 public final class ProcessorsUtil {
 
+    // widths of primitive types that have fixed width when serialized with their default serializers
+    private static final Map<Class<?>, Integer> FIXED_WIDTHS = Map.of(
+            boolean.class, 1,
+            byte.class, Byte.BYTES,
+            short.class, Short.BYTES,
+            char.class, Character.BYTES,
+            int.class, Integer.BYTES,
+            long.class, Long.BYTES,
+            float.class, Float.BYTES,
+            double.class, Double.BYTES
+    );
+
+    private static final Map<Class<?>, Class<?>> FIXED_WIDTH_SERIALIZERS = Map.of(
+            boolean.class, Serializers.Boolean.class,
+            byte.class, Serializers.Byte.class,
+            short.class, Serializers.Short.class,
+            char.class, Serializers.Character.class,
+            int.class, Serializers.Integer.class,
+            long.class, Serializers.Long.class,
+            float.class, Serializers.Float.class,
+            double.class, Serializers.Double.class
+    );
+
     private ProcessorsUtil() {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Returns reader creator that should be used for given packet class.
+     * <p>
+     * Custom packets use {@link CustomReaderCreator}, packets modified by the Paklet plugin or with
+     * compiled readers use {@link GeneratedReaderCreator}, other packets use {@link HiddenReaderCreator}
+     * if supported and {@link ProxyReaderCreator} otherwise.
+     * <p>
+     * Packets with fixed layout that have compiled readers without the fixed layout fast path,
+     * e.g. generated by the Paklet annotation processor without {@code paklet-core} available
+     * during the compilation, use {@link HiddenReaderCreator} if supported.
+     *
+     * @param packet packet class
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @return reader creator for the packet class
+     */
+    public static ReaderCreator getDefaultReaderCreator(Class<?> packet, SerializerProvider serializerProvider) {
+        if (CustomPacket.class.isAssignableFrom(packet))
+            return new CustomReaderCreator();
+        boolean hidden = supportsHiddenCodecs(packet);
+        if ((isGeneratedPacketClass(packet) || hasCompiledCodecs(packet)) && !(hidden && lacksFixedLayout(packet, "_READER")))
+            return new GeneratedReaderCreator(serializerProvider);
+        if (hidden)
+            return new HiddenReaderCreator(serializerProvider);
+        return new ProxyReaderCreator();
+    }
+
+    /**
+     * Returns writer creator that should be used for given packet class.
+     *
+     * @param packet packet class
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @return writer creator for the packet class
+     * @see #getDefaultReaderCreator(Class, SerializerProvider)
+     */
+    public static WriterCreator getDefaultWriterCreator(Class<?> packet, SerializerProvider serializerProvider) {
+        return getDefaultWriterCreator(packet, serializerProvider, false);
+    }
+
+    /**
+     * Returns writer creator that should be used for given packet class.
+     * <p>
+     * Writers generated by trusted writer creators do not check values of the packet
+     * against the constraints of their types. Custom and proxy writers use the context
+     * they are given and are trusted only if the context is.
+     * <p>
+     * Compiled writers are used only if they were compiled for the requested mode, trusted
+     * writers of packets with only validating writer compiled are created during runtime.
+     *
+     * @param packet packet class
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @param trusted whether the created writers should be trusted
+     * @return writer creator for the packet class
+     * @see SerializerContext#trusted()
+     */
+    public static WriterCreator getDefaultWriterCreator(Class<?> packet, SerializerProvider serializerProvider, boolean trusted) {
+        if (CustomPacket.class.isAssignableFrom(packet))
+            return new CustomWriterCreator();
+        boolean hidden = supportsHiddenCodecs(packet);
+        String suffix = trusted ? "_TRUSTED_WRITER" : "_WRITER";
+        if (hasCompiledCodecs(packet) && findCompiledCodec(packet, suffix) != null) {
+            if (hidden && lacksFixedLayout(packet, suffix))
+                return new HiddenWriterCreator(serializerProvider, trusted);
+            return new GeneratedWriterCreator(serializerProvider, trusted);
+        }
+        if (isGeneratedPacketClass(packet))
+            return new GeneratedWriterCreator(serializerProvider, trusted);
+        if (hidden)
+            return new HiddenWriterCreator(serializerProvider, trusted);
+        return new ProxyWriterCreator();
+    }
+
+    /**
+     * Checks whether fields of the packet have fixed layout, but its compiled reader or writer
+     * does not use it, see {@link #getFixedLayoutSize(List)}.
+     * <p>
+     * Codecs generated during runtime or by the Paklet plugin for packets with fixed layout
+     * have {@code $FIXED_LAYOUT} field, codecs generated by the Paklet annotation processor
+     * have it only if {@code paklet-core} was available during their compilation.
+     *
+     * @param packet packet class
+     * @param suffix suffix of the codec class, {@code _READER}, {@code _WRITER} or {@code _TRUSTED_WRITER}
+     * @return whether the compiled codec lacks the fixed layout fast path
+     */
+    private static boolean lacksFixedLayout(Class<?> packet, String suffix) {
+        if (getFixedLayoutSize(collectSerializableFields(packet)) < 0) return false;
+        Class<?> compiled = findCompiledCodec(packet, suffix);
+        if (compiled == null) return false;
+        try {
+            compiled.getDeclaredField("$FIXED_LAYOUT");
+            return false;
+        } catch (NoSuchFieldException exception) {
+            return true;
+        }
+    }
+
     /**
      * Checks whether the provided packet class is modified by the
      * Paklet Gradle plugin.
@@ -49,6 +183,103 @@ public final class ProcessorsUtil {
         return true;
     }
 
+    /**
+     * Checks whether the provided packet class has both reader and writer
+     * compiled ahead of time, e.g. generated by the Paklet annotation processor.
+     *
+     * @param packet packet class to check
+     * @return whether the provided packet class has compiled reader and writer
+     * @see #findCompiledCodec(Class, String)
+     */
+    public static boolean hasCompiledCodecs(Class<?> packet) {
+        return findCompiledCodec(packet, "_READER") != null && findCompiledCodec(packet, "_WRITER") != null;
+    }
+
+    /**
+     * Returns reader or writer class compiled ahead of time for given packet class.
+     * <p>
+     * The class is expected to be named after the packet class followed by
+     * given suffix and to be loaded by the class loader of the packet.
+     *
+     * @param packet packet class
+     * @param suffix suffix of the codec class, {@code _READER}, {@code _WRITER} or {@code _TRUSTED_WRITER}
+     * @return compiled codec class or null if there is none
+     */
+    public static @Nullable Class<?> findCompiledCodec(Class<?> packet, String suffix) {
+        try {
+            return Class.forName(packet.getName() + suffix, true, packet.getClassLoader());
+        } catch (ClassNotFoundException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether readers and writers of the provided packet class can
+     * be generated as hidden classes, nestmates of the packet class.
+     * <p>
+     * This requires the packet to be accessible with private access from Paklet and
+     * either to have a constructor without arguments and not final serializable fields,
+     * or to have a constructor accepting all serializable fields, see {@link #findFieldsConstructor(Class)}.
+     *
+     * @param packet packet class to check
+     * @return whether hidden readers and writers can be created for the packet class
+     * @see HiddenReaderCreator
+     * @see HiddenWriterCreator
+     */
+    public static boolean supportsHiddenCodecs(Class<?> packet) {
+        if (packet.isInterface() || packet.isArray() || packet.isPrimitive() || packet.isHidden()) return false;
+        if (Modifier.isAbstract(packet.getModifiers())) return false;
+        if (CustomPacket.class.isAssignableFrom(packet)) return false;
+        if (isImmutablePacketClass(packet)) {
+            if (findFieldsConstructor(packet) == null) return false;
+        } else {
+            try {
+                packet.getDeclaredConstructor();
+            } catch (NoSuchMethodException exception) {
+                return false;
+            }
+        }
+        try {
+            MethodHandles.privateLookupIn(packet, MethodHandles.lookup());
+        } catch (IllegalAccessException exception) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the provided packet class is a record or has final serializable fields.
+     * <p>
+     * Instances of those packets can not be created before their fields are read and
+     * are constructed using constructor accepting all serializable fields instead.
+     *
+     * @param packet packet class to check
+     * @return whether the packet class is immutable
+     * @see #findFieldsConstructor(Class)
+     */
+    public static boolean isImmutablePacketClass(Class<?> packet) {
+        if (packet.isRecord()) return true;
+        return collectSerializableFields(packet).stream().anyMatch(field -> Modifier.isFinal(field.getModifiers()));
+    }
+
+    /**
+     * Returns constructor of the packet class that accepts values of all serializable
+     * fields in order of their declaration, for records this is their canonical constructor.
+     *
+     * @param packet packet class
+     * @return constructor accepting all serializable fields, or null if there is none
+     */
+    public static @Nullable Constructor<?> findFieldsConstructor(Class<?> packet) {
+        Class<?>[] parameters = collectSerializableFields(packet).stream()
+                .map(Field::getType)
+                .toArray(Class[]::new);
+        try {
+            return packet.getDeclaredConstructor(parameters);
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
     /**
      * Returns all fields expected to serialize.
      *
@@ -117,4 +348,555 @@ public final class ProcessorsUtil {
         return context.withType(type);
     }
 
+    /**
+     * Creates serialization context for given class and its field.
+     * <p>
+     * Used by generated readers and writers to resolve the context of each
+     * field only once, when they are created.
+     *
+     * @param serializerProvider serializer provider
+     * @param packet packet type
+     * @param field name of the field
+     * @return serialization context for the field
+     */
+    public static SerializerContext createContextForField(SerializerProvider serializerProvider, Class<?> packet, String field) {
+        return createContextForField(new SerializerContext(null, serializerProvider), packet, field);
+    }
+
+    /**
+     * Creates trusted serialization context for given class and its field.
+     * <p>
+     * Used by trusted generated writers to resolve the context of each
+     * field only once, when they are created.
+     *
+     * @param serializerProvider serializer provider
+     * @param packet packet type
+     * @param field name of the field
+     * @return trusted serialization context for the field
+     * @see SerializerContext#trusted()
+     */
+    public static SerializerContext createTrustedContextForField(SerializerProvider serializerProvider, Class<?> packet, String field) {
+        return createContextForField(new SerializerContext(null, serializerProvider).trusted(), packet, field);
+    }
+
+    /**
+     * Visits code that resolves serialization context and serializer of given field
+     * and stores them in {@code $CONTEXT_} and {@code $SERIALIZER_} fields of the
+     * generated class.
+     * <p>
+     * Expects the serializer provider to be the first argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the constructor
+     * @param owner type of the generated class
+     * @param packetType type of the packet
+     * @param field field to resolve the serializer for
+     */
+    public static void visitFieldSerializerInitialization(MethodVisitor methodVisitor, Type owner, Type packetType, Field field) {
+        visitFieldSerializerInitialization(methodVisitor, owner, packetType, field, false);
+    }
+
+    /**
+     * Visits code that resolves serialization context and serializer of given field
+     * and stores them in {@code $CONTEXT_} and {@code $SERIALIZER_} fields of the
+     * generated class.
+     * <p>
+     * Expects the serializer provider to be the first argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the constructor
+     * @param owner type of the generated class
+     * @param packetType type of the packet
+     * @param field field to resolve the serializer for
+     * @param trusted whether the context should be trusted
+     * @see #createTrustedContextForField(SerializerProvider, Class, String)
+     */
+    public static void visitFieldSerializerInitialization(MethodVisitor methodVisitor, Type owner, Type packetType, Field field, boolean trusted) {
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitLdcInsn(packetType);
+        methodVisitor.visitLdcInsn(field.getName());
+        methodVisitor.visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName(ProcessorsUtil.class),
+                trusted ? "createTrustedContextForField" : "createContextForField",
+                Type.getMethodDescriptor(
+                        Type.getType(SerializerContext.class),
+                        Type.getType(SerializerProvider.class),
+                        Type.getType(Class.class),
+                        Type.getType(String.class)
+                ),
+                false
+        );
+        methodVisitor.visitFieldInsn(PUTFIELD, owner.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(SerializerContext.class),
+                "serializeWith",
+                Type.getMethodDescriptor(Type.getType(Serializer.class)),
+                false
+        );
+        Class<?> serializerType = getSerializerType(field.getType());
+        if (serializerType != Serializer.class) {
+            methodVisitor.visitMethodInsn(
+                    INVOKESTATIC,
+                    Type.getInternalName(serializerType),
+                    "adapt",
+                    Type.getMethodDescriptor(Type.getType(serializerType), Type.getType(Serializer.class)),
+                    true
+            );
+        }
+        methodVisitor.visitFieldInsn(PUTFIELD, owner.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+    }
+
+    /**
+     * Visits code that computes the encoded size of given field using its {@code $CONTEXT_}
+     * and {@code $SERIALIZER_} fields and adds it to the {@code long} on top of the stack.
+     *
+     * @param methodVisitor method visitor of the sizeOf method
+     * @param owner type of the generated class
+     * @param field field to compute the size of
+     * @param valueLoader visits code that pushes the value of the field on the stack
+     */
+    public static void visitFieldSizeOf(MethodVisitor methodVisitor, Type owner, Field field, Consumer<MethodVisitor> valueLoader) {
+        Class<?> serializerType = getSerializerType(field.getType());
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+        valueLoader.accept(methodVisitor);
+        if (serializerType != Serializer.class) {
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(serializerType),
+                    "sizeOf" + getPrimitiveSuffix(field.getType()),
+                    Type.getMethodDescriptor(
+                            Type.INT_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(field.getType())
+                    ),
+                    true
+            );
+        } else {
+            if (field.getType().isPrimitive())
+                ConverterVisitor.convertTopPrimitiveToObject(methodVisitor, Type.getType(field.getType()));
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(Serializer.class),
+                    "sizeOf",
+                    Type.getMethodDescriptor(
+                            Type.INT_TYPE,
+                            Type.getType(SerializerContext.class),
+                            Type.getType(Object.class)
+                    ),
+                    true
+            );
+        }
+        methodVisitor.visitInsn(I2L);
+        methodVisitor.visitInsn(LADD);
+    }
+
+    /**
+     * Visits code that returns the {@code long} size on top of the stack from the sizeOf
+     * method, sizes that do not fit in {@code int} are returned as {@link Integer#MAX_VALUE}.
+     *
+     * @param methodVisitor method visitor of the sizeOf method
+     */
+    public static void visitSizeOfReturn(MethodVisitor methodVisitor) {
+        methodVisitor.visitLdcInsn((long) Integer.MAX_VALUE);
+        methodVisitor.visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName(Math.class),
+                "min",
+                Type.getMethodDescriptor(Type.LONG_TYPE, Type.LONG_TYPE, Type.LONG_TYPE),
+                false
+        );
+        methodVisitor.visitInsn(L2I);
+        methodVisitor.visitInsn(IRETURN);
+    }
+
+    /**
+     * Visits body of the skip method of generated reader, that skips all fields
+     * using their serializers, or all at once if the packet uses its fixed layout.
+     *
+     * @param methodVisitor method visitor of the skip method
+     * @param owner type of the generated class
+     * @param fields serializable fields of the packet
+     * @see Serializer#skip(SerializerContext, DataVisitor)
+     */
+    public static void visitSkip(MethodVisitor methodVisitor, Type owner, List<Field> fields) {
+        int size = getFixedLayoutSize(fields);
+        Label fallback = new Label();
+        if (size > 0) {
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$FIXED_LAYOUT", Type.BOOLEAN_TYPE.getDescriptor());
+            methodVisitor.visitJumpInsn(IFEQ, fallback);
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitLdcInsn(size);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(DataVisitor.class),
+                    "skipBytes",
+                    Type.getMethodDescriptor(Type.getType(DataVisitor.class), Type.INT_TYPE),
+                    true
+            );
+            methodVisitor.visitInsn(POP);
+            methodVisitor.visitInsn(RETURN);
+            methodVisitor.visitLabel(fallback);
+        }
+        for (Field field : fields) {
+            Class<?> serializerType = getSerializerType(field.getType());
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            methodVisitor.visitMethodInsn(
+                    INVOKEINTERFACE,
+                    Type.getInternalName(serializerType),
+                    "skip",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerContext.class), Type.getType(DataVisitor.class)),
+                    true
+            );
+        }
+        methodVisitor.visitInsn(RETURN);
+    }
+
+    /**
+     * Returns the number of bytes packets with given fields take if all of them
+     * are primitives with fixed width, such packets can be read and written using
+     * a single bounds check and absolute buffer operations.
+     *
+     * @param fields serializable fields of the packet
+     * @return size of the fixed layout, or -1 if the fields do not have one
+     * @see #isFixedLayout(SerializerProvider, Class)
+     */
+    public static int getFixedLayoutSize(List<Field> fields) {
+        if (fields.isEmpty()) return -1;
+        int size = 0;
+        for (Field field : fields) {
+            Integer width = FIXED_WIDTHS.get(field.getType());
+            if (width == null) return -1;
+            size += width;
+        }
+        return size;
+    }
+
+    /**
+     * Checks whether fields of the packet are all serialized by the default serializers
+     * of their primitive types without any range constraints, so the packet can be
+     * read and written using its fixed layout.
+     * <p>
+     * Depends on the serializers registered to the provider, so generated readers and
+     * writers check it once, when they are created.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @param packet packet class
+     * @return whether the packet can use its fixed layout
+     * @see #getFixedLayoutSize(List)
+     */
+    public static boolean isFixedLayout(SerializerProvider serializerProvider, Class<?> packet) {
+        return isFixedLayout(serializerProvider, packet, false);
+    }
+
+    /**
+     * Checks whether fields of the packet are all serialized by the default serializers
+     * of their primitive types, so the packet can be read and written using its fixed layout.
+     * <p>
+     * Range constraints of the fields are ignored if the check is done for a trusted writer,
+     * as it does not check them.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     * @param packet packet class
+     * @param trusted whether the check is done for a trusted writer
+     * @return whether the packet can use its fixed layout
+     * @see #isFixedLayout(SerializerProvider, Class)
+     */
+    public static boolean isFixedLayout(SerializerProvider serializerProvider, Class<?> packet, boolean trusted) {
+        List<Field> fields = collectSerializableFields(packet);
+        if (getFixedLayoutSize(fields) < 0) return false;
+        for (Field field : fields) {
+            SerializerContext context = trusted
+                    ? createTrustedContextForField(serializerProvider, packet, field.getName())
+                    : createContextForField(serializerProvider, packet, field.getName());
+            if (context.constraints().hasChecks()) return false;
+            if (context.serializeWith().getClass() != FIXED_WIDTH_SERIALIZERS.get(field.getType())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Visits code that initializes the {@code $FIXED_LAYOUT} field of the generated class.
+     * <p>
+     * Expects the serializer provider to be the first argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the constructor
+     * @param owner type of the generated class
+     * @param packetType type of the packet
+     * @see #isFixedLayout(SerializerProvider, Class)
+     */
+    public static void visitFixedLayoutInitialization(MethodVisitor methodVisitor, Type owner, Type packetType) {
+        visitFixedLayoutInitialization(methodVisitor, owner, packetType, false);
+    }
+
+    /**
+     * Visits code that initializes the {@code $FIXED_LAYOUT} field of the generated class.
+     * <p>
+     * Expects the serializer provider to be the first argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the constructor
+     * @param owner type of the generated class
+     * @param packetType type of the packet
+     * @param trusted whether the generated class is a trusted writer
+     * @see #isFixedLayout(SerializerProvider, Class, boolean)
+     */
+    public static void visitFixedLayoutInitialization(MethodVisitor methodVisitor, Type owner, Type packetType, boolean trusted) {
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitVarInsn(ALOAD, 1);
+        methodVisitor.visitLdcInsn(packetType);
+        methodVisitor.visitInsn(trusted ? ICONST_1 : ICONST_0);
+        methodVisitor.visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName(ProcessorsUtil.class),
+                "isFixedLayout",
+                Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(SerializerProvider.class), Type.getType(Class.class), Type.BOOLEAN_TYPE),
+                false
+        );
+        methodVisitor.visitFieldInsn(PUTFIELD, owner.getInternalName(), "$FIXED_LAYOUT", Type.BOOLEAN_TYPE.getDescriptor());
+    }
+
+    /**
+     * Visits code that writes the packet using its fixed layout, if the packet uses it
+     * and the data visitor is backed by netty buffer, and returns from the method.
+     * <p>
+     * The whole packet is written after a single bounds check using absolute buffer
+     * operations, followed by one update of the writer index. Otherwise, the visited
+     * code continues with the code visited after this method.
+     * <p>
+     * Expects the data visitor to be the second argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the write method
+     * @param owner type of the generated class
+     * @param fields serializable fields of the packet
+     * @param firstLocal index of the first free local variable, two are used
+     * @param valueLoader visits code that pushes the value of the field on the stack
+     * @see #getFixedLayoutSize(List)
+     */
+    public static void visitFixedLayoutWrite(MethodVisitor methodVisitor, Type owner, List<Field> fields, int firstLocal,
+                                             BiConsumer<MethodVisitor, Field> valueLoader) {
+        int size = getFixedLayoutSize(fields);
+        int bufferLocal = firstLocal, indexLocal = firstLocal + 1;
+        Label fallback = new Label();
+        visitFixedLayoutBuffer(methodVisitor, owner, bufferLocal, fallback);
+        methodVisitor.visitVarInsn(ALOAD, bufferLocal);
+        methodVisitor.visitLdcInsn(size);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ByteBuf.class),
+                "ensureWritable",
+                Type.getMethodDescriptor(Type.getType(ByteBuf.class), Type.INT_TYPE),
+                false
+        );
+        methodVisitor.visitInsn(POP);
+        methodVisitor.visitVarInsn(ALOAD, bufferLocal);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ByteBuf.class),
+                "writerIndex",
+                Type.getMethodDescriptor(Type.INT_TYPE),
+                false
+        );
+        methodVisitor.visitVarInsn(ISTORE, indexLocal);
+        int offset = 0;
+        for (Field field : fields) {
+            Class<?> type = field.getType();
+            visitFixedLayoutIndex(methodVisitor, bufferLocal, indexLocal, offset);
+            valueLoader.accept(methodVisitor, field);
+            // bytes, shorts, and chars are set as ints
+            Type valueType = type == byte.class || type == short.class || type == char.class ? Type.INT_TYPE : Type.getType(type);
+            methodVisitor.visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    Type.getInternalName(ByteBuf.class),
+                    "set" + getPrimitiveSuffix(type),
+                    Type.getMethodDescriptor(Type.getType(ByteBuf.class), Type.INT_TYPE, valueType),
+                    false
+            );
+            methodVisitor.visitInsn(POP);
+            offset += FIXED_WIDTHS.get(type);
+        }
+        visitFixedLayoutIndex(methodVisitor, bufferLocal, indexLocal, size);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ByteBuf.class),
+                "writerIndex",
+                Type.getMethodDescriptor(Type.getType(ByteBuf.class), Type.INT_TYPE),
+                false
+        );
+        methodVisitor.visitInsn(POP);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitLabel(fallback);
+    }
+
+    /**
+     * Visits code that reads the packet using its fixed layout, if the packet uses it
+     * and the data visitor is backed by netty buffer, and returns the packet.
+     * <p>
+     * The reader index is moved past the whole packet first, which is the only bounds check,
+     * and the fields are then read using absolute buffer operations. Otherwise, the visited
+     * code continues with the code visited after this method.
+     * <p>
+     * Expects the data visitor to be the second argument of the visited method.
+     *
+     * @param methodVisitor method visitor of the read method
+     * @param owner type of the generated class
+     * @param packetType type of the packet
+     * @param fields serializable fields of the packet
+     * @param firstLocal index of the first free local variable, three are used
+     * @param constructor constructor accepting all serializable fields for immutable packets,
+     *                    null if the packet is created using constructor without arguments
+     * @param valueStorer visits code that stores the value on top of the stack to the field of
+     *                    the packet below it, used only if the constructor is null
+     * @see #getFixedLayoutSize(List)
+     */
+    public static void visitFixedLayoutRead(MethodVisitor methodVisitor, Type owner, Type packetType, List<Field> fields, int firstLocal,
+                                            @Nullable Constructor<?> constructor, BiConsumer<MethodVisitor, Field> valueStorer) {
+        int size = getFixedLayoutSize(fields);
+        int bufferLocal = firstLocal, indexLocal = firstLocal + 1, packetLocal = firstLocal + 2;
+        Label fallback = new Label();
+        visitFixedLayoutBuffer(methodVisitor, owner, bufferLocal, fallback);
+        methodVisitor.visitVarInsn(ALOAD, bufferLocal);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ByteBuf.class),
+                "readerIndex",
+                Type.getMethodDescriptor(Type.INT_TYPE),
+                false
+        );
+        methodVisitor.visitVarInsn(ISTORE, indexLocal);
+        // fails if the packet is not readable as whole
+        visitFixedLayoutIndex(methodVisitor, bufferLocal, indexLocal, size);
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(ByteBuf.class),
+                "readerIndex",
+                Type.getMethodDescriptor(Type.getType(ByteBuf.class), Type.INT_TYPE),
+                false
+        );
+        methodVisitor.visitInsn(POP);
+        methodVisitor.visitTypeInsn(NEW, packetType.getInternalName());
+        methodVisitor.visitInsn(DUP);
+        if (constructor == null) {
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    packetType.getInternalName(),
+                    "<init>",
+                    Type.getMethodDescriptor(Type.VOID_TYPE),
+                    false
+            );
+            methodVisitor.visitVarInsn(ASTORE, packetLocal);
+        }
+        int offset = 0;
+        for (Field field : fields) {
+            if (constructor == null) methodVisitor.visitVarInsn(ALOAD, packetLocal);
+            visitFixedLayoutIndex(methodVisitor, bufferLocal, indexLocal, offset);
+            methodVisitor.visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    Type.getInternalName(ByteBuf.class),
+                    "get" + getPrimitiveSuffix(field.getType()),
+                    Type.getMethodDescriptor(Type.getType(field.getType()), Type.INT_TYPE),
+                    false
+            );
+            if (constructor == null) valueStorer.accept(methodVisitor, field);
+            offset += FIXED_WIDTHS.get(field.getType());
+        }
+        if (constructor != null) {
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    packetType.getInternalName(),
+                    "<init>",
+                    Type.getConstructorDescriptor(constructor),
+                    false
+            );
+        } else {
+            methodVisitor.visitVarInsn(ALOAD, packetLocal);
+        }
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitLabel(fallback);
+    }
+
+    private static void visitFixedLayoutBuffer(MethodVisitor methodVisitor, Type owner, int bufferLocal, Label fallback) {
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitFieldInsn(GETFIELD, owner.getInternalName(), "$FIXED_LAYOUT", Type.BOOLEAN_TYPE.getDescriptor());
+        methodVisitor.visitJumpInsn(IFEQ, fallback);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitTypeInsn(INSTANCEOF, Type.getInternalName(NettyDataVisitor.class));
+        methodVisitor.visitJumpInsn(IFEQ, fallback);
+        methodVisitor.visitVarInsn(ALOAD, 2);
+        methodVisitor.visitTypeInsn(CHECKCAST, Type.getInternalName(NettyDataVisitor.class));
+        methodVisitor.visitMethodInsn(
+                INVOKEVIRTUAL,
+                Type.getInternalName(NettyDataVisitor.class),
+                "getByteBuf",
+                Type.getMethodDescriptor(Type.getType(ByteBuf.class)),
+                false
+        );
+        methodVisitor.visitVarInsn(ASTORE, bufferLocal);
+    }
+
+    private static void visitFixedLayoutIndex(MethodVisitor methodVisitor, int bufferLocal, int indexLocal, int offset) {
+        methodVisitor.visitVarInsn(ALOAD, bufferLocal);
+        methodVisitor.visitVarInsn(ILOAD, indexLocal);
+        if (offset == 0) return;
+        methodVisitor.visitLdcInsn(offset);
+        methodVisitor.visitInsn(IADD);
+    }
+
+    /**
+     * Returns type of the serializer that generated readers and writers use
+     * for fields of given type.
+     * <p>
+     * For {@code int}, {@code long}, {@code float}, {@code double}, and {@code boolean}
+     * this is their primitive serializer, for other types it is {@link Serializer}.
+     *
+     * @param type type of the field
+     * @return type of the serializer
+     * @see #getPrimitiveSuffix(Class)
+     */
+    public static Class<?> getSerializerType(Class<?> type) {
+        if (type == int.class) return IntSerializer.class;
+        if (type == long.class) return LongSerializer.class;
+        if (type == float.class) return FloatSerializer.class;
+        if (type == double.class) return DoubleSerializer.class;
+        if (type == boolean.class) return BooleanSerializer.class;
+        return Serializer.class;
+    }
+
+    /**
+     * Returns suffix of serialize and deserialize methods of the primitive
+     * serializer for given type, e.g. {@code Int} for {@code serializeInt}.
+     *
+     * @param type primitive type with its own serializer type
+     * @return suffix of the primitive serializer methods
+     * @see #getSerializerType(Class)
+     */
+    public static String getPrimitiveSuffix(Class<?> type) {
+        String name = type.getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Creates new serializer provider with default serializers and serialization
+     * rules provided by Paklet.
+     *
+     * @return default serializer provider
+     */
+    public static SerializerProvider createDefaultSerializerProvider() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+        return serializerProvider;
+    }
+
 }
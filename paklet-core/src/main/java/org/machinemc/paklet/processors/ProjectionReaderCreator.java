@@ -0,0 +1,290 @@
+package org.machinemc.paklet.processors;
+
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.utils.ConverterVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.*;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Creates readers of packet projections, classes that declare only a subset
+ * of the serializable fields of a packet.
+ * <p>
+ * Projection fields are matched with the packet fields by their name and must
+ * have the same type. The generated reader is a hidden class, defined as a nestmate
+ * of the projection class, that deserializes projected fields using serializers of
+ * the packet fields and skips all other fields, so the reader leaves the data visitor
+ * positioned after the whole packet.
+ * <p>
+ * {@link PacketReader#skip(SerializerContext, DataVisitor)} of the created readers
+ * skips the whole packet.
+ * <p>
+ * Same as for packets, projections that are records or have final fields are created
+ * using constructor accepting all serializable fields, other projections need to have
+ * a no-args constructor.
+ */
+public class ProjectionReaderCreator {
+
+    private final SerializerProvider serializerProvider;
+
+    /**
+     * Creates new projection reader creator with serializer provider that contains
+     * default serializers and serialization rules provided by Paklet.
+     */
+    public ProjectionReaderCreator() {
+        this(ProcessorsUtil.createDefaultSerializerProvider());
+    }
+
+    /**
+     * Creates new projection reader creator.
+     *
+     * @param serializerProvider serializer provider used to resolve serializers of packet fields
+     */
+    public ProjectionReaderCreator(SerializerProvider serializerProvider) {
+        this.serializerProvider = serializerProvider;
+    }
+
+    /**
+     * Creates new reader that reads the projection from the serialized packet.
+     *
+     * @param projection projection class
+     * @param packet class of the projected packet
+     * @return reader of the projection
+     * @param <T> projection
+     *
+     * @throws IllegalArgumentException if the projection declares field that is missing in the packet
+     * @throws UnsupportedOperationException if reader can not be created for the projection class
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PacketReader<T> create(Class<T> projection, Class<?> packet) {
+        if (!ProcessorsUtil.supportsHiddenCodecs(projection))
+            throw new UnsupportedOperationException("Projection reader can not be created for " + projection.getName());
+        Map<String, Field> packetFields = new HashMap<>();
+        ProcessorsUtil.collectSerializableFields(packet).forEach(field -> packetFields.put(field.getName(), field));
+        for (Field field : ProcessorsUtil.collectSerializableFields(projection)) {
+            Field packetField = packetFields.get(field.getName());
+            if (packetField == null || !packetField.getGenericType().equals(field.getGenericType()))
+                throw new IllegalArgumentException("Projection " + projection.getName() + " declares field "
+                        + field.getName() + " that is missing in packet " + packet.getName());
+        }
+        try {
+            Class<?> created = createProjectionReaderClass(projection, packet);
+            return (PacketReader<T>) created.getConstructor(SerializerProvider.class).newInstance(serializerProvider);
+        } catch (Exception exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private Class<?> createProjectionReaderClass(Class<?> projection, Class<?> packet) throws IllegalAccessException {
+        List<Field> fields = ProcessorsUtil.collectSerializableFields(packet);
+        List<Field> projected = ProcessorsUtil.collectSerializableFields(projection);
+        Map<String, Integer> projectedIndices = new HashMap<>();
+        for (int i = 0; i < projected.size(); i++)
+            projectedIndices.put(projected.get(i).getName(), i);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+
+        Type packetType = Type.getType(packet);
+        Type projectionType = Type.getType(projection);
+        Type readerType = Type.getObjectType(projectionType.getInternalName() + "_PROJECTION_READER");
+
+        writer.visit(
+                V21,
+                ACC_PUBLIC | ACC_FINAL,
+                readerType.getInternalName(),
+                "L" + Type.getType(PacketReader.class).getInternalName() + "<" + projectionType.getDescriptor() + ">;",
+                Type.getType(Object.class).getInternalName(),
+                new String[] {Type.getType(PacketReader.class).getInternalName()}
+        );
+
+        for (Field field : fields) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$CONTEXT_" + field.getName(),
+                    Type.getDescriptor(SerializerContext.class),
+                    null,
+                    null
+            ).visitEnd();
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$SERIALIZER_" + field.getName(),
+                    Type.getDescriptor(ProcessorsUtil.getSerializerType(field.getType())),
+                    null,
+                    null
+            ).visitEnd();
+        }
+        boolean fixedLayout = ProcessorsUtil.getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) {
+            writer.visitField(
+                    ACC_PRIVATE | ACC_FINAL,
+                    "$FIXED_LAYOUT",
+                    Type.BOOLEAN_TYPE.getDescriptor(),
+                    null,
+                    null
+            ).visitEnd();
+        }
+
+        MethodVisitor methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerProvider.class)),
+                null,
+                new String[0]
+        );
+        methodVisitor.visitVarInsn(ALOAD, 0);
+        methodVisitor.visitMethodInsn(
+                INVOKESPECIAL,
+                Type.getInternalName(Object.class),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE),
+                false
+        );
+        for (Field field : fields)
+            ProcessorsUtil.visitFieldSerializerInitialization(methodVisitor, readerType, packetType, field);
+        if (fixedLayout)
+            ProcessorsUtil.visitFixedLayoutInitialization(methodVisitor, readerType, packetType);
+        methodVisitor.visitInsn(RETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "read",
+                Type.getMethodDescriptor(
+                        Type.getType(Object.class),
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        boolean immutable = ProcessorsUtil.isImmutablePacketClass(projection);
+        if (!immutable) {
+            methodVisitor.visitTypeInsn(NEW, projectionType.getInternalName());
+            methodVisitor.visitInsn(DUP);
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    projectionType.getInternalName(),
+                    "<init>",
+                    Type.getMethodDescriptor(Type.VOID_TYPE),
+                    false
+            );
+            methodVisitor.visitVarInsn(ASTORE, 3);
+        }
+        // immutable projections keep the field values in local variables until the constructor is called
+        int[] locals = new int[projected.size()];
+        int nextLocal = 3;
+        for (Field field : fields) {
+            Class<?> serializerType = ProcessorsUtil.getSerializerType(field.getType());
+            Integer index = projectedIndices.get(field.getName());
+            if (index == null) {
+                methodVisitor.visitVarInsn(ALOAD, 0);
+                methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+                methodVisitor.visitVarInsn(ALOAD, 0);
+                methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+                methodVisitor.visitVarInsn(ALOAD, 2);
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "skip",
+                        Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(SerializerContext.class), Type.getType(DataVisitor.class)),
+                        true
+                );
+                continue;
+            }
+            Type fieldType = Type.getType(field.getType());
+            if (!immutable) methodVisitor.visitVarInsn(ALOAD, 3);
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$SERIALIZER_" + field.getName(), Type.getDescriptor(serializerType));
+            methodVisitor.visitVarInsn(ALOAD, 0);
+            methodVisitor.visitFieldInsn(GETFIELD, readerType.getInternalName(), "$CONTEXT_" + field.getName(), Type.getDescriptor(SerializerContext.class));
+            methodVisitor.visitVarInsn(ALOAD, 2);
+            if (serializerType != Serializer.class) {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(serializerType),
+                        "deserialize" + ProcessorsUtil.getPrimitiveSuffix(field.getType()),
+                        Type.getMethodDescriptor(
+                                fieldType,
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+            } else {
+                methodVisitor.visitMethodInsn(
+                        INVOKEINTERFACE,
+                        Type.getInternalName(Serializer.class),
+                        "deserialize",
+                        Type.getMethodDescriptor(
+                                Type.getType(Object.class),
+                                Type.getType(SerializerContext.class),
+                                Type.getType(DataVisitor.class)
+                        ),
+                        true
+                );
+                ConverterVisitor.convertTopObject(methodVisitor, fieldType);
+            }
+            if (!immutable) {
+                methodVisitor.visitFieldInsn(PUTFIELD, projectionType.getInternalName(), field.getName(), fieldType.getDescriptor());
+                continue;
+            }
+            locals[index] = nextLocal;
+            methodVisitor.visitVarInsn(fieldType.getOpcode(ISTORE), nextLocal);
+            nextLocal += fieldType.getSize();
+        }
+        if (immutable) {
+            Constructor<?> constructor = Objects.requireNonNull(ProcessorsUtil.findFieldsConstructor(projection));
+            methodVisitor.visitTypeInsn(NEW, projectionType.getInternalName());
+            methodVisitor.visitInsn(DUP);
+            for (int i = 0; i < projected.size(); i++)
+                methodVisitor.visitVarInsn(Type.getType(projected.get(i).getType()).getOpcode(ILOAD), locals[i]);
+            methodVisitor.visitMethodInsn(
+                    INVOKESPECIAL,
+                    projectionType.getInternalName(),
+                    "<init>",
+                    Type.getConstructorDescriptor(constructor),
+                    false
+            );
+        } else {
+            methodVisitor.visitVarInsn(ALOAD, 3);
+        }
+        methodVisitor.visitInsn(ARETURN);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        methodVisitor = writer.visitMethod(
+                ACC_PUBLIC,
+                "skip",
+                Type.getMethodDescriptor(
+                        Type.VOID_TYPE,
+                        Type.getType(SerializerContext.class),
+                        Type.getType(DataVisitor.class)
+                ),
+                null,
+                new String[0]
+        );
+        ProcessorsUtil.visitSkip(methodVisitor, readerType, fields);
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+
+        writer.visitEnd();
+
+        return MethodHandles
+                .privateLookupIn(projection, MethodHandles.lookup())
+                .defineHiddenClass(writer.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                .lookupClass();
+    }
+
+}
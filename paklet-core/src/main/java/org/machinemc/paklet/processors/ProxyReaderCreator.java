@@ -13,8 +13,10 @@ import java.util.Objects;
 /**
  * Reader creator that uses reflection and proxy.
  * <p>
- * This is the default provided reader for packets that do not implement custom serialization logic
- * and were not modified by the Paklet plugin.
+ * This is the fallback reader for packets that do not implement custom serialization logic,
+ * were not modified by the Paklet plugin, and do not support hidden readers.
+ *
+ * @see ProcessorsUtil#supportsHiddenCodecs(Class)
  */
 public class ProxyReaderCreator implements ReaderCreator {
 
@@ -43,6 +45,14 @@ public class ProxyReaderCreator implements ReaderCreator {
                 SerializerContext context = (SerializerContext) args[0];
                 DataVisitor visitor = (DataVisitor) args[1];
 
+                if (method.getName().equals("skip")) {
+                    for (Field field : fields) {
+                        SerializerContext fieldContext = ProcessorsUtil.createContextForField(context, packet, field.getName());
+                        fieldContext.serializeWith().skip(fieldContext, visitor);
+                    }
+                    return null;
+                }
+
                 T instance = constructor.newInstance();
                 for (Field field : fields) {
                     Object value = ProcessorsUtil.getValueForField(context, visitor, packet, field.getName());
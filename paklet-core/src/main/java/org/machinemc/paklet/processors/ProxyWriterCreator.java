@@ -12,8 +12,10 @@ import java.util.Objects;
 /**
  * Writer creator that uses reflection and proxy.
  * <p>
- * This is the default provided writer for packets that do not implement custom serialization logic
- * and were not modified by the Paklet plugin.
+ * This is the fallback writer for packets that do not implement custom serialization logic,
+ * were not modified by the Paklet plugin, and do not support hidden writers.
+ *
+ * @see ProcessorsUtil#supportsHiddenCodecs(Class)
  */
 public class ProxyWriterCreator implements WriterCreator {
 
@@ -38,6 +40,17 @@ public class ProxyWriterCreator implements WriterCreator {
                 }
 
                 SerializerContext context = (SerializerContext) args[0];
+
+                if (method.getName().equals("sizeOf")) {
+                    T instance = (T) args[1];
+                    long size = 0;
+                    for (Field field : fields) {
+                        SerializerContext fieldContext = ProcessorsUtil.createContextForField(context, packet, field.getName());
+                        size += fieldContext.serializeWith().sizeOf(fieldContext, field.get(instance));
+                    }
+                    return (int) Math.min(Integer.MAX_VALUE, size);
+                }
+
                 DataVisitor visitor = (DataVisitor) args[1];
                 T instance = (T) args[2];
 
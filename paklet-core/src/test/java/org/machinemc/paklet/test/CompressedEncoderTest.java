@@ -0,0 +1,133 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+public class CompressedEncoderTest {
+
+    private final SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+    private final SerializerContext context = new SerializerContext(null, serializerProvider);
+    private final PacketWriter<PlainPacket> writer = new HiddenWriterCreator(serializerProvider).create(PlainPacket.class);
+    private final PacketReader<PlainPacket> reader = new HiddenReaderCreator(serializerProvider).create(PlainPacket.class);
+
+    @Test
+    public void compressionTest() {
+        PacketEncoder encoder = PacketEncoder.compressed(PacketEncoder.varInt(), 256);
+
+        NettyDataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(visitor, serializerProvider, "group", 1, writer, context, new PlainPacket(1, "Small", new byte[16]));
+        int small = visitor.writerIndex();
+        // three bytes of frame length, zero data length, packet ID and the packet
+        assert visitor.getByteBuf().getByte(3) == 0;
+        encoder.encode(visitor, serializerProvider, "group", 2, writer, context, new PlainPacket(2, "Large", new byte[10_000]));
+        assert visitor.writerIndex() - small < 1000;
+
+        DataVisitor packetData = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(context, packetData, new PlainPacket(3, "Buffered", new byte[1000]));
+        encoder.encode(visitor, serializerProvider, "group", new PacketEncoder.Encoded(3, packetData));
+
+        PacketEncoder.Encoded first = encoder.decode(visitor, serializerProvider, "group");
+        assert first.packetID() == 1;
+        assert reader.read(context, first.packetData()).getData().length == 16;
+        PacketEncoder.Encoded second = encoder.decode(visitor, serializerProvider, "group");
+        assert second.packetID() == 2;
+        PlainPacket large = reader.read(context, second.packetData());
+        assert large.getName().equals("Large") && large.getData().length == 10_000;
+        PacketEncoder.Encoded third = encoder.decode(visitor, serializerProvider, "group");
+        assert third.packetID() == 3;
+        assert reader.read(context, third.packetData()).getName().equals("Buffered");
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void sharedZlibTest() {
+        PacketEncoder stored = PacketEncoder.compressed(PacketEncoder.varInt(), 256, Deflater.NO_COMPRESSION);
+        PacketEncoder best = PacketEncoder.compressed(PacketEncoder.varInt(), 256, Deflater.BEST_COMPRESSION);
+        byte[] random = new byte[200_000];
+        new Random(0).nextBytes(random);
+
+        NettyDataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        // output of incompressible data exceeds the reused buffer
+        stored.encode(visitor, serializerProvider, "group", 1, writer, context, new PlainPacket(1, "Random", random));
+        int first = visitor.writerIndex();
+        best.encode(visitor, serializerProvider, "group", 2, writer, context, new PlainPacket(2, "Zeros", new byte[10_000]));
+        stored.encode(visitor, serializerProvider, "group", 3, writer, context, new PlainPacket(3, "Zeros", new byte[10_000]));
+        // encoders using the same deflater keep their compression levels
+        assert visitor.writerIndex() - first > 10_000;
+
+        assert Arrays.equals(reader.read(context, best.decode(visitor, serializerProvider, "group").packetData()).getData(), random);
+        assert reader.read(context, stored.decode(visitor, serializerProvider, "group").packetData()).getData().length == 10_000;
+        assert reader.read(context, best.decode(visitor, serializerProvider, "group").packetData()).getData().length == 10_000;
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void zlibCompatibilityTest() {
+        VarIntSerializer varInt = new VarIntSerializer();
+        byte[] data = new byte[500];
+        Arrays.fill(data, (byte) 1);
+        data[0] = 5; // packet ID
+
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] compressed = new byte[1024];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        varInt.serializeInt(context, visitor, varInt.sizeOfInt(context, data.length) + length);
+        varInt.serializeInt(context, visitor, data.length);
+        visitor.writeBytes(Arrays.copyOf(compressed, length));
+
+        PacketEncoder.Encoded encoded = PacketEncoder.compressed(PacketEncoder.varInt(), 256).decode(visitor, serializerProvider, "group");
+        assert encoded.packetID() == 5;
+        assert Arrays.equals(encoded.packetData().finish(), Arrays.copyOfRange(data, 1, data.length));
+    }
+
+    @Test
+    public void invalidFrameTest() {
+        PacketEncoder encoder = PacketEncoder.compressed(PacketEncoder.varInt(), 256);
+
+        // data shorter than the threshold should not be compressed
+        DataVisitor belowThreshold = new NettyDataVisitor(Unpooled.buffer());
+        belowThreshold.writeByte((byte) 3).writeByte((byte) 10).writeBytes(new byte[2]);
+        try {
+            encoder.decode(belowThreshold, serializerProvider, "group");
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // compressed data shorter than declared
+        DataVisitor invalid = new NettyDataVisitor(Unpooled.buffer());
+        invalid.writeByte((byte) 4).writeByte((byte) 0x80).writeByte((byte) 0x04).writeBytes(new byte[2]);
+        try {
+            encoder.decode(invalid, serializerProvider, "group");
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        try {
+            PacketEncoder.compressed(PacketEncoder.varInt(), 256, 10);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+}
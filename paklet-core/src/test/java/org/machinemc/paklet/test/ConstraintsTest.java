@@ -0,0 +1,56 @@
+package org.machinemc.paklet.test;
+
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.metadata.FixedLength;
+import org.machinemc.paklet.metadata.Length;
+import org.machinemc.paklet.metadata.Range;
+import org.machinemc.paklet.serialization.Constraints;
+
+public class ConstraintsTest {
+
+    private int plain;
+    private @Range(min = 0, max = 10, inclusive = true) int ranged;
+    private @Length(max = 4) String limited;
+    private int @FixedLength(2) [] fixed;
+
+    @Test
+    public void unconstrainedTest() throws NoSuchFieldException {
+        assert constraints("plain") == Constraints.NONE;
+        Constraints.NONE.checkRange(Long.MAX_VALUE);
+        Constraints.NONE.checkLength(Integer.MAX_VALUE);
+        assert Constraints.NONE.isPrefixed();
+        assert Constraints.NONE.getFixedLength() == -1;
+    }
+
+    @Test
+    public void constrainedTest() throws NoSuchFieldException {
+        Constraints ranged = constraints("ranged");
+        ranged.checkRange(10);
+        try {
+            ranged.checkRange(11);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        Constraints limited = constraints("limited");
+        limited.checkLength(4);
+        try {
+            limited.checkLength(5);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        Constraints fixed = constraints("fixed");
+        assert fixed.getFixedLength() == 2;
+        try {
+            fixed.checkLength(3);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static Constraints constraints(String field) throws NoSuchFieldException {
+        return Constraints.of(ConstraintsTest.class.getDeclaredField(field).getAnnotatedType());
+    }
+
+}
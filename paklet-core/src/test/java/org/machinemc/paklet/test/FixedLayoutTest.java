@@ -0,0 +1,181 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.metadata.Range;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.GeneratedReaderCreator;
+import org.machinemc.paklet.processors.GeneratedWriterCreator;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.test.packet.FixedLayoutPacket;
+
+import java.util.Arrays;
+
+public class FixedLayoutTest {
+
+    @Test
+    public void layoutDetectionTest() {
+        assert ProcessorsUtil.getFixedLayoutSize(ProcessorsUtil.collectSerializableFields(FixedLayoutPacket.class)) == 30;
+        assert ProcessorsUtil.isFixedLayout(ProcessorsUtil.createDefaultSerializerProvider(), FixedLayoutPacket.class);
+        assert ProcessorsUtil.isFixedLayout(ProcessorsUtil.createDefaultSerializerProvider(), Position.class);
+        assert !ProcessorsUtil.isFixedLayout(ProcessorsUtil.createDefaultSerializerProvider(), RangePacket.class);
+    }
+
+    @Test
+    public void fixedLayoutTest() {
+        PacketReader<FixedLayoutPacket> reader = new HiddenReaderCreator().create(FixedLayoutPacket.class);
+        PacketWriter<FixedLayoutPacket> writer = new HiddenWriterCreator().create(FixedLayoutPacket.class);
+
+        FixedLayoutPacket packet = new FixedLayoutPacket();
+        packet.onGround = true;
+        packet.flags = -3;
+        packet.slot = 300;
+        packet.symbol = 'ř';
+        packet.entityID = 123456;
+        packet.timestamp = Long.MIN_VALUE + 1;
+        packet.yaw = 90.5f;
+        packet.x = -1024.25;
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.writeByte((byte) 7);
+        writer.write(null, visitor, packet);
+        assert visitor.writerIndex() == 31;
+
+        // the fixed layout has to match the layout written using the data visitor
+        DataVisitor delegated = new NettyDataVisitor(Unpooled.buffer());
+        delegated.writeByte((byte) 7);
+        writer.write(null, delegated.writeOnly(), packet);
+        assert Arrays.equals(visitor.bytes(), delegated.bytes());
+
+        assert visitor.readByte() == 7;
+        FixedLayoutPacket read = reader.read(null, visitor);
+        assert visitor.readerIndex() == 31;
+        assert read.onGround == packet.onGround;
+        assert read.flags == packet.flags;
+        assert read.slot == packet.slot;
+        assert read.symbol == packet.symbol;
+        assert read.entityID == packet.entityID;
+        assert read.timestamp == packet.timestamp;
+        assert read.yaw == packet.yaw;
+        assert read.x == packet.x;
+    }
+
+    @Test
+    public void fixedLayoutRecordTest() {
+        PacketReader<Position> reader = new HiddenReaderCreator().create(Position.class);
+        PacketWriter<Position> writer = new HiddenWriterCreator().create(Position.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        Position position = new Position(1.5, -64, 300.25);
+        writer.write(null, visitor, position);
+        assert reader.read(null, visitor).equals(position);
+    }
+
+    @Test
+    public void generatedFixedLayoutTest() {
+        PacketReader<ExpandedRotation> reader = new GeneratedReaderCreator().create(ExpandedRotation.class);
+        PacketWriter<ExpandedRotation> writer = new GeneratedWriterCreator().create(ExpandedRotation.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        ExpandedRotation rotation = new ExpandedRotation();
+        rotation.yaw = 45;
+        rotation.pitch = -30;
+        writer.write(null, visitor, rotation);
+        assert visitor.writerIndex() == 8;
+        ExpandedRotation read = reader.read(null, visitor);
+        assert read.yaw == rotation.yaw;
+        assert read.pitch == rotation.pitch;
+    }
+
+    @Test
+    public void defaultCodecsFixedLayoutTest() {
+        SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+        PacketReader<FixedLayoutPacket> reader = ProcessorsUtil.getDefaultReaderCreator(FixedLayoutPacket.class, serializerProvider)
+                .create(FixedLayoutPacket.class);
+        PacketWriter<FixedLayoutPacket> writer = ProcessorsUtil.getDefaultWriterCreator(FixedLayoutPacket.class, serializerProvider)
+                .create(FixedLayoutPacket.class);
+
+        FixedLayoutPacket packet = new FixedLayoutPacket();
+        packet.entityID = 42;
+        packet.x = 0.5;
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, packet);
+        assert visitor.writerIndex() == 30;
+        FixedLayoutPacket read = reader.read(null, visitor);
+        assert read.entityID == packet.entityID;
+        assert read.x == packet.x;
+
+        // packets using the fixed layout are read as whole or not at all
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.writeBytes(new byte[29]);
+        try {
+            reader.read(null, visitor);
+            assert false;
+        } catch (IndexOutOfBoundsException ignored) { }
+        assert visitor.readerIndex() == 0;
+    }
+
+    @Test
+    public void boundsCheckTest() {
+        PacketReader<Position> reader = new HiddenReaderCreator().create(Position.class);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.writeDouble(1).writeDouble(2);
+        try {
+            reader.read(null, visitor);
+            assert false;
+        } catch (IndexOutOfBoundsException ignored) { }
+        assert visitor.readerIndex() == 0;
+    }
+
+    @Test
+    public void constrainedFieldTest() {
+        PacketWriter<RangePacket> writer = new HiddenWriterCreator().create(RangePacket.class);
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        RangePacket packet = new RangePacket();
+        packet.value = 20;
+        try {
+            writer.write(context, new NettyDataVisitor(Unpooled.buffer()), packet);
+            assert false;
+        } catch (IllegalArgumentException ignored) { }
+    }
+
+    record Position(double x, double y, double z) {
+    }
+
+    public static class ExpandedRotation {
+
+        public float yaw;
+        public float pitch;
+
+        public float $GET_yaw() {
+            return yaw;
+        }
+
+        public void $SET_yaw(float yaw) {
+            this.yaw = yaw;
+        }
+
+        public float $GET_pitch() {
+            return pitch;
+        }
+
+        public void $SET_pitch(float pitch) {
+            this.pitch = pitch;
+        }
+
+    }
+
+    static class RangePacket {
+
+        @Range(min = 0, max = 10, inclusive = true) int value;
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+import java.util.Arrays;
+
+public class FramedEncoderTest {
+
+    private final SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+    private final SerializerContext context = new SerializerContext(null, serializerProvider);
+
+    @Test
+    public void framedTest() {
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator(serializerProvider).create(PlainPacket.class);
+        PacketReader<PlainPacket> reader = new HiddenReaderCreator(serializerProvider).create(PlainPacket.class);
+        PacketEncoder encoder = PacketEncoder.framed();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(visitor, serializerProvider, "group", 1, writer, context, new PlainPacket(1, "Foo", new byte[300]));
+        DataVisitor packetData = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(context, packetData, new PlainPacket(2, "Bar", new byte[0]));
+        encoder.encode(visitor, serializerProvider, "group", new PacketEncoder.Encoded(2, packetData));
+
+        PacketEncoder.Encoded first = encoder.decode(visitor, serializerProvider, "group");
+        assert first.packetID() == 1;
+        PlainPacket packet = reader.read(context, first.packetData());
+        assert packet.getName().equals("Foo") && packet.getData().length == 300;
+        assert first.packetData().readerIndex() == first.packetData().writerIndex();
+
+        PacketEncoder.Encoded second = encoder.decode(visitor, serializerProvider, "group");
+        assert second.packetID() == 2;
+        assert reader.read(context, second.packetData()).getName().equals("Bar");
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void lengthBackpatchTest() {
+        PacketEncoder encoder = PacketEncoder.framed();
+        byte[] data = new byte[200];
+        Arrays.fill(data, (byte) 7);
+
+        // size is underestimated, the frame is shifted once
+        DataVisitor shifted = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(shifted, serializerProvider, "group", 3, writer(data, 1), context, data);
+        assert shifted.writerIndex() == 2 + 1 + data.length;
+        assertFrame(encoder.decode(shifted, serializerProvider, "group"), data);
+
+        // size is overestimated, the length is padded
+        DataVisitor padded = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(padded, serializerProvider, "group", 3, writer(data, 100_000), context, data);
+        assert padded.writerIndex() == 3 + 1 + data.length;
+        assertFrame(encoder.decode(padded, serializerProvider, "group"), data);
+
+        // size is unknown
+        DataVisitor unknown = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(unknown, serializerProvider, "group", 3, writer(data, 0), context, data);
+        assertFrame(encoder.decode(unknown, serializerProvider, "group"), data);
+    }
+
+    @Test
+    public void frameBoundsTest() {
+        PacketEncoder encoder = PacketEncoder.framed(16);
+        byte[] data = new byte[32];
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        try {
+            encoder.encode(visitor, serializerProvider, "group", 3, writer(data, data.length), context, data);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+        assert visitor.writerIndex() == 0;
+
+        // frame longer than the maximum length
+        visitor.writeByte((byte) 32).writeBytes(data);
+        try {
+            encoder.decode(visitor, serializerProvider, "group");
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        // incomplete frame
+        DataVisitor incomplete = new NettyDataVisitor(Unpooled.buffer());
+        incomplete.writeByte((byte) 10);
+        incomplete.writeBytes(new byte[4]);
+        try {
+            encoder.decode(incomplete, serializerProvider, "group");
+            assert false;
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+
+        // packet ID that does not fit the frame
+        DataVisitor overflow = new NettyDataVisitor(Unpooled.buffer());
+        overflow.writeByte((byte) 1);
+        overflow.writeBytes(new byte[] {(byte) 0x80, 0x01});
+        try {
+            encoder.decode(overflow, serializerProvider, "group");
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private static PacketWriter<byte[]> writer(byte[] data, int size) {
+        return new PacketWriter<>() {
+            @Override
+            public void write(SerializerContext context, DataVisitor dataVisitor, byte[] packet) {
+                dataVisitor.writeBytes(packet);
+            }
+
+            @Override
+            public int sizeOf(SerializerContext context, byte[] packet) {
+                return size;
+            }
+        };
+    }
+
+    private static void assertFrame(PacketEncoder.Encoded encoded, byte[] data) {
+        assert encoded.packetID() == 3;
+        assert Arrays.equals(encoded.packetData().finish(), data);
+    }
+
+}
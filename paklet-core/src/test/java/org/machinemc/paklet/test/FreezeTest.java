@@ -0,0 +1,73 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketGroupHandle;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.Serializers;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+import org.machinemc.paklet.test.packet.FinalFieldsPacket;
+import org.machinemc.paklet.test.packet.TestPacket;
+
+import java.util.List;
+
+public class FreezeTest {
+
+    @Test
+    public void frozenProviderTest() {
+        SerializerProvider provider = new SerializerProviderImpl();
+        provider.addSerializers(DefaultSerializers.class);
+        provider.addSerializationRules(DefaultSerializationRules.class);
+
+        SerializerProvider frozen = provider.freeze();
+        assert frozen.freeze() == frozen;
+        assert frozen.getFor(String.class) instanceof Serializers.String;
+        assert frozen.getFor(List.class) != null;
+        assert frozen.getRegisteredSerializers().size() == provider.getRegisteredSerializers().size();
+
+        provider.removeSerializer(Serializers.String.class);
+        assert frozen.getFor(String.class) instanceof Serializers.String;
+
+        try {
+            frozen.addSerializer(Serializers.String.class);
+            assert false;
+        } catch (UnsupportedOperationException ignored) {
+        }
+    }
+
+    @Test
+    public void frozenFactoryTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        PacketFactory frozen = factory.freeze();
+        assert frozen.freeze() == frozen;
+
+        PacketGroupHandle handle = frozen.getGroupHandle(Packet.DEFAULT);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        frozen.write(new FinalFieldsPacket(1, "Foo"), handle, visitor);
+        FinalFieldsPacket packet = frozen.create(handle, visitor);
+        assert packet.name.equals("Foo");
+
+        factory.removePacket(FinalFieldsPacket.class);
+        assert !factory.isRegistered(FinalFieldsPacket.class, Packet.DEFAULT);
+        assert frozen.isRegistered(FinalFieldsPacket.class, Packet.DEFAULT);
+
+        try {
+            frozen.addPacket(TestPacket.class);
+            assert false;
+        } catch (UnsupportedOperationException ignored) {
+        }
+        try {
+            frozen.getGroupHandle("missing");
+            assert false;
+        } catch (NullPointerException ignored) {
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.test.packet.PlainPacket;
+import org.machinemc.paklet.test.packet.TestCustomLogicCustomPacket;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+public class HiddenCodecTest {
+
+    @Test
+    public void supportTest() {
+        assert ProcessorsUtil.supportsHiddenCodecs(PlainPacket.class);
+        assert !ProcessorsUtil.supportsHiddenCodecs(TestCustomLogicCustomPacket.class);
+        assert !ProcessorsUtil.supportsHiddenCodecs(FinalFieldPacket.class);
+    }
+
+    @Test
+    public void hiddenCodecTest() {
+        PacketReader<PlainPacket> reader = new HiddenReaderCreator().create(PlainPacket.class);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator().create(PlainPacket.class);
+
+        assert reader.getClass().isHidden();
+        assert writer.getClass().isHidden();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        PlainPacket packet = new PlainPacket(10, "Foo", new byte[] {1, 2, 3});
+        writer.write(null, visitor, packet);
+        PlainPacket packetClone = reader.read(null, visitor);
+
+        assert packetClone.getValue() == packet.getValue();
+        assert Objects.equals(packetClone.getName(), packet.getName());
+        assert Arrays.equals(packetClone.getData(), packet.getData());
+    }
+
+    static class FinalFieldPacket {
+
+        final int value = 0;
+
+    }
+
+}
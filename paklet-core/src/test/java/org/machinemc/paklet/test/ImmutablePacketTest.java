@@ -0,0 +1,45 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.test.packet.FinalFieldsPacket;
+import org.machinemc.paklet.test.packet.RecordPacket;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ImmutablePacketTest {
+
+    @Test
+    public void recordTest() {
+        PacketFactory factory = TestUtil.createFactory();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        RecordPacket packet = new RecordPacket(300, Long.MIN_VALUE, (byte) 7, "Foo", List.of("Hello", "World"));
+        factory.write(packet, Packet.DEFAULT, visitor);
+        RecordPacket packetClone = factory.create(Packet.DEFAULT, visitor);
+
+        assert packet.equals(packetClone);
+    }
+
+    @Test
+    public void finalFieldsTest() {
+        PacketFactory factory = TestUtil.createFactory();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        FinalFieldsPacket packet = new FinalFieldsPacket(2.5, "Foo");
+        factory.write(packet, Packet.DEFAULT, visitor);
+        FinalFieldsPacket packetClone = factory.create(Packet.DEFAULT, visitor);
+
+        assert packetClone.value == packet.value;
+        assert Objects.equals(packetClone.name, packet.name);
+        assert packetClone.ignored == 5;
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+import java.util.Arrays;
+
+public class PacketEncoderTest {
+
+    @Test
+    public void directEncodeTest() {
+        SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator(serializerProvider).create(PlainPacket.class);
+        PlainPacket packet = new PlainPacket(10, "Foo", new byte[] {1, 2, 3});
+        PacketEncoder encoder = PacketEncoder.varInt();
+
+        DataVisitor direct = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(direct, serializerProvider, "group", 300, writer, context, packet);
+
+        DataVisitor packetData = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(context, packetData, packet);
+        DataVisitor buffered = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(buffered, serializerProvider, "group", new PacketEncoder.Encoded(300, packetData));
+
+        assert Arrays.equals(direct.bytes(), buffered.bytes());
+        PacketEncoder.Encoded decoded = encoder.decode(direct, serializerProvider, "group");
+        assert decoded.packetID() == 300;
+    }
+
+    @Test
+    public void inPlaceDecodeTest() {
+        SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator(serializerProvider).create(PlainPacket.class);
+        PacketReader<PlainPacket> reader = new HiddenReaderCreator(serializerProvider).create(PlainPacket.class);
+        PacketEncoder encoder = PacketEncoder.varInt();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(visitor, serializerProvider, "group", 1, writer, context, new PlainPacket(1, "Foo", new byte[0]));
+        encoder.encode(visitor, serializerProvider, "group", 2, writer, context, new PlainPacket(2, "Bar", new byte[0]));
+
+        PacketEncoder.Encoded first = encoder.decode(visitor, serializerProvider, "group");
+        assert first.packetData() == visitor;
+        assert first.packetID() == 1 && reader.read(context, first.packetData()).getName().equals("Foo");
+        PacketEncoder.Encoded second = encoder.decode(visitor, serializerProvider, "group");
+        assert second.packetID() == 2 && reader.read(context, second.packetData()).getName().equals("Bar");
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void defaultEncodeTest() {
+        SerializerProvider serializerProvider = ProcessorsUtil.createDefaultSerializerProvider();
+        SerializerContext context = new SerializerContext(null, serializerProvider);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator(serializerProvider).create(PlainPacket.class);
+        PacketEncoder varInt = PacketEncoder.varInt();
+        // encoder that does not support writing packets directly
+        PacketEncoder encoder = new PacketEncoder() {
+            @Override
+            public void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded) {
+                varInt.encode(target, serializerProvider, group, encoded);
+            }
+
+            @Override
+            public Encoded decode(DataVisitor source, SerializerProvider serializerProvider, String group) {
+                return varInt.decode(source, serializerProvider, group);
+            }
+        };
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        encoder.encode(visitor, serializerProvider, "group", 5, writer, context, new PlainPacket(10, "Foo", new byte[0]));
+        assert encoder.decode(visitor, serializerProvider, "group").packetID() == 5;
+    }
+
+}
@@ -0,0 +1,71 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.PacketGroupDecoder;
+import org.machinemc.paklet.processors.PacketGroupDecoderCreator;
+import org.machinemc.paklet.test.packet.FinalFieldsPacket;
+
+import java.util.Map;
+
+public class PacketGroupDecoderTest {
+
+    @Test
+    public void denseDecoderTest() {
+        PacketReader<Integer> first = (context, visitor) -> 1;
+        PacketReader<Integer> second = (context, visitor) -> 2;
+        PacketGroupDecoder decoder = PacketGroupDecoderCreator.create("dense", Map.of(0, first, 1, second, 3, first));
+        assert decoder.read(0, null, null).equals(1);
+        assert decoder.read(1, null, null).equals(2);
+        assert decoder.read(3, null, null).equals(1);
+        assertMissing(decoder, 2);
+        assertMissing(decoder, 4);
+    }
+
+    @Test
+    public void sparseDecoderTest() {
+        PacketReader<Integer> first = (context, visitor) -> 1;
+        PacketReader<Integer> second = (context, visitor) -> 2;
+        PacketGroupDecoder decoder = PacketGroupDecoderCreator.create("sparse", Map.of(5, first, 1000, second));
+        assert decoder.read(5, null, null).equals(1);
+        assert decoder.read(1000, null, null).equals(2);
+        assertMissing(decoder, 6);
+    }
+
+    @Test
+    public void emptyDecoderTest() {
+        assertMissing(PacketGroupDecoderCreator.create("empty", Map.of()), 0);
+    }
+
+    @Test
+    public void rebuiltDecoderTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), Packet.DEFAULT, visitor);
+        FinalFieldsPacket packet = factory.create(Packet.DEFAULT, visitor);
+        assert packet.name.equals("Foo");
+
+        factory.removePacket(FinalFieldsPacket.class);
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.writeByte((byte) 14);
+        try {
+            factory.create(Packet.DEFAULT, visitor);
+            assert false;
+        } catch (NullPointerException ignored) {
+        }
+    }
+
+    private static void assertMissing(PacketGroupDecoder decoder, int packetID) {
+        try {
+            decoder.read(packetID, null, null);
+            assert false;
+        } catch (NullPointerException ignored) {
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketGroupHandle;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.test.packet.FinalFieldsPacket;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+public class PacketGroupHandleTest {
+
+    @Test
+    public void handleTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        PacketGroupHandle handle = factory.getGroupHandle(Packet.DEFAULT);
+        assert handle == factory.getGroupHandle(Packet.DEFAULT);
+        assert handle.getName().equals(Packet.DEFAULT);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), handle, visitor);
+        FinalFieldsPacket packet = factory.create(handle, visitor);
+        assert packet.name.equals("Foo");
+    }
+
+    @Test
+    public void handleBeforeRegistrationTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        PacketGroupHandle handle = factory.getGroupHandle("later");
+        factory.addPacket(PlainPacket.class, new HiddenReaderCreator().create(PlainPacket.class), new HiddenWriterCreator().create(PlainPacket.class), 0, "later");
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new PlainPacket(1, "Foo", new byte[0]), handle, visitor);
+        PlainPacket packet = factory.create(handle, visitor);
+        assert packet.getName().equals("Foo");
+    }
+
+    @Test
+    public void foreignHandleTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        PacketGroupHandle handle = TestUtil.createFactory().getGroupHandle(Packet.DEFAULT);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), handle, visitor);
+        FinalFieldsPacket packet = factory.create(handle, visitor);
+        assert packet.name.equals("Foo");
+    }
+
+}
@@ -0,0 +1,56 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.test.packet.FixedLayoutPacket;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+public class PacketGroupTest {
+
+    @Test
+    public void denseAndSparseTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        factory.addPacket(PlainPacket.class, new HiddenReaderCreator().create(PlainPacket.class), new HiddenWriterCreator().create(PlainPacket.class), 3, "table");
+        factory.addPacket(FixedLayoutPacket.class, new HiddenReaderCreator().create(FixedLayoutPacket.class), new HiddenWriterCreator().create(FixedLayoutPacket.class), 100_000, "table");
+
+        assert factory.getPacketID(PlainPacket.class, "table") == 3;
+        assert factory.getPacketID(FixedLayoutPacket.class, "table") == 100_000;
+        assert factory.getPacketClass(3, "table").orElseThrow().equals(PlainPacket.class);
+        assert factory.getPacketClass(100_000, "table").orElseThrow().equals(FixedLayoutPacket.class);
+        assert !factory.isRegistered(2, "table");
+        assert !factory.isRegistered(4, "table");
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        FixedLayoutPacket packet = new FixedLayoutPacket();
+        packet.entityID = 10;
+        factory.write(packet, "table", visitor);
+        FixedLayoutPacket packetClone = factory.create("table", visitor);
+        assert packetClone.entityID == 10;
+
+        assert factory.removePacket(100_000, "table");
+        assert factory.removePacket(3, "table");
+        assert !factory.isRegistered(3, "table");
+        assert !factory.isRegistered(100_000, "table");
+        assert factory.getPacketID(PlainPacket.class, "table") == -1;
+
+        factory.addPacket(PlainPacket.class, new HiddenReaderCreator().create(PlainPacket.class), new HiddenWriterCreator().create(PlainPacket.class), 5, "table");
+        assert factory.getPacketID(PlainPacket.class, "table") == 5;
+    }
+
+    @Test
+    public void duplicateIDTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        factory.addPacket(PlainPacket.class, new HiddenReaderCreator().create(PlainPacket.class), new HiddenWriterCreator().create(PlainPacket.class), 1, "table");
+        try {
+            factory.addPacket(FixedLayoutPacket.class, new HiddenReaderCreator().create(FixedLayoutPacket.class), new HiddenWriterCreator().create(FixedLayoutPacket.class), 1, "table");
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.*;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.PolymorphicSerializerCreator;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+import org.machinemc.paklet.test.packet.PolymorphicPacket;
+import org.machinemc.paklet.test.packet.TreePacket;
+
+import java.util.List;
+
+public class PolymorphicTest {
+
+    @Test
+    public void subclassesTest() {
+        List<Class<?>> subclasses = PolymorphicSerializerCreator.collectSubclasses(PolymorphicPacket.Shape.class);
+        assert subclasses.equals(List.of(
+                PolymorphicPacket.Circle.class,
+                PolymorphicPacket.Rectangle.class,
+                PolymorphicPacket.Triangle.class,
+                PolymorphicPacket.Square.class
+        ));
+    }
+
+    @Test
+    public void polymorphicTest() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRule(new PolymorphicSerializationRule());
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+
+        PacketFactory factory = new PacketFactoryImpl(PacketEncoder.varInt(), serializerProvider);
+        factory.addPacket(PolymorphicPacket.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        PolymorphicPacket.Square square = new PolymorphicPacket.Square();
+        square.side = 4;
+
+        PolymorphicPacket packet = new PolymorphicPacket();
+        packet.shape = new PolymorphicPacket.Rectangle(2, 3);
+        packet.shapes = List.of(new PolymorphicPacket.Circle(1.5), new PolymorphicPacket.Triangle(3, 4, 5), square);
+
+        factory.write(packet, Packet.DEFAULT, visitor);
+
+        // packet ID, tag and two VarInts of the rectangle
+        assert visitor.readByte() == 15;
+        assert visitor.readByte() == 1;
+        visitor.readerIndex(0);
+
+        PolymorphicPacket packetClone = factory.create(Packet.DEFAULT, visitor);
+
+        assert packetClone.shape.equals(packet.shape);
+        assert packetClone.shapes.get(0).equals(packet.shapes.get(0));
+        assert packetClone.shapes.get(1).equals(packet.shapes.get(1));
+        assert ((PolymorphicPacket.Square) packetClone.shapes.get(2)).side == 4;
+    }
+
+    @Test
+    public void recursiveTest() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRule(new PolymorphicSerializationRule());
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+
+        PacketFactory factory = new PacketFactoryImpl(PacketEncoder.varInt(), serializerProvider);
+        factory.addPacket(TreePacket.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        TreePacket packet = new TreePacket();
+        packet.tree = new TreePacket.Branch(
+                new TreePacket.Leaf(1),
+                new TreePacket.Branch(new TreePacket.Leaf(2), new TreePacket.Leaf(3))
+        );
+
+        factory.write(packet, Packet.DEFAULT, visitor);
+
+        // packet ID, then tag of each node followed by the values of leaves
+        assert visitor.writerIndex() == 1 + 1 + 2 + 1 + 2 + 2;
+
+        TreePacket packetClone = factory.create(Packet.DEFAULT, visitor);
+
+        assert packetClone.tree.equals(packet.tree);
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.IntSerializer;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.test.packet.PrimitivePacket;
+
+public class PrimitiveSerializerTest {
+
+    @Test
+    public void primitiveTest() {
+        PacketFactory factory = TestUtil.createFactory();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        PrimitivePacket packet = new PrimitivePacket();
+        packet.intValue = -5;
+        packet.longValue = Long.MAX_VALUE;
+        packet.floatValue = 1.5f;
+        packet.doubleValue = -2.25;
+        packet.booleanValue = true;
+        packet.varLongValue = 300;
+
+        factory.write(packet, Packet.DEFAULT, visitor);
+
+        assert visitor.writerIndex() == 1 + 4 + 8 + 4 + 8 + 1 + 2;
+
+        PrimitivePacket packetClone = factory.create(Packet.DEFAULT, visitor);
+
+        assert packetClone.intValue == packet.intValue;
+        assert packetClone.longValue == packet.longValue;
+        assert packetClone.floatValue == packet.floatValue;
+        assert packetClone.doubleValue == packet.doubleValue;
+        assert packetClone.booleanValue == packet.booleanValue;
+        assert packetClone.varLongValue == packet.varLongValue;
+    }
+
+    @Test
+    public void adaptTest() {
+        Serializer<Integer> boxed = new Serializer<>() {
+            @Override
+            public void serialize(SerializerContext context, DataVisitor visitor, Integer value) {
+                visitor.writeInt(value);
+            }
+
+            @Override
+            public Integer deserialize(SerializerContext context, DataVisitor visitor) {
+                return visitor.readInt();
+            }
+        };
+        IntSerializer adapted = IntSerializer.adapt(boxed);
+        assert IntSerializer.adapt(adapted) == adapted;
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        adapted.serializeInt(null, visitor, 42);
+        assert adapted.deserializeInt(null, visitor) == 42;
+    }
+
+    @Test
+    public void adaptNullTest() {
+        Serializer<Integer> nullable = new Serializer<>() {
+            @Override
+            public void serialize(SerializerContext context, DataVisitor visitor, Integer value) {
+            }
+
+            @Override
+            public Integer deserialize(SerializerContext context, DataVisitor visitor) {
+                return null;
+            }
+        };
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        try {
+            IntSerializer.adapt(nullable).deserializeInt(context, new NettyDataVisitor(Unpooled.buffer()));
+            assert false;
+        } catch (NullPointerException ignored) {
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import org.machinemc.paklet.*;
 import org.machinemc.paklet.netty.NettyDataVisitor;
 import org.machinemc.paklet.processors.*;
 import org.machinemc.paklet.test.packet.ArrayPacket;
+import org.machinemc.paklet.test.packet.ExpandedPacket;
 import org.machinemc.paklet.test.packet.TestCustomLogicCustomPacket;
 import org.machinemc.paklet.test.packet.TestPacket;
 
@@ -28,6 +29,29 @@ public class ProcessorsTest {
         PacketWriter<TestPacket> gWriter = new GeneratedWriterCreator().create(TestPacket.class);
     }
 
+    @Test
+    public void prebuiltCodecsTest() {
+        assert ProcessorsUtil.hasCompiledCodecs(TestCustomLogicCustomPacket.class);
+        assert ProcessorsUtil.hasCompiledCodecs(TestPacket.class);
+    }
+
+    @Test
+    public void runtimeGeneratedTest() {
+        PacketReader<ExpandedPacket> reader = new GeneratedReaderCreator().create(ExpandedPacket.class);
+        PacketWriter<ExpandedPacket> writer = new GeneratedWriterCreator().create(ExpandedPacket.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+
+        ExpandedPacket packet = new ExpandedPacket();
+        packet.value = 10;
+        packet.name = "Foo";
+        writer.write(null, visitor, packet);
+        ExpandedPacket packetClone = reader.read(null, visitor);
+
+        assert packetClone.value == packet.value;
+        assert Objects.equals(packetClone.name, packet.name);
+    }
+
     @Test
     public void basicTest() {
         PacketFactory factory = TestUtil.createFactory();
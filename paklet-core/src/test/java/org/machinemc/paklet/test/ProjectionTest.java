@@ -0,0 +1,146 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketFactoryImpl;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProjectionReaderCreator;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+import org.machinemc.paklet.test.packet.FinalFieldsPacket;
+import org.machinemc.paklet.test.packet.PlainPacket;
+import org.machinemc.paklet.test.packet.RecordPacket;
+
+import java.util.List;
+
+public class ProjectionTest {
+
+    public record NameProjection(String name, List<String> names) {
+    }
+
+    public static class ValueProjection {
+        int value;
+    }
+
+    public static class InvalidProjection {
+        long value;
+    }
+
+    @Test
+    public void projectionTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        factory.addProjection(NameProjection.class, RecordPacket.class);
+        factory.addProjection(ValueProjection.class, RecordPacket.class);
+
+        RecordPacket packet = new RecordPacket(300, 10L, (byte) 1, "Foo", List.of("Hello", "World"));
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(packet, Packet.DEFAULT, visitor);
+
+        NameProjection names = factory.createProjection(NameProjection.class, Packet.DEFAULT, visitor);
+        assert names != null;
+        assert names.name().equals("Foo");
+        assert names.names().equals(List.of("Hello", "World"));
+
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(packet, Packet.DEFAULT, visitor);
+
+        ValueProjection value = factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor);
+        assert value != null;
+        assert value.value == 300;
+    }
+
+    @Test
+    public void differentPacketTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        factory.addProjection(ValueProjection.class, RecordPacket.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), Packet.DEFAULT, visitor);
+        assert factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor) == null;
+    }
+
+    @Test
+    public void projectionReaderTest() {
+        PacketReader<ValueProjection> reader = new ProjectionReaderCreator().create(ValueProjection.class, PlainPacket.class);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator().create(PlainPacket.class);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, new PlainPacket(10, "Foo", new byte[16]));
+        writer.write(null, visitor, new PlainPacket(20, "Bar", new byte[0]));
+        // only the first field is projected, the rest of the packet is skipped
+        assert reader.read(null, visitor).value == 10;
+        assert reader.read(null, visitor).value == 20;
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void consecutivePacketsTest() {
+        PacketFactory factory = TestUtil.createFactory();
+        factory.addProjection(ValueProjection.class, RecordPacket.class);
+
+        RecordPacket packet = new RecordPacket(300, 10L, (byte) 1, "Foo", List.of("Hello", "World"));
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), Packet.DEFAULT, visitor);
+        factory.write(packet, Packet.DEFAULT, visitor);
+        factory.write(packet, Packet.DEFAULT, visitor);
+        factory.write(new FinalFieldsPacket(2, "Bar"), Packet.DEFAULT, visitor);
+
+        // packets are read in place, each one has to be read as whole
+        assert factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor) == null;
+        ValueProjection value = factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor);
+        assert value != null && value.value == 300;
+        assert factory.<RecordPacket>create(Packet.DEFAULT, visitor).equals(packet);
+        assert factory.<FinalFieldsPacket>create(Packet.DEFAULT, visitor).name.equals("Bar");
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void wrappedSourceTest() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+        PacketEncoder varInt = PacketEncoder.varInt();
+        // decodes in place through a view of the source, instead of returning the source itself
+        PacketEncoder encoder = new PacketEncoder() {
+            @Override
+            public void encode(DataVisitor target, SerializerProvider serializerProvider, String group, Encoded encoded) {
+                varInt.encode(target, serializerProvider, group, encoded);
+            }
+
+            @Override
+            public Encoded decode(DataVisitor source, SerializerProvider serializerProvider, String group) {
+                Encoded decoded = varInt.decode(source, serializerProvider, group);
+                return new Encoded(decoded.packetID(), new NettyDataVisitor(((NettyDataVisitor) source).getByteBuf()));
+            }
+        };
+        PacketFactory factory = new PacketFactoryImpl(encoder, serializerProvider);
+        factory.addPackets(TestPackets.class);
+        factory.addProjection(ValueProjection.class, RecordPacket.class);
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(new FinalFieldsPacket(1, "Foo"), Packet.DEFAULT, visitor);
+        factory.write(new RecordPacket(300, 10L, (byte) 1, "Foo", List.of()), Packet.DEFAULT, visitor);
+        assert factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor) == null;
+        ValueProjection value = factory.createProjection(ValueProjection.class, Packet.DEFAULT, visitor);
+        assert value != null && value.value == 300;
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void invalidProjectionTest() {
+        try {
+            new ProjectionReaderCreator().create(InvalidProjection.class, RecordPacket.class);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package org.machinemc.paklet.test;
+
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.modifiers.Optional;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.Token;
+
+import java.util.List;
+
+public class SerializerContextTest {
+
+    @Test
+    public void cachedTreeTest() {
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider())
+                .withType(new Token<List<List<@Optional String>>>() {});
+        assert context.serializeWith() == context.serializeWith();
+
+        SerializerContext nested = context.getContextForParameter(0).getContextForParameter(0);
+        assert nested == context.getContextForParameter(0).getContextForParameter(0);
+        // optional serializer is created only once
+        assert nested.serializeWith() == nested.serializeWith();
+    }
+
+    @Test
+    public void cachedComponentTest() {
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider())
+                .withType(new Token<String[][]>() {});
+        assert context.getContextForComponent() == context.getContextForComponent();
+        assert context.getContextForComponent().getContextForComponent().serializeWith()
+                == context.getContextForComponent().getContextForComponent().serializeWith();
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.machinemc.paklet.test;
+
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.serialization.Serializer;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.Serializers;
+import org.machinemc.paklet.serialization.Supports;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+
+public class SerializerProviderTest {
+
+    public interface Shape {
+    }
+
+    public static class Circle implements Shape {
+    }
+
+    public static class Ring extends Circle {
+    }
+
+    @Supports(Shape.class)
+    public static class ShapeSerializer implements Serializer<Shape> {
+
+        @Override
+        public void serialize(SerializerContext context, DataVisitor visitor, Shape shape) {
+        }
+
+        @Override
+        public Shape deserialize(SerializerContext context, DataVisitor visitor) {
+            return new Circle();
+        }
+
+    }
+
+    @Test
+    public void cachedResolutionTest() {
+        SerializerProvider provider = createProvider();
+        Serializer<String> serializer = provider.getFor(String.class);
+        assert serializer instanceof Serializers.String;
+        assert provider.getFor(String.class) == serializer;
+
+        provider.removeSerializer(Serializers.String.class);
+        try {
+            provider.getFor(String.class);
+            assert false;
+        } catch (NullPointerException ignored) {
+            // String is Serializable, but the rule for serializable classes is not registered here
+        }
+    }
+
+    @Test
+    public void hierarchyResolutionTest() {
+        SerializerProvider provider = createProvider();
+        try {
+            provider.getFor(Ring.class);
+            assert false;
+        } catch (NullPointerException ignored) {
+        }
+
+        provider.addSerializer(new ShapeSerializer());
+        assert provider.getFor(Shape.class) instanceof ShapeSerializer;
+        assert provider.getFor(Circle.class).getClass() == ShapeSerializer.class;
+        assert provider.getFor(Ring.class).getClass() == ShapeSerializer.class;
+    }
+
+    @Test
+    public void rulesBeforeHierarchyTest() {
+        SerializerProvider provider = createProvider();
+        provider.addSerializationRules(DefaultSerializationRules.class);
+        // rules are tried before the supertypes of the type
+        assert provider.getFor(Thread.State.class).getClass() == Serializers.Enum.class;
+    }
+
+    private static SerializerProvider createProvider() {
+        SerializerProvider provider = new SerializerProviderImpl();
+        provider.addSerializers(DefaultSerializers.class);
+        return provider;
+    }
+
+}
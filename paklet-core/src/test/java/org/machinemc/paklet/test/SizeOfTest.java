@@ -0,0 +1,152 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.GeneratedWriterCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.processors.ProxyWriterCreator;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.Token;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+import org.machinemc.paklet.serialization.VarLongSerializer;
+import org.machinemc.paklet.test.packet.CollectionsPacket;
+import org.machinemc.paklet.test.packet.ExpandedPacket;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+import java.util.*;
+
+public class SizeOfTest {
+
+    @Test
+    public void varIntSizeTest() {
+        VarIntSerializer varInt = new VarIntSerializer();
+        for (int value : new int[] {0, 1, 127, 128, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE, -1, Integer.MIN_VALUE}) {
+            DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+            varInt.serializeInt(null, visitor, value);
+            assert varInt.sizeOfInt(null, value) == visitor.writerIndex();
+        }
+
+        VarLongSerializer varLong = new VarLongSerializer();
+        for (long value : new long[] {0, 1, 127, 128, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE}) {
+            DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+            varLong.serializeLong(null, visitor, value);
+            assert varLong.sizeOfLong(null, value) == visitor.writerIndex();
+        }
+    }
+
+    @Test
+    public void hiddenWriterSizeTest() {
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator().create(PlainPacket.class);
+        PlainPacket packet = new PlainPacket(10, "Föö € 😀", new byte[128]);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, packet);
+        assert writer.sizeOf(null, packet) == visitor.writerIndex();
+    }
+
+    @Test
+    public void proxyWriterSizeTest() {
+        PacketWriter<PlainPacket> writer = new ProxyWriterCreator().create(PlainPacket.class);
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        PlainPacket packet = new PlainPacket(10, "Foo", new byte[] {1, 2, 3});
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(context, visitor, packet);
+        assert writer.sizeOf(context, packet) == visitor.writerIndex();
+    }
+
+    @Test
+    public void generatedWriterSizeTest() {
+        PacketWriter<ExpandedPacket> writer = new GeneratedWriterCreator().create(ExpandedPacket.class);
+        ExpandedPacket packet = new ExpandedPacket();
+        packet.value = 20;
+        packet.name = "Hello World";
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, packet);
+        assert writer.sizeOf(null, packet) == visitor.writerIndex();
+    }
+
+    @Test
+    public void collectionSizeTest() {
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+
+        SerializerContext listContext = context.withType(new Token<List<Integer>>() {});
+        List<Integer> list = Collections.nCopies(1000, 5);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.write(listContext, listContext.serializeWith(), list);
+        assert listContext.<List<Integer>>serializeWith().sizeOf(listContext, list) == visitor.writerIndex();
+
+        SerializerContext arrayContext = context.withType(new Token<String[]>() {});
+        String[] array = {"Foo", "Hello World"};
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.write(arrayContext, arrayContext.serializeWith(), array);
+        assert arrayContext.<String[]>serializeWith().sizeOf(arrayContext, array) == visitor.writerIndex();
+
+        SerializerContext mapContext = context.withType(new Token<Map<String, Long>>() {});
+        Map<String, Long> map = Map.of("Foo", 1L);
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.write(mapContext, mapContext.serializeWith(), map);
+        assert mapContext.<Map<String, Long>>serializeWith().sizeOf(mapContext, map) == visitor.writerIndex();
+    }
+
+    @Test
+    public void outlierSizeTest() {
+        PacketFactory factory = TestUtil.createFactory();
+
+        // sizes of the other elements are not extrapolated from the first one
+        CollectionsPacket packet = new CollectionsPacket();
+        packet.contents = new ArrayList<>(Collections.nCopies(200_001, ""));
+        packet.contents.set(0, "a".repeat(30_000));
+        packet.numbers = new HashSet<>();
+        packet.nestedCollection = List.of();
+        packet.mapContents = Map.of();
+        packet.hashMap = new HashMap<>();
+        packet.treeMap = new TreeMap<>();
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(packet, Packet.DEFAULT, visitor);
+        CollectionsPacket read = factory.create(Packet.DEFAULT, visitor);
+        assert read.contents.equals(packet.contents);
+
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        SerializerContext listContext = context.withType(new Token<List<String>>() {});
+        List<String> list = new ArrayList<>(Collections.nCopies(200_000, ""));
+        list.addFirst("a".repeat(30_000));
+        visitor = new NettyDataVisitor(Unpooled.buffer());
+        visitor.write(listContext, listContext.serializeWith(), list);
+        assert listContext.<List<String>>serializeWith().sizeOf(listContext, list) == visitor.writerIndex();
+    }
+
+    @Test
+    public void sizeHintTest() {
+        PacketWriter<PlainPacket> hidden = new HiddenWriterCreator().create(PlainPacket.class);
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        PlainPacket packet = new PlainPacket(1, "Foo", new byte[16]);
+        for (int size : new int[] {-1, Integer.MAX_VALUE}) {
+            // sizes are only hints, invalid ones do not prevent the packet from being written
+            PacketWriter<PlainPacket> writer = new PacketWriter<>() {
+                @Override
+                public void write(SerializerContext context, DataVisitor dataVisitor, PlainPacket packet) {
+                    hidden.write(context, dataVisitor, packet);
+                }
+
+                @Override
+                public int sizeOf(SerializerContext context, PlainPacket packet) {
+                    return size;
+                }
+            };
+            for (PacketEncoder encoder : new PacketEncoder[] {PacketEncoder.varInt(), PacketEncoder.framed()}) {
+                NettyDataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+                encoder.encode(visitor, context.serializerProvider(), "group", 1, writer, context, packet);
+                assert encoder.decode(visitor, context.serializerProvider(), "group").packetID() == 1;
+                assert visitor.getByteBuf().capacity() <= 1 << 21;
+            }
+        }
+    }
+
+}
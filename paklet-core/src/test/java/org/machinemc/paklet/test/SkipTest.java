@@ -0,0 +1,115 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketReader;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processors.*;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.Token;
+import org.machinemc.paklet.serialization.VarIntSerializer;
+import org.machinemc.paklet.serialization.VarLongSerializer;
+import org.machinemc.paklet.test.packet.ArrayPacket;
+import org.machinemc.paklet.test.packet.CollectionsPacket;
+import org.machinemc.paklet.test.packet.PlainPacket;
+
+import java.util.*;
+
+public class SkipTest {
+
+    @Test
+    public void varIntSkipTest() {
+        VarIntSerializer varInt = new VarIntSerializer();
+        VarLongSerializer varLong = new VarLongSerializer();
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        varInt.serializeInt(null, visitor, -1);
+        varLong.serializeLong(null, visitor, Long.MAX_VALUE);
+        varInt.serializeInt(null, visitor, 300);
+        varInt.skip(null, visitor);
+        varLong.skip(null, visitor);
+        assert varInt.deserializeInt(null, visitor) == 300;
+    }
+
+    @Test
+    public void invalidLengthSkipTest() {
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        for (SerializerContext typeContext : List.of(context.withType(new Token<List<Long>>() {}), context.withType(new Token<BitSet>() {}))) {
+            // length that overflows once multiplied by the width of the values
+            DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+            visitor.writeInt(1 << 30).writeBytes(new byte[16]);
+            try {
+                typeContext.serializeWith().skip(typeContext, visitor);
+                assert false;
+            } catch (IndexOutOfBoundsException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void hiddenReaderSkipTest() {
+        PacketReader<PlainPacket> reader = new HiddenReaderCreator().create(PlainPacket.class);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator().create(PlainPacket.class);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, new PlainPacket(1, "Foo", new byte[64]));
+        writer.write(null, visitor, new PlainPacket(2, "Bar", new byte[] {1, 2}));
+        reader.skip(null, visitor);
+        PlainPacket second = reader.read(null, visitor);
+        assert second.getValue() == 2;
+        assert second.getName().equals("Bar");
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void proxyReaderSkipTest() {
+        PacketReader<PlainPacket> reader = new ProxyReaderCreator().create(PlainPacket.class);
+        PacketWriter<PlainPacket> writer = new HiddenWriterCreator().create(PlainPacket.class);
+        SerializerContext context = new SerializerContext(null, ProcessorsUtil.createDefaultSerializerProvider());
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, new PlainPacket(1, "Foo", new byte[] {1, 2, 3}));
+        reader.skip(context, visitor);
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void collectionsSkipTest() {
+        SerializerProvider provider = ProcessorsUtil.createDefaultSerializerProvider();
+        PacketReader<CollectionsPacket> reader = ProcessorsUtil.getDefaultReaderCreator(CollectionsPacket.class, provider).create(CollectionsPacket.class);
+        PacketWriter<CollectionsPacket> writer = ProcessorsUtil.getDefaultWriterCreator(CollectionsPacket.class, provider).create(CollectionsPacket.class);
+
+        CollectionsPacket packet = new CollectionsPacket();
+        packet.contents = new ArrayList<>(Arrays.asList("Blob", null, "Foo"));
+        packet.numbers = new HashSet<>(List.of(1, 2, 3));
+        packet.nestedCollection = new ArrayList<>(List.of(List.of("Hello"), List.of("World")));
+        packet.mapContents = Map.of("hello", 1, "world", 2);
+        packet.hashMap = new HashMap<>();
+        packet.hashMap.put(10, null);
+        packet.hashMap.put(5, "Hello");
+        packet.treeMap = new TreeMap<>(Map.of("Hi", "World"));
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, packet);
+        reader.skip(null, visitor);
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+    @Test
+    public void arraysSkipTest() {
+        SerializerProvider provider = ProcessorsUtil.createDefaultSerializerProvider();
+        PacketReader<ArrayPacket> reader = ProcessorsUtil.getDefaultReaderCreator(ArrayPacket.class, provider).create(ArrayPacket.class);
+        PacketWriter<ArrayPacket> writer = ProcessorsUtil.getDefaultWriterCreator(ArrayPacket.class, provider).create(ArrayPacket.class);
+
+        ArrayPacket packet = new ArrayPacket();
+        packet.stringArray = new String[] {"Hello", "World"};
+        packet.nestedArray = new String[][] {{"A"}, {"B", "C"}};
+        packet.optionalElements = new String[] {null, "D"};
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        writer.write(null, visitor, packet);
+        reader.skip(null, visitor);
+        assert visitor.readerIndex() == visitor.writerIndex();
+    }
+
+}
@@ -0,0 +1,85 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketFactoryImpl;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.metadata.Length;
+import org.machinemc.paklet.metadata.Range;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.serialization.SerializerContext;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+
+public class TrustedWriteTest {
+
+    @Packet(id = 0, group = {"trusted", "untrusted"}, catalogue = TrustedWriteTest.class)
+    public static class ConstrainedPacket {
+
+        public @Range(min = 0, max = 10, inclusive = true) int value;
+        public @Length(max = 4) String name;
+
+    }
+
+    @Test
+    public void trustedWriteTest() {
+        PacketFactory factory = createFactory();
+        factory.setTrusted("trusted", true);
+        factory.addPacket(ConstrainedPacket.class);
+        assert factory.isTrusted("trusted");
+        assert !factory.isTrusted("untrusted");
+
+        ConstrainedPacket packet = new ConstrainedPacket();
+        packet.value = 20;
+        packet.name = "Too long";
+
+        try {
+            factory.write(packet, "untrusted", new NettyDataVisitor(Unpooled.buffer()));
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(packet, "trusted", visitor);
+        try {
+            // reading is still checked
+            factory.create("trusted", visitor);
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void trustedAfterRegistrationTest() {
+        PacketFactory factory = createFactory();
+        factory.addPacket(ConstrainedPacket.class);
+        try {
+            factory.setTrusted("trusted", true);
+            assert false;
+        } catch (IllegalStateException ignored) {
+        }
+    }
+
+    @Test
+    public void trustedContextTest() throws NoSuchFieldException {
+        SerializerContext context = new SerializerContext(null, new SerializerProviderImpl())
+                .withType(ConstrainedPacket.class.getDeclaredField("value").getAnnotatedType());
+        assert context.constraints().hasChecks();
+        assert context.trusted().isTrusted();
+        assert !context.trusted().constraints().hasChecks();
+        assert context.trusted().withType(context.annotatedType()).isTrusted();
+    }
+
+    private static PacketFactory createFactory() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+        return new PacketFactoryImpl(PacketEncoder.varInt(), serializerProvider);
+    }
+
+}
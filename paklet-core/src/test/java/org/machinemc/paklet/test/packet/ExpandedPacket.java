@@ -0,0 +1,29 @@
+package org.machinemc.paklet.test.packet;
+
+/**
+ * Packet class with getters and setters written by hand in the same
+ * way as they are injected by the Paklet plugin. It is not annotated,
+ * so the plugin does not pre-build its reader and writer.
+ */
+public class ExpandedPacket {
+
+    public int value;
+    public String name;
+
+    public int $GET_value() {
+        return value;
+    }
+
+    public void $SET_value(int value) {
+        this.value = value;
+    }
+
+    public String $GET_name() {
+        return name;
+    }
+
+    public void $SET_name(String name) {
+        this.name = name;
+    }
+
+}
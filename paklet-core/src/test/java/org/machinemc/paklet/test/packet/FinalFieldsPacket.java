@@ -0,0 +1,21 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.modifiers.Ignore;
+import org.machinemc.paklet.test.TestPackets;
+
+@Packet(id = 14, catalogue = TestPackets.class)
+public class FinalFieldsPacket {
+
+    public final double value;
+    public final String name;
+    @Ignore
+    public final int ignored;
+
+    public FinalFieldsPacket(double value, String name) {
+        this.value = value;
+        this.name = name;
+        this.ignored = 5;
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+
+/**
+ * Packet class made only of fields with fixed width.
+ */
+@Packet(id = 0, catalogue = FixedLayoutPacket.class)
+public class FixedLayoutPacket {
+
+    public boolean onGround;
+    public byte flags;
+    public short slot;
+    public char symbol;
+    public int entityID;
+    public long timestamp;
+    public float yaw;
+    public double x;
+
+}
@@ -0,0 +1,36 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.metadata.Length;
+
+/**
+ * Packet class with private fields that is not modified
+ * by the Paklet plugin.
+ */
+public class PlainPacket {
+
+    private int value;
+    private @Length(max = 16) String name;
+    private byte[] data;
+
+    private PlainPacket() {
+    }
+
+    public PlainPacket(int value, String name, byte[] data) {
+        this.value = value;
+        this.name = name;
+        this.data = data;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+}
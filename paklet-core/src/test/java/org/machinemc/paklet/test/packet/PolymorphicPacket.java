@@ -0,0 +1,35 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.serialization.aliases.VarInt;
+
+import java.util.List;
+
+@Packet(id = 15, catalogue = PolymorphicPacket.class)
+public class PolymorphicPacket {
+
+    public Shape shape;
+    public List<Shape> shapes;
+
+    public sealed interface Shape permits Circle, Rectangle, Polygon {
+    }
+
+    public record Circle(double radius) implements Shape {
+    }
+
+    public record Rectangle(@VarInt int width, @VarInt int height) implements Shape {
+    }
+
+    public sealed interface Polygon extends Shape permits Triangle, Square {
+    }
+
+    public record Triangle(double a, double b, double c) implements Polygon {
+    }
+
+    public static final class Square implements Polygon {
+
+        public int side;
+
+    }
+
+}
@@ -0,0 +1,17 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.serialization.aliases.VarLong;
+import org.machinemc.paklet.test.TestPackets;
+
+@Packet(id = 12, catalogue = TestPackets.class)
+public class PrimitivePacket {
+
+    public int intValue;
+    public long longValue;
+    public float floatValue;
+    public double doubleValue;
+    public boolean booleanValue;
+    public @VarLong long varLongValue;
+
+}
@@ -0,0 +1,11 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.serialization.aliases.VarInt;
+import org.machinemc.paklet.test.TestPackets;
+
+import java.util.List;
+
+@Packet(id = 13, catalogue = TestPackets.class)
+public record RecordPacket(@VarInt int value, long longValue, byte byteValue, String name, List<String> names) {
+}
@@ -0,0 +1,20 @@
+package org.machinemc.paklet.test.packet;
+
+import org.machinemc.paklet.Packet;
+import org.machinemc.paklet.serialization.aliases.VarInt;
+
+@Packet(id = 0, catalogue = TreePacket.class)
+public class TreePacket {
+
+    public Node tree;
+
+    public sealed interface Node permits Leaf, Branch {
+    }
+
+    public record Leaf(@VarInt int value) implements Node {
+    }
+
+    public record Branch(Node left, Node right) implements Node {
+    }
+
+}
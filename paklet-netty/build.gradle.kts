@@ -0,0 +1,32 @@
+plugins {
+    id("java-library-convention")
+    `maven-publish`
+}
+
+dependencies {
+    api(project(":paklet-api"))
+    implementation(project(":paklet-core"))
+
+    api(libs.netty)
+}
+
+publishing {
+    repositories {
+        maven {
+            name = "machine"
+            url = uri("https://repo.machinemc.org/releases")
+            credentials(PasswordCredentials::class)
+            authentication {
+                create<BasicAuthentication>("basic")
+            }
+        }
+    }
+    publications {
+        create<MavenPublication>("maven") {
+            groupId = "org.machinemc"
+            artifactId = "paklet-netty"
+            version = project.version.toString()
+            from(components["java"])
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.machinemc.paklet.netty.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketGroupHandle;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+
+import java.util.List;
+
+/**
+ * Handler that reads packets from the channel using a packet factory.
+ * <p>
+ * Data are accumulated until a whole frame prefixed with its length as var int is
+ * received, the frame is then read by the factory directly from the accumulated buffer,
+ * without copying it, and the buffer is released by Netty once it is read. The factory is
+ * expected to decode the frames, e.g. using {@link PacketEncoder#framed()}.
+ * <p>
+ * Packets are read from the group set in {@link PacketGroups#INBOUND} attribute
+ * of the channel.
+ *
+ * @see PacketEncoderHandler
+ */
+public class PacketDecoderHandler extends ByteToMessageDecoder {
+
+    /**
+     * Default maximum length of the frame.
+     *
+     * @see PacketEncoder#MAX_FRAME_LENGTH
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = PacketEncoder.MAX_FRAME_LENGTH;
+
+    private static final int MAX_VAR_INT_SIZE = 5;
+
+    private final PacketFactory factory;
+    private final int maxFrameLength;
+
+    /**
+     * Creates new packet decoder handler accepting frames up to
+     * {@value #DEFAULT_MAX_FRAME_LENGTH} bytes long.
+     *
+     * @param factory factory used to read the packets
+     */
+    public PacketDecoderHandler(PacketFactory factory) {
+        this(factory, DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * Creates new packet decoder handler.
+     *
+     * @param factory factory used to read the packets
+     * @param maxFrameLength maximum length of the frame, without its length prefix
+     */
+    public PacketDecoderHandler(PacketFactory factory, int maxFrameLength) {
+        if (maxFrameLength < 1) throw new IllegalArgumentException("Invalid maximum frame length " + maxFrameLength);
+        this.factory = factory;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        int readerIndex = in.readerIndex();
+        int length = 0;
+        int prefix = 0;
+        // the length is only peeked, the frame is decoded by the factory once it is complete
+        while (true) {
+            if (prefix == in.readableBytes()) return;
+            if (prefix == MAX_VAR_INT_SIZE) throw corrupted(in, "Frame length is too long");
+            byte next = in.getByte(readerIndex + prefix);
+            length |= (next & 0x7F) << (prefix++ * 7);
+            if ((next & 0x80) == 0) break;
+        }
+        if (length < 1 || length > maxFrameLength)
+            throw corrupted(in, "Invalid frame length " + length + ", maximum is " + maxFrameLength);
+        if (in.readableBytes() < prefix + length) return;
+
+        PacketGroupHandle group = ctx.channel().attr(PacketGroups.INBOUND).get();
+        if (group == null) throw new DecoderException("Inbound packet group of the channel is not set");
+        // the frame is skipped even if it fails to be read, so the next one can be decoded
+        try {
+            out.add(factory.create(group, new NettyDataVisitor(in)));
+        } finally {
+            in.readerIndex(readerIndex + prefix + length);
+        }
+    }
+
+    /**
+     * Discards the accumulated data, the start of the next frame is unknown
+     * once a frame is corrupted.
+     */
+    private static CorruptedFrameException corrupted(ByteBuf in, String message) {
+        in.skipBytes(in.readableBytes());
+        return new CorruptedFrameException(message);
+    }
+
+}
@@ -0,0 +1,92 @@
+package org.machinemc.paklet.netty.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
+import org.jetbrains.annotations.Nullable;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketGroupHandle;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+
+/**
+ * Handler that writes packets to the channel using a packet factory.
+ * <p>
+ * Packets are written to buffers allocated by the allocator of the channel, direct
+ * buffers are preferred by default. The buffers are presized using the size of the packet
+ * computed by the factory, and packets are written directly to the buffer that is sent,
+ * the buffer is released by Netty once it is written or if the packet fails to encode.
+ * The factory is expected to frame the packets, e.g. using {@link PacketEncoder#framed()}.
+ * <p>
+ * Packets are written to the group set in {@link PacketGroups#OUTBOUND} attribute
+ * of the channel. Messages that are not packets registered to that group, e.g. buffers,
+ * are passed to the next handler as they are.
+ *
+ * @see PacketDecoderHandler
+ */
+public class PacketEncoderHandler extends MessageToByteEncoder<Object> {
+
+    /**
+     * Maximum number of bytes reserved for a packet before it is written,
+     * larger packets grow the buffer while they are written.
+     */
+    private static final int MAX_RESERVED = 1 << 20;
+    // length of the frame, length of the uncompressed data and the packet ID, each as var int
+    private static final int MAX_HEADER_SIZE = 15;
+
+    private final PacketFactory factory;
+    private @Nullable Channel channel;
+
+    /**
+     * Creates new packet encoder handler that prefers direct buffers.
+     *
+     * @param factory factory used to write the packets
+     */
+    public PacketEncoderHandler(PacketFactory factory) {
+        this(factory, true);
+    }
+
+    /**
+     * Creates new packet encoder handler.
+     *
+     * @param factory factory used to write the packets
+     * @param preferDirect whether the packets should be written to direct buffers
+     */
+    public PacketEncoderHandler(PacketFactory factory, boolean preferDirect) {
+        super(preferDirect);
+        this.factory = factory;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+    }
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        PacketGroupHandle group = channel != null ? channel.attr(PacketGroups.OUTBOUND).get() : null;
+        // without the group, packets are accepted so they fail to encode instead of being passed on
+        if (group == null) return factory.getRegisteredPackets().contains(msg.getClass());
+        return factory.isRegistered(msg.getClass(), group);
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object packet, boolean preferDirect) {
+        PacketGroupHandle group = ctx.channel().attr(PacketGroups.OUTBOUND).get();
+        int size = group != null ? factory.sizeOf(packet, group) : 0;
+        // the size is only a hint, buffers of packets with unknown size start with the default capacity
+        if (size <= 0) return preferDirect ? ctx.alloc().ioBuffer() : ctx.alloc().heapBuffer();
+        int capacity = Math.min(size, MAX_RESERVED) + MAX_HEADER_SIZE;
+        return preferDirect ? ctx.alloc().ioBuffer(capacity) : ctx.alloc().heapBuffer(capacity);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object packet, ByteBuf out) {
+        PacketGroupHandle group = ctx.channel().attr(PacketGroups.OUTBOUND).get();
+        if (group == null) throw new EncoderException("Outbound packet group of the channel is not set");
+        factory.write(packet, group, new NettyDataVisitor(out));
+    }
+
+}
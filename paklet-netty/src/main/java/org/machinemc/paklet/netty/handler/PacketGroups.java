@@ -0,0 +1,57 @@
+package org.machinemc.paklet.netty.handler;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import org.jetbrains.annotations.Nullable;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketGroupHandle;
+
+/**
+ * Channel attributes with packet groups used by {@link PacketDecoderHandler}
+ * and {@link PacketEncoderHandler}.
+ * <p>
+ * Groups are read from the channel for each packet, so they can be switched
+ * at any time, e.g. when the state of the connection changes.
+ */
+public final class PacketGroups {
+
+    /**
+     * Group of packets read from the channel.
+     */
+    public static final AttributeKey<PacketGroupHandle> INBOUND = AttributeKey.valueOf(PacketGroups.class, "INBOUND");
+
+    /**
+     * Group of packets written to the channel.
+     */
+    public static final AttributeKey<PacketGroupHandle> OUTBOUND = AttributeKey.valueOf(PacketGroups.class, "OUTBOUND");
+
+    private PacketGroups() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Switches packet groups of given channel.
+     *
+     * @param channel channel
+     * @param inbound group of packets read from the channel
+     * @param outbound group of packets written to the channel
+     * @see PacketFactory#getGroupHandle(String)
+     */
+    public static void set(Channel channel, @Nullable PacketGroupHandle inbound, @Nullable PacketGroupHandle outbound) {
+        channel.attr(INBOUND).set(inbound);
+        channel.attr(OUTBOUND).set(outbound);
+    }
+
+    /**
+     * Switches packet groups of given channel.
+     *
+     * @param channel channel
+     * @param factory factory the groups are registered to
+     * @param inbound name of the group of packets read from the channel
+     * @param outbound name of the group of packets written to the channel
+     */
+    public static void set(Channel channel, PacketFactory factory, String inbound, String outbound) {
+        set(channel, factory.getGroupHandle(inbound), factory.getGroupHandle(outbound));
+    }
+
+}
@@ -0,0 +1,162 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketFactoryImpl;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.netty.handler.PacketDecoderHandler;
+import org.machinemc.paklet.netty.handler.PacketEncoderHandler;
+import org.machinemc.paklet.netty.handler.PacketGroups;
+import org.machinemc.paklet.processors.HiddenReaderCreator;
+import org.machinemc.paklet.processors.HiddenWriterCreator;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+
+public class PacketHandlersTest {
+
+    public static class MessagePacket {
+
+        public int id;
+        public String message;
+
+    }
+
+    public static class LoginPacket {
+
+        public String name;
+
+    }
+
+    @Test
+    public void roundTripTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketDecoderHandler(factory), new PacketEncoderHandler(factory));
+        PacketGroups.set(channel, factory, "play", "play");
+
+        MessagePacket packet = new MessagePacket();
+        packet.id = 10;
+        packet.message = "Hello";
+        assert channel.writeOutbound(packet);
+        ByteBuf frame = channel.readOutbound();
+
+        // frame is received in two parts
+        assert !channel.writeInbound(frame.readRetainedSlice(3));
+        assert channel.writeInbound(frame);
+        MessagePacket read = channel.readInbound();
+        assert read.id == 10;
+        assert read.message.equals("Hello");
+        assert frame.refCnt() == 0;
+        assert !channel.finish();
+    }
+
+    @Test
+    public void groupSwitchTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketDecoderHandler(factory), new PacketEncoderHandler(factory));
+        PacketGroups.set(channel, factory, "login", "login");
+
+        LoginPacket login = new LoginPacket();
+        login.name = "Foo";
+        MessagePacket message = new MessagePacket();
+        message.message = "Bar";
+        channel.writeOutbound(login);
+        PacketGroups.set(channel, factory, "play", "play");
+        channel.writeOutbound(message);
+
+        ByteBuf loginFrame = channel.readOutbound();
+        ByteBuf messageFrame = channel.readOutbound();
+        PacketGroups.set(channel, factory, "login", "login");
+        channel.writeInbound(loginFrame);
+        PacketGroups.set(channel, factory, "play", "play");
+        channel.writeInbound(messageFrame);
+        assert channel.<LoginPacket>readInbound().name.equals("Foo");
+        assert channel.<MessagePacket>readInbound().message.equals("Bar");
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void passThroughTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketEncoderHandler(factory));
+        PacketGroups.set(channel, factory, "play", "play");
+
+        // messages that are not registered packets are left for other handlers
+        assert channel.writeOutbound("Hello");
+        assert channel.<String>readOutbound().equals("Hello");
+        // packet registered only to a different group
+        LoginPacket login = new LoginPacket();
+        assert channel.writeOutbound(login);
+        assert channel.readOutbound() == login;
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void presizedBufferTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketEncoderHandler(factory));
+        PacketGroups.set(channel, factory, "play", "play");
+
+        MessagePacket packet = new MessagePacket();
+        packet.message = "a".repeat(10_000);
+        channel.writeOutbound(packet);
+        ByteBuf frame = channel.readOutbound();
+        // the buffer does not grow while the packet is written
+        assert frame.capacity() <= frame.writerIndex() + 15;
+        frame.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void invalidFrameTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketDecoderHandler(factory, 16));
+        PacketGroups.set(channel, factory, "play", "play");
+        try {
+            channel.writeInbound(channel.alloc().buffer().writeByte(32).writeZero(32));
+            assert false;
+        } catch (DecoderException ignored) {
+        }
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void unreadableFrameTest() {
+        PacketFactory factory = createFactory();
+        EmbeddedChannel channel = new EmbeddedChannel(new PacketDecoderHandler(factory), new PacketEncoderHandler(factory));
+        PacketGroups.set(channel, factory, "play", "play");
+
+        MessagePacket packet = new MessagePacket();
+        packet.message = "Hello";
+        channel.writeOutbound(packet);
+        ByteBuf valid = channel.readOutbound();
+        // frame with packet ID that is not registered
+        ByteBuf invalid = channel.alloc().buffer().writeByte(2).writeByte(5).writeByte(0);
+        try {
+            channel.writeInbound(invalid);
+            assert false;
+        } catch (DecoderException ignored) {
+        }
+        // the invalid frame is skipped and the next one is read
+        assert channel.writeInbound(valid);
+        assert channel.<MessagePacket>readInbound().message.equals("Hello");
+        channel.finishAndReleaseAll();
+    }
+
+    private static PacketFactory createFactory() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+        PacketFactory factory = new PacketFactoryImpl(PacketEncoder.framed(), serializerProvider);
+        factory.addPacket(MessagePacket.class, new HiddenReaderCreator(serializerProvider).create(MessagePacket.class),
+                new HiddenWriterCreator(serializerProvider).create(MessagePacket.class), 0, "play");
+        factory.addPacket(LoginPacket.class, new HiddenReaderCreator(serializerProvider).create(LoginPacket.class),
+                new HiddenWriterCreator(serializerProvider).create(LoginPacket.class), 0, "login");
+        return factory;
+    }
+
+}
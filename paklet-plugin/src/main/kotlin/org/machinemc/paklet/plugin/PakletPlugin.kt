@@ -6,6 +6,7 @@ import org.gradle.api.Plugin
 import org.gradle.api.Project
 import org.gradle.api.tasks.compile.JavaCompile
 import org.gradle.kotlin.dsl.withType
+import org.machinemc.paklet.plugin.bytecode.CodecGenerator
 import org.machinemc.paklet.plugin.bytecode.PacketExpander
 import java.io.File
 import java.io.FileReader
@@ -30,7 +31,11 @@ abstract class PakletPlugin : Plugin<Project> {
                     packets = getAsJsonArray("packets")
                 }
 
-                packets.forEach { packet -> PacketExpander(PluginUtils.classFile(directory, packet.asString)) }
+                packets.forEach { packet ->
+                    val expander = PacketExpander(PluginUtils.classFile(directory, packet.asString))
+                    val generator = CodecGenerator(directory, expander.type, expander.serializableFields, expander.custom)
+                    if (expander.immutable) generator.delete() else generator.generate()
+                }
             }
         }
     }
@@ -0,0 +1,666 @@
+package org.machinemc.paklet.plugin.bytecode
+
+import org.machinemc.paklet.plugin.PluginUtils
+import org.objectweb.asm.*
+import org.objectweb.asm.Opcodes.*
+import java.io.File
+
+/**
+ * Byte code generator that writes reader and writer classes of an expanded
+ * packet class next to it, so they do not need to be generated during runtime.
+ * <p>
+ * The generated classes are equivalent to the classes generated during runtime
+ * by the generated and custom reader and writer creators of paklet-core, including
+ * the fixed layout fast path of packets made only of primitives with fixed width.
+ *
+ * @param directory root directory of the classes
+ * @param packet type of the packet
+ * @param fields fields of the packet used for packet serialization
+ * @param custom whether the packet implements custom packet logic
+ */
+class CodecGenerator(
+    private val directory: File,
+    private val packet: Type,
+    private val fields: List<PacketExpander.Field>,
+    private val custom: Boolean
+) {
+
+    private val objectType = Type.getType(Object::class.java)
+    private val stringType = Type.getType(String::class.java)
+    private val classType = Type.getType(Class::class.java)
+    private val dataVisitor = PluginUtils.getType("org.machinemc.paklet.DataVisitor")
+    private val packetReader = PluginUtils.getType("org.machinemc.paklet.PacketReader")
+    private val packetWriter = PluginUtils.getType("org.machinemc.paklet.PacketWriter")
+    private val serializer = PluginUtils.getType("org.machinemc.paklet.serialization.Serializer")
+    private val serializerContext = PluginUtils.getType("org.machinemc.paklet.serialization.SerializerContext")
+    private val serializerProvider = PluginUtils.getType("org.machinemc.paklet.serialization.SerializerProvider")
+    private val processorsUtil = PluginUtils.getType("org.machinemc.paklet.processors.ProcessorsUtil")
+    private val safeCastConverter = PluginUtils.getType("org.machinemc.paklet.utils.SafeCastConverter")
+    private val unboxer = PluginUtils.getType("org.machinemc.paklet.utils.Unboxer")
+    private val autoBoxer = PluginUtils.getType("org.machinemc.paklet.utils.AutoBoxer")
+    private val nettyDataVisitor = PluginUtils.getType("org.machinemc.paklet.netty.NettyDataVisitor")
+    private val byteBuf = PluginUtils.getType("io.netty.buffer.ByteBuf")
+
+    private val fixedLayoutSize = getFixedLayoutSize()
+
+    /**
+     * Writes the reader and writer classes.
+     * <p>
+     * Classes that were compiled from sources, e.g. generated by the Paklet
+     * annotation processor, are kept untouched.
+     */
+    fun generate() {
+        val reader = PluginUtils.classFile(directory, "${packet.internalName}_READER")
+        if (!isCompiledFromSource(reader))
+            PluginUtils.writeClass(reader, if (custom) createCustomReader() else createReader())
+        val writer = PluginUtils.classFile(directory, "${packet.internalName}_WRITER")
+        if (!isCompiledFromSource(writer))
+            PluginUtils.writeClass(writer, if (custom) createCustomWriter() else createWriter())
+    }
+
+    /**
+     * Deletes the reader and writer classes previously written by this generator,
+     * used for packets that are no longer expanded by the plugin.
+     */
+    fun delete() {
+        listOf("_READER", "_WRITER")
+            .map { suffix -> PluginUtils.classFile(directory, "${packet.internalName}$suffix") }
+            .filter { file -> file.exists() && !isCompiledFromSource(file) }
+            .forEach { file -> file.delete() }
+    }
+
+    private fun createReader(): ByteArray {
+        val readerType = Type.getObjectType("${packet.internalName}_READER")
+        val writer = createClass(readerType, packetReader)
+        createFieldsAndConstructor(writer, readerType)
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "read",
+            Type.getMethodDescriptor(objectType, serializerContext, dataVisitor),
+            null,
+            arrayOf<String>()
+        ).run {
+            if (fixedLayoutSize > 0) visitFixedLayoutRead(this, readerType)
+            visitTypeInsn(NEW, packet.internalName)
+            visitInsn(DUP)
+            visitMethodInsn(INVOKESPECIAL, packet.internalName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false)
+            visitVarInsn(ASTORE, 3)
+            fields.forEach { field ->
+                val serializerType = getSerializerType(field.type)
+                visitVarInsn(ALOAD, 3)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, readerType.internalName, "\$SERIALIZER_${field.name}", serializerType.descriptor)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, readerType.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+                visitVarInsn(ALOAD, 2)
+                if (serializerType != serializer) {
+                    visitMethodInsn(
+                        INVOKEINTERFACE,
+                        serializerType.internalName,
+                        "deserialize${getPrimitiveSuffix(field.type)}",
+                        Type.getMethodDescriptor(field.type, serializerContext, dataVisitor),
+                        true
+                    )
+                } else {
+                    visitMethodInsn(
+                        INVOKEINTERFACE,
+                        serializer.internalName,
+                        "deserialize",
+                        Type.getMethodDescriptor(objectType, serializerContext, dataVisitor),
+                        true
+                    )
+                    convertTopObject(this, field.type)
+                }
+                visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    packet.internalName,
+                    "\$SET_${field.name}",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, field.type),
+                    false
+                )
+            }
+            visitVarInsn(ALOAD, 3)
+            visitInsn(ARETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "skip",
+            Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor),
+            null,
+            arrayOf<String>()
+        ).run {
+            if (fixedLayoutSize > 0) {
+                val fallback = Label()
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, readerType.internalName, "\$FIXED_LAYOUT", Type.BOOLEAN_TYPE.descriptor)
+                visitJumpInsn(IFEQ, fallback)
+                visitVarInsn(ALOAD, 2)
+                visitLdcInsn(fixedLayoutSize)
+                visitMethodInsn(INVOKEINTERFACE, dataVisitor.internalName, "skipBytes", Type.getMethodDescriptor(dataVisitor, Type.INT_TYPE), true)
+                visitInsn(POP)
+                visitInsn(RETURN)
+                visitLabel(fallback)
+            }
+            fields.forEach { field ->
+                val serializerType = getSerializerType(field.type)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, readerType.internalName, "\$SERIALIZER_${field.name}", serializerType.descriptor)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, readerType.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+                visitVarInsn(ALOAD, 2)
+                visitMethodInsn(
+                    INVOKEINTERFACE,
+                    serializerType.internalName,
+                    "skip",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor),
+                    true
+                )
+            }
+            visitInsn(RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitEnd()
+        return writer.toByteArray()
+    }
+
+    private fun createWriter(): ByteArray {
+        val writerType = Type.getObjectType("${packet.internalName}_WRITER")
+        val writer = createClass(writerType, packetWriter)
+        createFieldsAndConstructor(writer, writerType)
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "write",
+            Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor, objectType),
+            null,
+            arrayOf<String>()
+        ).run {
+            visitVarInsn(ALOAD, 3)
+            visitTypeInsn(CHECKCAST, packet.internalName)
+            visitVarInsn(ASTORE, 4)
+            if (fixedLayoutSize > 0) visitFixedLayoutWrite(this, writerType)
+            fields.forEach { field ->
+                val serializerType = getSerializerType(field.type)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, writerType.internalName, "\$SERIALIZER_${field.name}", serializerType.descriptor)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, writerType.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+                visitVarInsn(ALOAD, 2)
+                visitVarInsn(ALOAD, 4)
+                visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    packet.internalName,
+                    "\$GET_${field.name}",
+                    Type.getMethodDescriptor(field.type),
+                    false
+                )
+                if (serializerType != serializer) {
+                    visitMethodInsn(
+                        INVOKEINTERFACE,
+                        serializerType.internalName,
+                        "serialize${getPrimitiveSuffix(field.type)}",
+                        Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor, field.type),
+                        true
+                    )
+                    return@forEach
+                }
+                if (isPrimitive(field.type))
+                    visitMethodInsn(INVOKESTATIC, autoBoxer.internalName, "box", Type.getMethodDescriptor(getBoxedType(field.type), field.type), false)
+                visitMethodInsn(
+                    INVOKEINTERFACE,
+                    serializer.internalName,
+                    "serialize",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor, objectType),
+                    true
+                )
+            }
+            visitInsn(RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "sizeOf",
+            Type.getMethodDescriptor(Type.INT_TYPE, serializerContext, objectType),
+            null,
+            arrayOf<String>()
+        ).run {
+            visitVarInsn(ALOAD, 2)
+            visitTypeInsn(CHECKCAST, packet.internalName)
+            visitVarInsn(ASTORE, 3)
+            visitInsn(LCONST_0)
+            fields.forEach { field ->
+                val serializerType = getSerializerType(field.type)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, writerType.internalName, "\$SERIALIZER_${field.name}", serializerType.descriptor)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, writerType.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+                visitVarInsn(ALOAD, 3)
+                visitMethodInsn(
+                    INVOKEVIRTUAL,
+                    packet.internalName,
+                    "\$GET_${field.name}",
+                    Type.getMethodDescriptor(field.type),
+                    false
+                )
+                if (serializerType != serializer) {
+                    visitMethodInsn(
+                        INVOKEINTERFACE,
+                        serializerType.internalName,
+                        "sizeOf${getPrimitiveSuffix(field.type)}",
+                        Type.getMethodDescriptor(Type.INT_TYPE, serializerContext, field.type),
+                        true
+                    )
+                } else {
+                    if (isPrimitive(field.type))
+                        visitMethodInsn(INVOKESTATIC, autoBoxer.internalName, "box", Type.getMethodDescriptor(getBoxedType(field.type), field.type), false)
+                    visitMethodInsn(
+                        INVOKEINTERFACE,
+                        serializer.internalName,
+                        "sizeOf",
+                        Type.getMethodDescriptor(Type.INT_TYPE, serializerContext, objectType),
+                        true
+                    )
+                }
+                visitInsn(I2L)
+                visitInsn(LADD)
+            }
+            // sizes that do not fit in int are returned as Int.MAX_VALUE
+            visitLdcInsn(Int.MAX_VALUE.toLong())
+            visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName(Math::class.java),
+                "min",
+                Type.getMethodDescriptor(Type.LONG_TYPE, Type.LONG_TYPE, Type.LONG_TYPE),
+                false
+            )
+            visitInsn(L2I)
+            visitInsn(IRETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitEnd()
+        return writer.toByteArray()
+    }
+
+    private fun createCustomReader(): ByteArray {
+        val readerType = Type.getObjectType("${packet.internalName}_READER")
+        val writer = createClass(readerType, packetReader)
+        createEmptyConstructor(writer)
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "read",
+            Type.getMethodDescriptor(objectType, serializerContext, dataVisitor),
+            null,
+            arrayOf<String>()
+        ).run {
+            visitTypeInsn(NEW, packet.internalName)
+            visitInsn(DUP)
+            visitMethodInsn(INVOKESPECIAL, packet.internalName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false)
+            visitVarInsn(ASTORE, 3)
+            visitVarInsn(ALOAD, 3)
+            visitVarInsn(ALOAD, 1)
+            visitVarInsn(ALOAD, 2)
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                packet.internalName,
+                "construct",
+                Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor),
+                false
+            )
+            visitVarInsn(ALOAD, 3)
+            visitInsn(ARETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitEnd()
+        return writer.toByteArray()
+    }
+
+    private fun createCustomWriter(): ByteArray {
+        val writerType = Type.getObjectType("${packet.internalName}_WRITER")
+        val writer = createClass(writerType, packetWriter)
+        createEmptyConstructor(writer)
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "write",
+            Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor, objectType),
+            null,
+            arrayOf<String>()
+        ).run {
+            visitVarInsn(ALOAD, 3)
+            visitTypeInsn(CHECKCAST, packet.internalName)
+            visitVarInsn(ALOAD, 1)
+            visitVarInsn(ALOAD, 2)
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                packet.internalName,
+                "deconstruct",
+                Type.getMethodDescriptor(Type.VOID_TYPE, serializerContext, dataVisitor),
+                false
+            )
+            visitInsn(RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+
+        writer.visitEnd()
+        return writer.toByteArray()
+    }
+
+    private fun createClass(type: Type, codecInterface: Type): ClassWriter {
+        val writer = ClassWriter(ClassWriter.COMPUTE_MAXS or ClassWriter.COMPUTE_FRAMES)
+        writer.visit(
+            V21,
+            ACC_PUBLIC,
+            type.internalName,
+            "L${codecInterface.internalName}<${packet.descriptor}>;",
+            objectType.internalName,
+            arrayOf(codecInterface.internalName)
+        )
+        return writer
+    }
+
+    private fun createEmptyConstructor(writer: ClassWriter) {
+        writer.visitMethod(ACC_PUBLIC, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), null, arrayOf<String>()).run {
+            visitVarInsn(ALOAD, 0)
+            visitMethodInsn(INVOKESPECIAL, objectType.internalName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false)
+            visitInsn(RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+    }
+
+    /**
+     * Creates fields holding serializer and serialization context of each packet field
+     * and constructor that initializes them using provided serializer provider.
+     */
+    private fun createFieldsAndConstructor(writer: ClassWriter, owner: Type) {
+        fields.forEach { field ->
+            writer.visitField(ACC_PRIVATE or ACC_FINAL, "\$CONTEXT_${field.name}", serializerContext.descriptor, null, null).visitEnd()
+            writer.visitField(ACC_PRIVATE or ACC_FINAL, "\$SERIALIZER_${field.name}", getSerializerType(field.type).descriptor, null, null).visitEnd()
+        }
+        if (fixedLayoutSize > 0)
+            writer.visitField(ACC_PRIVATE or ACC_FINAL, "\$FIXED_LAYOUT", Type.BOOLEAN_TYPE.descriptor, null, null).visitEnd()
+
+        writer.visitMethod(
+            ACC_PUBLIC,
+            "<init>",
+            Type.getMethodDescriptor(Type.VOID_TYPE, serializerProvider),
+            null,
+            arrayOf<String>()
+        ).run {
+            visitVarInsn(ALOAD, 0)
+            visitMethodInsn(INVOKESPECIAL, objectType.internalName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false)
+            fields.forEach { field ->
+                val serializerType = getSerializerType(field.type)
+                visitVarInsn(ALOAD, 0)
+                visitVarInsn(ALOAD, 1)
+                visitLdcInsn(packet)
+                visitLdcInsn(field.name)
+                visitMethodInsn(
+                    INVOKESTATIC,
+                    processorsUtil.internalName,
+                    "createContextForField",
+                    Type.getMethodDescriptor(serializerContext, serializerProvider, classType, stringType),
+                    false
+                )
+                visitFieldInsn(PUTFIELD, owner.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+
+                visitVarInsn(ALOAD, 0)
+                visitVarInsn(ALOAD, 0)
+                visitFieldInsn(GETFIELD, owner.internalName, "\$CONTEXT_${field.name}", serializerContext.descriptor)
+                visitMethodInsn(INVOKEVIRTUAL, serializerContext.internalName, "serializeWith", Type.getMethodDescriptor(serializer), false)
+                if (serializerType != serializer)
+                    visitMethodInsn(INVOKESTATIC, serializerType.internalName, "adapt", Type.getMethodDescriptor(serializerType, serializer), true)
+                visitFieldInsn(PUTFIELD, owner.internalName, "\$SERIALIZER_${field.name}", serializerType.descriptor)
+            }
+            if (fixedLayoutSize > 0) {
+                visitVarInsn(ALOAD, 0)
+                visitVarInsn(ALOAD, 1)
+                visitLdcInsn(packet)
+                visitInsn(ICONST_0)
+                visitMethodInsn(
+                    INVOKESTATIC,
+                    processorsUtil.internalName,
+                    "isFixedLayout",
+                    Type.getMethodDescriptor(Type.BOOLEAN_TYPE, serializerProvider, classType, Type.BOOLEAN_TYPE),
+                    false
+                )
+                visitFieldInsn(PUTFIELD, owner.internalName, "\$FIXED_LAYOUT", Type.BOOLEAN_TYPE.descriptor)
+            }
+            visitInsn(RETURN)
+            visitMaxs(0, 0)
+            visitEnd()
+        }
+    }
+
+    /**
+     * Visits code that reads the packet using its fixed layout, if the packet uses it
+     * and the data visitor is backed by netty buffer, and returns the packet.
+     * <p>
+     * The reader index is moved past the whole packet first, which is the only bounds check,
+     * and the fields are then read using absolute buffer operations.
+     */
+    private fun visitFixedLayoutRead(visitor: MethodVisitor, owner: Type) = visitor.run {
+        val bufferLocal = 3
+        val indexLocal = 4
+        val packetLocal = 5
+        val fallback = Label()
+        visitFixedLayoutBuffer(this, owner, bufferLocal, fallback)
+        visitVarInsn(ALOAD, bufferLocal)
+        visitMethodInsn(INVOKEVIRTUAL, byteBuf.internalName, "readerIndex", Type.getMethodDescriptor(Type.INT_TYPE), false)
+        visitVarInsn(ISTORE, indexLocal)
+        // fails if the packet is not readable as whole
+        visitFixedLayoutIndex(this, bufferLocal, indexLocal, fixedLayoutSize)
+        visitMethodInsn(INVOKEVIRTUAL, byteBuf.internalName, "readerIndex", Type.getMethodDescriptor(byteBuf, Type.INT_TYPE), false)
+        visitInsn(POP)
+        visitTypeInsn(NEW, packet.internalName)
+        visitInsn(DUP)
+        visitMethodInsn(INVOKESPECIAL, packet.internalName, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false)
+        visitVarInsn(ASTORE, packetLocal)
+        var offset = 0
+        fields.forEach { field ->
+            visitVarInsn(ALOAD, packetLocal)
+            visitFixedLayoutIndex(this, bufferLocal, indexLocal, offset)
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                byteBuf.internalName,
+                "get${getFixedLayoutSuffix(field.type)}",
+                Type.getMethodDescriptor(field.type, Type.INT_TYPE),
+                false
+            )
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                packet.internalName,
+                "\$SET_${field.name}",
+                Type.getMethodDescriptor(Type.VOID_TYPE, field.type),
+                false
+            )
+            offset += getFixedWidth(field.type)!!
+        }
+        visitVarInsn(ALOAD, packetLocal)
+        visitInsn(ARETURN)
+        visitLabel(fallback)
+    }
+
+    /**
+     * Visits code that writes the packet using its fixed layout, if the packet uses it
+     * and the data visitor is backed by netty buffer, and returns from the method.
+     * <p>
+     * The whole packet is written after a single bounds check using absolute buffer
+     * operations, followed by one update of the writer index.
+     */
+    private fun visitFixedLayoutWrite(visitor: MethodVisitor, owner: Type) = visitor.run {
+        val bufferLocal = 5
+        val indexLocal = 6
+        val fallback = Label()
+        visitFixedLayoutBuffer(this, owner, bufferLocal, fallback)
+        visitVarInsn(ALOAD, bufferLocal)
+        visitLdcInsn(fixedLayoutSize)
+        visitMethodInsn(INVOKEVIRTUAL, byteBuf.internalName, "ensureWritable", Type.getMethodDescriptor(byteBuf, Type.INT_TYPE), false)
+        visitInsn(POP)
+        visitVarInsn(ALOAD, bufferLocal)
+        visitMethodInsn(INVOKEVIRTUAL, byteBuf.internalName, "writerIndex", Type.getMethodDescriptor(Type.INT_TYPE), false)
+        visitVarInsn(ISTORE, indexLocal)
+        var offset = 0
+        fields.forEach { field ->
+            visitFixedLayoutIndex(this, bufferLocal, indexLocal, offset)
+            visitVarInsn(ALOAD, 4)
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                packet.internalName,
+                "\$GET_${field.name}",
+                Type.getMethodDescriptor(field.type),
+                false
+            )
+            // bytes, shorts, and chars are set as ints
+            val valueType = when (field.type.sort) {
+                Type.BYTE, Type.SHORT, Type.CHAR -> Type.INT_TYPE
+                else -> field.type
+            }
+            visitMethodInsn(
+                INVOKEVIRTUAL,
+                byteBuf.internalName,
+                "set${getFixedLayoutSuffix(field.type)}",
+                Type.getMethodDescriptor(byteBuf, Type.INT_TYPE, valueType),
+                false
+            )
+            visitInsn(POP)
+            offset += getFixedWidth(field.type)!!
+        }
+        visitFixedLayoutIndex(this, bufferLocal, indexLocal, fixedLayoutSize)
+        visitMethodInsn(INVOKEVIRTUAL, byteBuf.internalName, "writerIndex", Type.getMethodDescriptor(byteBuf, Type.INT_TYPE), false)
+        visitInsn(POP)
+        visitInsn(RETURN)
+        visitLabel(fallback)
+    }
+
+    private fun visitFixedLayoutBuffer(visitor: MethodVisitor, owner: Type, bufferLocal: Int, fallback: Label) = visitor.run {
+        visitVarInsn(ALOAD, 0)
+        visitFieldInsn(GETFIELD, owner.internalName, "\$FIXED_LAYOUT", Type.BOOLEAN_TYPE.descriptor)
+        visitJumpInsn(IFEQ, fallback)
+        visitVarInsn(ALOAD, 2)
+        visitTypeInsn(INSTANCEOF, nettyDataVisitor.internalName)
+        visitJumpInsn(IFEQ, fallback)
+        visitVarInsn(ALOAD, 2)
+        visitTypeInsn(CHECKCAST, nettyDataVisitor.internalName)
+        visitMethodInsn(INVOKEVIRTUAL, nettyDataVisitor.internalName, "getByteBuf", Type.getMethodDescriptor(byteBuf), false)
+        visitVarInsn(ASTORE, bufferLocal)
+    }
+
+    private fun visitFixedLayoutIndex(visitor: MethodVisitor, bufferLocal: Int, indexLocal: Int, offset: Int) = visitor.run {
+        visitVarInsn(ALOAD, bufferLocal)
+        visitVarInsn(ILOAD, indexLocal)
+        if (offset == 0) return@run
+        visitLdcInsn(offset)
+        visitInsn(IADD)
+    }
+
+    /**
+     * Returns the number of bytes the packet takes if all of its fields are primitives
+     * with fixed width, or -1, equivalent to {@code ProcessorsUtil#getFixedLayoutSize}.
+     */
+    private fun getFixedLayoutSize(): Int {
+        if (custom || fields.isEmpty()) return -1
+        var size = 0
+        fields.forEach { field -> size += getFixedWidth(field.type) ?: return -1 }
+        return size
+    }
+
+    private fun getFixedWidth(type: Type): Int? {
+        return when (type.sort) {
+            Type.BOOLEAN, Type.BYTE -> 1
+            Type.SHORT, Type.CHAR -> 2
+            Type.INT, Type.FLOAT -> 4
+            Type.LONG, Type.DOUBLE -> 8
+            else -> null
+        }
+    }
+
+    private fun getFixedLayoutSuffix(type: Type): String = type.className.replaceFirstChar { it.uppercase() }
+
+    /**
+     * Converts object on the top of the stack to given type, unboxing
+     * primitives and safely casting other objects.
+     */
+    private fun convertTopObject(visitor: MethodVisitor, target: Type) {
+        if (isPrimitive(target)) {
+            val methodName = "as" + target.className.replaceFirstChar { it.uppercase() }
+            visitor.visitMethodInsn(INVOKESTATIC, unboxer.internalName, methodName, Type.getMethodDescriptor(target, objectType), false)
+            return
+        }
+        visitor.visitLdcInsn(target)
+        visitor.visitMethodInsn(
+            INVOKESTATIC,
+            safeCastConverter.internalName,
+            "safeCast",
+            Type.getMethodDescriptor(objectType, objectType, classType),
+            false
+        )
+        visitor.visitTypeInsn(CHECKCAST, target.internalName)
+    }
+
+    /**
+     * Returns type of the serializer used for fields of given type, primitive
+     * serializer for int, long, float, double, and boolean, serializer otherwise.
+     */
+    private fun getSerializerType(type: Type): Type {
+        val suffix = getPrimitiveSuffix(type) ?: return serializer
+        return PluginUtils.getType("org.machinemc.paklet.serialization.${suffix}Serializer")
+    }
+
+    private fun getPrimitiveSuffix(type: Type): String? {
+        return when (type.sort) {
+            Type.INT -> "Int"
+            Type.LONG -> "Long"
+            Type.FLOAT -> "Float"
+            Type.DOUBLE -> "Double"
+            Type.BOOLEAN -> "Boolean"
+            else -> null
+        }
+    }
+
+    private fun isPrimitive(type: Type): Boolean = type.sort != Type.OBJECT && type.sort != Type.ARRAY
+
+    private fun getBoxedType(type: Type): Type {
+        return when (type.sort) {
+            Type.BOOLEAN -> PluginUtils.getType("java.lang.Boolean")
+            Type.CHAR -> PluginUtils.getType("java.lang.Character")
+            Type.BYTE -> PluginUtils.getType("java.lang.Byte")
+            Type.SHORT -> PluginUtils.getType("java.lang.Short")
+            Type.INT -> PluginUtils.getType("java.lang.Integer")
+            Type.FLOAT -> PluginUtils.getType("java.lang.Float")
+            Type.LONG -> PluginUtils.getType("java.lang.Long")
+            Type.DOUBLE -> PluginUtils.getType("java.lang.Double")
+            else -> throw IllegalArgumentException()
+        }
+    }
+
+    /**
+     * Checks whether the class file exists and was compiled from a source file.
+     * Classes generated by this generator do not have any source file attribute.
+     */
+    private fun isCompiledFromSource(file: File): Boolean {
+        if (!file.exists()) return false
+        var compiled = false
+        PluginUtils.readClass(file, object : ClassVisitor(ASM9) {
+            override fun visitSource(source: String?, debug: String?) {
+                compiled = source != null
+            }
+        })
+        return compiled
+    }
+
+}
@@ -9,24 +9,49 @@ import java.io.File
  * Byte code modifier that checks if provided file is legitimate packet class
  * and if so, adds internal getters and setters later on used for fast packet
  * serialization and deserialization.
+ * <p>
+ * Records and packets with final fields are kept unmodified, those are
+ * created using their constructor accepting all fields during runtime.
  */
 class PacketExpander(file: File) {
 
     /**
      * Class representing field of a class.
      */
-    data class Field(val name: String, val type: Type)
+    data class Field(val name: String, val type: Type, val static: Boolean = false)
 
-    private lateinit var type: Type
+    lateinit var type: Type
+        private set
+    var custom = false
+        private set
+
+    /**
+     * Whether the packet is a record or has final fields.
+     */
+    var immutable = false
+        private set
+    private var noArgsConstructor = false
     private var id = -1
     private val fields: MutableList<Field> = ArrayList()
 
+    /**
+     * Fields of the packet used for packet serialization.
+     */
+    val serializableFields: List<Field>
+        get() = fields.filter { !it.static }
+
     /**
      * Process of the verification and further bytecode modification.
      */
     init {
         PluginUtils.readClass(file, PacketExtractor())
         PluginUtils.readClass(file, FieldExtractor())
+        if (!immutable) expand(file)
+    }
+
+    private fun expand(file: File) {
+        if (!noArgsConstructor)
+            throw IllegalStateException("Packet ${type.internalName} has no public constructor without arguments")
         PluginUtils.readClassAndModify(file, OldMethodRemover()) { visitor -> visitor.toByteArray() }
         PluginUtils.readClassAndModify(file, GetterSetterInjector()) { visitor -> visitor.toByteArray() }
     }
@@ -36,14 +61,16 @@ class PacketExpander(file: File) {
      */
     inner class PacketExtractor : ClassVisitor(ASM9) {
 
-        private var noArgsConstructor = false
         private val packet: Type = PluginUtils.getType("org.machinemc.paklet.Packet")
         private val customPacket: Type = PluginUtils.getType("org.machinemc.paklet.CustomPacket")
 
         override fun visit(version: Int, access: Int, name: String?, signature: String?, superName: String?, interfaces: Array<out String>?) {
             type = PluginUtils.getTypeFromInternal(name!!)
             val interfaceTypes = interfaces!!.map { PluginUtils.getTypeFromInternal(it) }.toList()
-            if (superName != Type.getType(Object::class.java).internalName && !interfaceTypes.contains(customPacket))
+            custom = interfaceTypes.contains(customPacket)
+            if (superName == Type.getType(Record::class.java).internalName && !custom)
+                immutable = true
+            else if (superName != Type.getType(Object::class.java).internalName && !custom)
                 throw IllegalStateException("Packet ${type.internalName} must either not extend any class or implement custom packet logic")
             super.visit(version, access, name, signature, superName, interfaces)
         }
@@ -60,12 +87,6 @@ class PacketExpander(file: File) {
             return super.visitAnnotation(descriptor, visible)
         }
 
-        override fun visitEnd() {
-            if (!noArgsConstructor)
-                throw IllegalStateException("Packet ${type.internalName} has no public constructor without arguments")
-            super.visitEnd()
-        }
-
         /**
          * Annotation visitor that saves the packet ID.
          */
@@ -86,11 +107,13 @@ class PacketExpander(file: File) {
     inner class FieldExtractor : ClassVisitor(ASM9) {
 
         private var lastField: Field? = null
+        private var lastFinal = false
 
         override fun visitField(access: Int, name: String?, descriptor: String?, signature: String?, value: Any?): FieldVisitor {
-            lastField = if (access and ACC_TRANSIENT == 0) Field(name!!, Type.getType(descriptor)) else null
-            if (lastField != null && access and ACC_FINAL != 0 && access and ACC_STATIC == 0)
-                throw IllegalStateException("Not static packet fields can not be marked as final - ${type.internalName}.${name}")
+            lastField = if (access and ACC_TRANSIENT == 0) Field(name!!, Type.getType(descriptor), access and ACC_STATIC != 0) else null
+            lastFinal = access and ACC_FINAL != 0 && access and ACC_STATIC == 0
+            if (lastField != null && lastFinal && custom)
+                throw IllegalStateException("Not static fields of custom packets can not be marked as final - ${type.internalName}.${name}")
             return AnnotationChecker(super.visitField(access, name, descriptor, signature, value))
         }
 
@@ -108,7 +131,10 @@ class PacketExpander(file: File) {
             }
 
             override fun visitEnd() {
-                if (!ignored && lastField != null) this@PacketExpander.fields.add(lastField!!)
+                if (!ignored && lastField != null) {
+                    this@PacketExpander.fields.add(lastField!!)
+                    if (lastFinal) immutable = true
+                }
                 lastField = null
                 super.visitEnd()
             }
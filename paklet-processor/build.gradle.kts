@@ -10,6 +10,9 @@ dependencies {
     annotationProcessor(libs.google.autoservice)
 
     implementation(libs.google.gson)
+
+    testImplementation(project(":paklet-core"))
+    testImplementation(libs.netty)
 }
 
 publishing {
@@ -0,0 +1,539 @@
+package org.machinemc.paklet.processor;
+
+import org.machinemc.paklet.CustomPacket;
+import org.machinemc.paklet.modifiers.Ignore;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Generates Java sources of packet readers and writers.
+ * <p>
+ * Generated classes follow the same naming and constructor conventions as the
+ * readers and writers generated during runtime by {@code paklet-core}, so they
+ * are picked up automatically by the packet factory.
+ * <p>
+ * Sources can be generated only for packets that can be accessed from their package,
+ * i.e. the packet, its constructor without arguments and its serializable fields are not private,
+ * and the serializable fields are not final. Records and packets with final fields are instead
+ * created using their not private constructor accepting all serializable fields.
+ */
+public class CodecSourceGenerator {
+
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\"" + PakletProcessor.class.getName() + "\")";
+
+    private static final String DATA_VISITOR = "org.machinemc.paklet.DataVisitor";
+    private static final String PACKET_READER = "org.machinemc.paklet.PacketReader";
+    private static final String PACKET_WRITER = "org.machinemc.paklet.PacketWriter";
+    private static final String SERIALIZER = "org.machinemc.paklet.serialization.Serializer";
+    private static final String SERIALIZER_CONTEXT = "org.machinemc.paklet.serialization.SerializerContext";
+    private static final String SERIALIZER_PROVIDER = "org.machinemc.paklet.serialization.SerializerProvider";
+    private static final String NETTY_DATA_VISITOR = "org.machinemc.paklet.netty.NettyDataVisitor";
+    private static final String PROCESSORS_UTIL = "org.machinemc.paklet.processors.ProcessorsUtil";
+    private static final String BYTE_BUF = "io.netty.buffer.ByteBuf";
+
+    // primitive types with their own serializer types, mapped to the suffix of their methods
+    private static final Map<TypeKind, String> PRIMITIVE_SERIALIZERS = Map.of(
+            TypeKind.INT, "Int",
+            TypeKind.LONG, "Long",
+            TypeKind.FLOAT, "Float",
+            TypeKind.DOUBLE, "Double",
+            TypeKind.BOOLEAN, "Boolean"
+    );
+
+    // primitive types serialized with fixed width by their default serializers, same as in paklet-core
+    private static final Map<TypeKind, Integer> FIXED_WIDTHS = Map.of(
+            TypeKind.BOOLEAN, 1,
+            TypeKind.BYTE, Byte.BYTES,
+            TypeKind.SHORT, Short.BYTES,
+            TypeKind.CHAR, Character.BYTES,
+            TypeKind.INT, Integer.BYTES,
+            TypeKind.LONG, Long.BYTES,
+            TypeKind.FLOAT, Float.BYTES,
+            TypeKind.DOUBLE, Double.BYTES
+    );
+
+    private final ProcessingEnvironment processingEnv;
+
+    public CodecSourceGenerator(ProcessingEnvironment processingEnv) {
+        this.processingEnv = processingEnv;
+    }
+
+    /**
+     * Generates reader and writer sources for given packet.
+     * <p>
+     * Besides the writer, trusted writer that does not check values of the packets
+     * against the constraints of their types is generated, see {@code SerializerContext#trusted()}.
+     * <p>
+     * If the sources can not be generated for the packet, a note is reported
+     * and the packet will use readers and writers created during runtime.
+     * <p>
+     * Codecs of packets with fixed layout, see {@link #getFixedLayoutSize(List)}, read and write
+     * the packets backed by netty buffers the same way as codecs created during runtime, if
+     * {@code paklet-core} is available during the compilation.
+     *
+     * @param packet packet type element
+     * @throws IOException if writing of the sources fails
+     */
+    public void generate(TypeElement packet) throws IOException {
+        String unsupported = checkSupported(packet);
+        if (unsupported != null) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.NOTE,
+                    "Paklet codecs are not generated for " + packet.getQualifiedName() + ", " + unsupported,
+                    packet
+            );
+            return;
+        }
+
+        boolean custom = isCustomPacket(packet);
+        List<VariableElement> fields = custom ? List.of() : collectSerializableFields(packet);
+
+        writeSource(packet, "_READER", out -> {
+            if (custom) writeCustomReader(out, packet);
+            else writeReader(out, packet, fields);
+        });
+        writeSource(packet, "_WRITER", out -> {
+            if (custom) writeCustomWriter(out, packet);
+            else writeWriter(out, packet, fields, false);
+        });
+        // custom packets are trusted only if the context they are given is
+        if (!custom) writeSource(packet, "_TRUSTED_WRITER", out -> writeWriter(out, packet, fields, true));
+    }
+
+    /**
+     * Checks whether sources can be generated for given packet.
+     *
+     * @param packet packet type element
+     * @return reason why sources can not be generated, or null if they can be
+     */
+    private String checkSupported(TypeElement packet) {
+        if (packet.getModifiers().contains(Modifier.PRIVATE) || packet.getModifiers().contains(Modifier.ABSTRACT))
+            return "packet class is private or abstract";
+        if (packet.getNestingKind() != NestingKind.TOP_LEVEL && packet.getNestingKind() != NestingKind.MEMBER)
+            return "packet class is local or anonymous";
+        if (packet.getNestingKind() == NestingKind.MEMBER && !packet.getModifiers().contains(Modifier.STATIC))
+            return "packet class is an inner class";
+        if (!packet.getTypeParameters().isEmpty())
+            return "packet class has type parameters";
+        if (!isCustomPacket(packet) && isImmutable(packet)) {
+            if (findFieldsConstructor(packet) == null)
+                return "packet class has no accessible constructor accepting all serializable fields";
+            if (packet.getKind() == ElementKind.RECORD) return null;
+            for (VariableElement field : collectSerializableFields(packet)) {
+                if (field.getModifiers().contains(Modifier.PRIVATE))
+                    return "field " + field.getSimpleName() + " is private";
+            }
+            return null;
+        }
+        boolean constructor = ElementFilter.constructorsIn(packet.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor)
+            return "packet class has no accessible constructor without arguments";
+        if (isCustomPacket(packet)) return null;
+        for (VariableElement field : collectSerializableFields(packet)) {
+            if (field.getModifiers().contains(Modifier.PRIVATE))
+                return "field " + field.getSimpleName() + " is private";
+            if (field.getModifiers().contains(Modifier.FINAL))
+                return "field " + field.getSimpleName() + " is final";
+        }
+        return null;
+    }
+
+    private void writeReader(PrintWriter out, TypeElement packet, List<VariableElement> fields) {
+        String packetName = typeName(packet.asType());
+        String className = codecSimpleName(packet, "_READER");
+
+        out.println("public final class " + className + " implements " + PACKET_READER + "<" + packetName + "> {");
+        out.println();
+        writeFieldsAndConstructor(out, packet, className, fields, false);
+        out.println("    @Override");
+        out.println("    public " + packetName + " read(" + SERIALIZER_CONTEXT + " context, " + DATA_VISITOR + " visitor) {");
+        boolean immutable = isImmutable(packet);
+        int size = getFixedLayoutSize(fields);
+        if (size > 0) writeFixedLayoutRead(out, packetName, fields, size, immutable);
+        if (!immutable) out.println("        " + packetName + " packet = new " + packetName + "();");
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            String primitive = PRIMITIVE_SERIALIZERS.get(field.asType().getKind());
+            String value;
+            if (primitive != null) {
+                value = "$SERIALIZER_" + name + ".deserialize" + primitive + "($CONTEXT_" + name + ", visitor)";
+            } else {
+                String castType = field.asType().getKind().isPrimitive()
+                        ? boxedName(field.asType())
+                        : typeName(field.asType());
+                value = "(" + castType + ") $SERIALIZER_" + name + ".deserialize($CONTEXT_" + name + ", visitor)";
+            }
+            if (immutable)
+                out.println("        " + typeName(field.asType()) + " $" + name + " = " + value + ";");
+            else
+                out.println("        packet." + name + " = " + value + ";");
+        }
+        if (immutable) {
+            String arguments = fields.stream()
+                    .map(field -> "$" + field.getSimpleName())
+                    .collect(Collectors.joining(", "));
+            out.println("        return new " + packetName + "(" + arguments + ");");
+        } else {
+            out.println("        return packet;");
+        }
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public void skip(" + SERIALIZER_CONTEXT + " context, " + DATA_VISITOR + " visitor) {");
+        if (size > 0) {
+            out.println("        if ($FIXED_LAYOUT) {");
+            out.println("            visitor.skipBytes(" + size + ");");
+            out.println("            return;");
+            out.println("        }");
+        }
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            out.println("        $SERIALIZER_" + name + ".skip($CONTEXT_" + name + ", visitor);");
+        }
+        out.println("    }");
+        out.println();
+        writeContextMethod(out, packetName);
+        out.println("}");
+    }
+
+    private void writeWriter(PrintWriter out, TypeElement packet, List<VariableElement> fields, boolean trusted) {
+        String packetName = typeName(packet.asType());
+        String className = codecSimpleName(packet, trusted ? "_TRUSTED_WRITER" : "_WRITER");
+
+        out.println("public final class " + className + " implements " + PACKET_WRITER + "<" + packetName + "> {");
+        out.println();
+        writeFieldsAndConstructor(out, packet, className, fields, trusted);
+        out.println("    @Override");
+        out.println("    public void write(" + SERIALIZER_CONTEXT + " context, " + DATA_VISITOR + " visitor, " + packetName + " packet) {");
+        // record fields are private, their values are accessed using the accessor methods
+        String accessor = packet.getKind() == ElementKind.RECORD ? "()" : "";
+        int size = getFixedLayoutSize(fields);
+        if (size > 0) writeFixedLayoutWrite(out, fields, size, accessor);
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            String primitive = PRIMITIVE_SERIALIZERS.get(field.asType().getKind());
+            String method = primitive != null ? "serialize" + primitive : "serialize";
+            out.println("        $SERIALIZER_" + name + "." + method + "($CONTEXT_" + name + ", visitor, packet." + name + accessor + ");");
+        }
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    public int sizeOf(" + SERIALIZER_CONTEXT + " context, " + packetName + " packet) {");
+        out.println("        long size = 0;");
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            String primitive = PRIMITIVE_SERIALIZERS.get(field.asType().getKind());
+            String method = primitive != null ? "sizeOf" + primitive : "sizeOf";
+            out.println("        size += $SERIALIZER_" + name + "." + method + "($CONTEXT_" + name + ", packet." + name + accessor + ");");
+        }
+        out.println("        return (int) Math.min(Integer.MAX_VALUE, size);");
+        out.println("    }");
+        out.println();
+        writeContextMethod(out, packetName);
+        out.println("}");
+    }
+
+    private void writeFieldsAndConstructor(PrintWriter out, TypeElement packet, String className, List<VariableElement> fields, boolean trusted) {
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            out.println("    private final " + SERIALIZER_CONTEXT + " $CONTEXT_" + name + ";");
+            out.println("    private final " + serializerType(field.asType()) + " $SERIALIZER_" + name + ";");
+        }
+        boolean fixedLayout = getFixedLayoutSize(fields) > 0;
+        if (fixedLayout) out.println("    private final boolean $FIXED_LAYOUT;");
+        if (!fields.isEmpty()) out.println();
+        out.println("    public " + className + "(" + SERIALIZER_PROVIDER + " serializerProvider) {");
+        for (VariableElement field : fields) {
+            String name = field.getSimpleName().toString();
+            String primitive = PRIMITIVE_SERIALIZERS.get(field.asType().getKind());
+            out.println("        $CONTEXT_" + name + " = context(serializerProvider, \"" + name + "\")" + (trusted ? ".trusted()" : "") + ";");
+            if (primitive != null)
+                out.println("        $SERIALIZER_" + name + " = " + serializerType(field.asType()) + ".adapt($CONTEXT_" + name + ".serializeWith());");
+            else
+                out.println("        $SERIALIZER_" + name + " = $CONTEXT_" + name + ".serializeWith();");
+        }
+        if (fixedLayout) {
+            String packetName = typeName(packet.asType());
+            out.println("        $FIXED_LAYOUT = " + PROCESSORS_UTIL + ".isFixedLayout(serializerProvider, " + packetName + ".class, " + trusted + ");");
+        }
+        out.println("    }");
+        out.println();
+    }
+
+    /**
+     * Writes code that reads the packet using its fixed layout if the packet uses it
+     * and the data visitor is backed by netty buffer. The reader index is moved past
+     * the whole packet first, which is the only bounds check.
+     */
+    private void writeFixedLayoutRead(PrintWriter out, String packetName, List<VariableElement> fields, int size, boolean immutable) {
+        out.println("        if ($FIXED_LAYOUT && visitor instanceof " + NETTY_DATA_VISITOR + " netty) {");
+        out.println("            " + BYTE_BUF + " buffer = netty.getByteBuf();");
+        out.println("            int index = buffer.readerIndex();");
+        out.println("            // fails if the packet is not readable as whole");
+        out.println("            buffer.readerIndex(index + " + size + ");");
+        if (immutable) {
+            StringBuilder arguments = new StringBuilder();
+            int offset = 0;
+            for (VariableElement field : fields) {
+                if (!arguments.isEmpty()) arguments.append(", ");
+                arguments.append(fixedLayoutGet(field, offset));
+                offset += FIXED_WIDTHS.get(field.asType().getKind());
+            }
+            out.println("            return new " + packetName + "(" + arguments + ");");
+        } else {
+            out.println("            " + packetName + " packet = new " + packetName + "();");
+            int offset = 0;
+            for (VariableElement field : fields) {
+                out.println("            packet." + field.getSimpleName() + " = " + fixedLayoutGet(field, offset) + ";");
+                offset += FIXED_WIDTHS.get(field.asType().getKind());
+            }
+            out.println("            return packet;");
+        }
+        out.println("        }");
+    }
+
+    /**
+     * Writes code that writes the packet using its fixed layout if the packet uses it
+     * and the data visitor is backed by netty buffer. The whole packet is written after
+     * a single bounds check, followed by one update of the writer index.
+     */
+    private void writeFixedLayoutWrite(PrintWriter out, List<VariableElement> fields, int size, String accessor) {
+        out.println("        if ($FIXED_LAYOUT && visitor instanceof " + NETTY_DATA_VISITOR + " netty) {");
+        out.println("            " + BYTE_BUF + " buffer = netty.getByteBuf();");
+        out.println("            buffer.ensureWritable(" + size + ");");
+        out.println("            int index = buffer.writerIndex();");
+        int offset = 0;
+        for (VariableElement field : fields) {
+            String method = "set" + primitiveSuffix(field.asType());
+            out.println("            buffer." + method + "(" + fixedLayoutIndex(offset) + ", packet." + field.getSimpleName() + accessor + ");");
+            offset += FIXED_WIDTHS.get(field.asType().getKind());
+        }
+        out.println("            buffer.writerIndex(index + " + size + ");");
+        out.println("            return;");
+        out.println("        }");
+    }
+
+    private String fixedLayoutGet(VariableElement field, int offset) {
+        return "buffer.get" + primitiveSuffix(field.asType()) + "(" + fixedLayoutIndex(offset) + ")";
+    }
+
+    private String fixedLayoutIndex(int offset) {
+        return offset == 0 ? "index" : "index + " + offset;
+    }
+
+    private String primitiveSuffix(TypeMirror type) {
+        String name = type.getKind().name().toLowerCase();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Returns the number of bytes packets with given fields take if all of them
+     * are primitives with fixed width.
+     * <p>
+     * The fixed layout is used only if {@code paklet-core} and netty are available
+     * during the compilation, as the generated code uses their classes.
+     *
+     * @param fields serializable fields of the packet
+     * @return size of the fixed layout, or -1 if the fields do not have one
+     */
+    private int getFixedLayoutSize(List<VariableElement> fields) {
+        if (fields.isEmpty()) return -1;
+        Elements elements = processingEnv.getElementUtils();
+        for (String required : List.of(NETTY_DATA_VISITOR, PROCESSORS_UTIL, BYTE_BUF)) {
+            if (elements.getTypeElement(required) == null) return -1;
+        }
+        int size = 0;
+        for (VariableElement field : fields) {
+            Integer width = FIXED_WIDTHS.get(field.asType().getKind());
+            if (width == null) return -1;
+            size += width;
+        }
+        return size;
+    }
+
+    private void writeContextMethod(PrintWriter out, String packetName) {
+        out.println("    private static " + SERIALIZER_CONTEXT + " context(" + SERIALIZER_PROVIDER + " serializerProvider, String field) {");
+        out.println("        try {");
+        out.println("            return new " + SERIALIZER_CONTEXT + "(" + packetName + ".class.getDeclaredField(field).getAnnotatedType(), serializerProvider);");
+        out.println("        } catch (NoSuchFieldException exception) {");
+        out.println("            throw new RuntimeException(exception);");
+        out.println("        }");
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeCustomReader(PrintWriter out, TypeElement packet) {
+        String packetName = typeName(packet.asType());
+        out.println("public final class " + codecSimpleName(packet, "_READER") + " implements " + PACKET_READER + "<" + packetName + "> {");
+        out.println();
+        out.println("    @Override");
+        out.println("    public " + packetName + " read(" + SERIALIZER_CONTEXT + " context, " + DATA_VISITOR + " visitor) {");
+        out.println("        " + packetName + " packet = new " + packetName + "();");
+        out.println("        packet.construct(context, visitor);");
+        out.println("        return packet;");
+        out.println("    }");
+        out.println();
+        out.println("}");
+    }
+
+    private void writeCustomWriter(PrintWriter out, TypeElement packet) {
+        String packetName = typeName(packet.asType());
+        out.println("public final class " + codecSimpleName(packet, "_WRITER") + " implements " + PACKET_WRITER + "<" + packetName + "> {");
+        out.println();
+        out.println("    @Override");
+        out.println("    public void write(" + SERIALIZER_CONTEXT + " context, " + DATA_VISITOR + " visitor, " + packetName + " packet) {");
+        out.println("        packet.deconstruct(context, visitor);");
+        out.println("    }");
+        out.println();
+        out.println("}");
+    }
+
+    /**
+     * Creates new source file for codec of given packet and writes its header.
+     *
+     * @param packet packet type element
+     * @param suffix suffix of the codec class
+     * @param body writes the body of the source file
+     * @throws IOException if writing of the source fails
+     */
+    private void writeSource(TypeElement packet, String suffix, SourceBody body) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(packet);
+        String simpleName = codecSimpleName(packet, suffix);
+        String name = pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(name, packet);
+        try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!pkg.isUnnamed()) {
+                out.println("package " + pkg.getQualifiedName() + ";");
+                out.println();
+            }
+            out.println(GENERATED);
+            out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+            body.write(out);
+        }
+    }
+
+    /**
+     * Returns simple name of the codec class, binary name of the packet class
+     * without its package followed by the suffix, e.g. {@code Outer$Inner_READER}.
+     *
+     * @param packet packet type element
+     * @param suffix suffix of the codec class
+     * @return simple name of the codec class
+     */
+    private String codecSimpleName(TypeElement packet, String suffix) {
+        String internalName = ProcessingUtils.getInternalName(packet);
+        return internalName.substring(internalName.lastIndexOf('/') + 1) + suffix;
+    }
+
+    private String serializerType(TypeMirror type) {
+        String primitive = PRIMITIVE_SERIALIZERS.get(type.getKind());
+        if (primitive == null) return SERIALIZER;
+        return "org.machinemc.paklet.serialization." + primitive + "Serializer";
+    }
+
+    /**
+     * Checks whether given packet is a record or has final serializable fields,
+     * such packets are created using constructor accepting all serializable fields.
+     *
+     * @param packet packet type element
+     * @return whether the packet is immutable
+     */
+    private boolean isImmutable(TypeElement packet) {
+        if (packet.getKind() == ElementKind.RECORD) return true;
+        return collectSerializableFields(packet).stream().anyMatch(field -> field.getModifiers().contains(Modifier.FINAL));
+    }
+
+    /**
+     * Returns accessible constructor of given packet that accepts values of all
+     * serializable fields in order of their declaration.
+     *
+     * @param packet packet type element
+     * @return constructor accepting all serializable fields, or null if there is none
+     */
+    private ExecutableElement findFieldsConstructor(TypeElement packet) {
+        Types types = processingEnv.getTypeUtils();
+        List<VariableElement> fields = collectSerializableFields(packet);
+        constructors: for (ExecutableElement constructor : ElementFilter.constructorsIn(packet.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) continue;
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (parameters.size() != fields.size()) continue;
+            for (int i = 0; i < fields.size(); i++) {
+                if (!types.isSameType(types.erasure(parameters.get(i).asType()), types.erasure(fields.get(i).asType())))
+                    continue constructors;
+            }
+            return constructor;
+        }
+        return null;
+    }
+
+    private boolean isCustomPacket(TypeElement packet) {
+        TypeElement customPacket = processingEnv.getElementUtils().getTypeElement(CustomPacket.class.getCanonicalName());
+        return processingEnv.getTypeUtils().isAssignable(packet.asType(), customPacket.asType());
+    }
+
+    /**
+     * Returns all fields of given packet expected to serialize, in order of their declaration.
+     *
+     * @param packet packet type element
+     * @return serializable fields
+     */
+    private static List<VariableElement> collectSerializableFields(TypeElement packet) {
+        return ElementFilter.fieldsIn(packet.getEnclosedElements()).stream()
+                .filter(field -> !field.getModifiers().contains(Modifier.STATIC))
+                .filter(field -> !field.getModifiers().contains(Modifier.TRANSIENT))
+                .filter(field -> field.getAnnotation(Ignore.class) == null)
+                .toList();
+    }
+
+    /**
+     * Returns erased source name of given type, without any type annotations.
+     *
+     * @param type type
+     * @return name of the type usable in generated sources
+     */
+    private String typeName(TypeMirror type) {
+        type = processingEnv.getTypeUtils().erasure(type);
+        return switch (type.getKind()) {
+            case ARRAY -> typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            default -> {
+                if (!type.getKind().isPrimitive()) throw new IllegalArgumentException("Unsupported type: " + type);
+                yield type.getKind().name().toLowerCase();
+            }
+        };
+    }
+
+    private String boxedName(TypeMirror primitive) {
+        return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(primitive.getKind()))
+                .getQualifiedName()
+                .toString();
+    }
+
+    /**
+     * Writes body of a generated source file.
+     */
+    @FunctionalInterface
+    private interface SourceBody {
+
+        void write(PrintWriter out);
+
+    }
+
+}
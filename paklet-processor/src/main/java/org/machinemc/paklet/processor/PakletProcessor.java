@@ -32,13 +32,26 @@ import java.util.Set;
 /**
  * Annotation processor for Paklet that stores information about each catalogue in
  * its own package and file, and packet data used by the Paklet gradle plugin.
+ * <p>
+ * If the {@value #GENERATE_CODECS_OPTION} option is enabled, the processor
+ * also generates sources of readers and writers for each packet, see {@link CodecSourceGenerator}.
  */
 @AutoService(Processor.class)
 @SupportedSourceVersion(SourceVersion.RELEASE_21)
 public class PakletProcessor extends AbstractProcessor {
 
+    /**
+     * Processor option that enables generation of packet reader and writer sources.
+     */
+    public static final String GENERATE_CODECS_OPTION = "paklet.generateCodecs";
+
     private boolean processed = false;
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(GENERATE_CODECS_OPTION);
+    }
+
     @Override
     public Set<String> getSupportedAnnotationTypes() {
         return Set.of(
@@ -117,6 +130,16 @@ public class PakletProcessor extends AbstractProcessor {
             }
         }
 
+        codecs: {
+            if (!Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_CODECS_OPTION))) break codecs;
+            CodecSourceGenerator generator = new CodecSourceGenerator(processingEnv);
+            try {
+                for (TypeElement packet : packets) generator.generate(packet);
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
         processed = true;
         return true;
     }
@@ -0,0 +1,209 @@
+package org.machinemc.paklet.test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.machinemc.paklet.DataVisitor;
+import org.machinemc.paklet.PacketEncoder;
+import org.machinemc.paklet.PacketFactory;
+import org.machinemc.paklet.PacketFactoryImpl;
+import org.machinemc.paklet.PacketWriter;
+import org.machinemc.paklet.SerializerProviderImpl;
+import org.machinemc.paklet.netty.NettyDataVisitor;
+import org.machinemc.paklet.processor.PakletProcessor;
+import org.machinemc.paklet.processors.GeneratedReaderCreator;
+import org.machinemc.paklet.processors.GeneratedWriterCreator;
+import org.machinemc.paklet.processors.ProcessorsUtil;
+import org.machinemc.paklet.serialization.SerializerProvider;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializationRules;
+import org.machinemc.paklet.serialization.catalogue.DefaultSerializers;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class CodecSourceGeneratorTest {
+
+    private static final Map<String, String> SOURCES = Map.of(
+            "FixedPacket", """
+                    package test;
+
+                    import org.machinemc.paklet.Packet;
+
+                    @Packet(id = 0, group = "test", catalogue = FixedPacket.class)
+                    public class FixedPacket {
+                        public boolean flag;
+                        public short height;
+                        public char symbol;
+                        public int value;
+                        public long time;
+                        public double position;
+                    }
+                    """,
+            "FixedRecord", """
+                    package test;
+
+                    import org.machinemc.paklet.Packet;
+
+                    @Packet(id = 1, group = "test", catalogue = FixedPacket.class)
+                    public record FixedRecord(byte state, float speed) {
+                    }
+                    """,
+            "ConstrainedPacket", """
+                    package test;
+
+                    import org.machinemc.paklet.Packet;
+                    import org.machinemc.paklet.metadata.Range;
+
+                    @Packet(id = 0, group = {"trusted", "untrusted"}, catalogue = FixedPacket.class)
+                    public class ConstrainedPacket {
+                        public @Range(min = 0, max = 10, inclusive = true) int value;
+                    }
+                    """
+    );
+
+    @TempDir
+    static Path output;
+
+    static ClassLoader classLoader;
+
+    @BeforeAll
+    public static void compile() throws IOException {
+        Path sources = Files.createDirectories(output.resolve("sources"));
+        Path classes = Files.createDirectories(output.resolve("classes"));
+        for (Map.Entry<String, String> source : SOURCES.entrySet())
+            Files.writeString(Files.createDirectories(sources.resolve("test")).resolve(source.getKey() + ".java"), source.getValue());
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(
+                    SOURCES.keySet().stream().map(name -> sources.resolve("test").resolve(name + ".java")).toList()
+            );
+            List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.toString(),
+                    "-s", sources.toString(),
+                    "-A" + PakletProcessor.GENERATE_CODECS_OPTION + "=true"
+            );
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, units);
+            task.setProcessors(List.of(new PakletProcessor()));
+            assert task.call();
+        }
+        classLoader = new URLClassLoader(new URL[] {classes.toUri().toURL()}, CodecSourceGeneratorTest.class.getClassLoader());
+    }
+
+    @Test
+    public void compiledCodecsTest() throws Exception {
+        Class<?> packet = classLoader.loadClass("test.FixedPacket");
+        assert ProcessorsUtil.hasCompiledCodecs(packet);
+        assert ProcessorsUtil.findCompiledCodec(packet, "_TRUSTED_WRITER") != null;
+        for (String suffix : List.of("_READER", "_WRITER", "_TRUSTED_WRITER"))
+            ProcessorsUtil.findCompiledCodec(packet, suffix).getDeclaredField("$FIXED_LAYOUT");
+
+        // compiled codecs with the fixed layout fast path are not replaced by hidden ones
+        SerializerProvider serializerProvider = createSerializerProvider();
+        assert ProcessorsUtil.getDefaultReaderCreator(packet, serializerProvider) instanceof GeneratedReaderCreator;
+        assert ProcessorsUtil.getDefaultWriterCreator(packet, serializerProvider) instanceof GeneratedWriterCreator;
+        assert ProcessorsUtil.getDefaultWriterCreator(packet, serializerProvider, true) instanceof GeneratedWriterCreator;
+    }
+
+    @Test
+    public void fixedLayoutTest() throws Exception {
+        PacketFactory factory = createFactory();
+        Class<?> type = classLoader.loadClass("test.FixedPacket");
+        factory.addPacket(type);
+
+        Object packet = type.getConstructor().newInstance();
+        type.getField("flag").setBoolean(packet, true);
+        type.getField("height").setShort(packet, (short) -2);
+        type.getField("symbol").setChar(packet, 'x');
+        type.getField("value").setInt(packet, 10);
+        type.getField("time").setLong(packet, Long.MIN_VALUE);
+        type.getField("position").setDouble(packet, 0.5);
+
+        ByteBuf buf = Unpooled.buffer();
+        factory.write(packet, "test", new NettyDataVisitor(buf));
+        // packet id followed by the fields
+        assert buf.readableBytes() == 1 + 1 + 2 + 2 + 4 + 8 + 8;
+        Object clone = factory.create("test", new NettyDataVisitor(buf));
+
+        for (String field : List.of("flag", "height", "symbol", "value", "time", "position"))
+            assert type.getField(field).get(clone).equals(type.getField(field).get(packet));
+        assert !buf.isReadable();
+    }
+
+    @Test
+    public void fixedLayoutRecordTest() throws Exception {
+        PacketFactory factory = createFactory();
+        Class<?> type = classLoader.loadClass("test.FixedRecord");
+        factory.addPacket(type);
+
+        Object packet = type.getConstructor(byte.class, float.class).newInstance((byte) 7, 1.5f);
+        DataVisitor visitor = new NettyDataVisitor(Unpooled.buffer());
+        factory.write(packet, "test", visitor);
+        Object clone = factory.create("test", visitor);
+
+        assert packet.equals(clone);
+    }
+
+    @Test
+    public void truncatedFixedLayoutTest() throws Exception {
+        PacketFactory factory = createFactory();
+        Class<?> type = classLoader.loadClass("test.FixedRecord");
+        factory.addPacket(type);
+
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(1).writeByte(7).writeShort(0);
+        try {
+            factory.create("test", new NettyDataVisitor(buf));
+            assert false;
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+
+    @Test
+    public void trustedWriterTest() throws Exception {
+        PacketFactory factory = createFactory();
+        factory.setTrusted("trusted", true);
+        Class<?> type = classLoader.loadClass("test.ConstrainedPacket");
+        factory.addPacket(type);
+
+        PacketWriter<?> writer = ProcessorsUtil.getDefaultWriterCreator(type, createSerializerProvider(), true).create(type);
+        assert writer.getClass() == ProcessorsUtil.findCompiledCodec(type, "_TRUSTED_WRITER");
+
+        Object packet = type.getConstructor().newInstance();
+        type.getField("value").setInt(packet, 20);
+
+        try {
+            factory.write(packet, "untrusted", new NettyDataVisitor(Unpooled.buffer()));
+            assert false;
+        } catch (IllegalArgumentException ignored) {
+        }
+
+        ByteBuf buf = Unpooled.buffer();
+        factory.write(packet, "trusted", new NettyDataVisitor(buf));
+        assert buf.getInt(1) == 20;
+    }
+
+    private static PacketFactory createFactory() {
+        return new PacketFactoryImpl(PacketEncoder.varInt(), createSerializerProvider());
+    }
+
+    private static SerializerProvider createSerializerProvider() {
+        SerializerProvider serializerProvider = new SerializerProviderImpl();
+        serializerProvider.addSerializers(DefaultSerializers.class);
+        serializerProvider.addSerializationRules(DefaultSerializationRules.class);
+        return serializerProvider;
+    }
+
+}
@@ -3,6 +3,7 @@ rootProject.name = "Paklet"
 include("paklet-api")
 include("paklet-processor")
 include("paklet-core")
+include("paklet-netty")
 
 pluginManagement {
     includeBuild("build-logic")